@@ -0,0 +1,528 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.processor;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Annotation processor that generates a binding module for each test class that declares classes annotated with
+ * <code>@Bind</code> or static methods annotated with <code>@Provides</code>
+ *
+ * The generated module binds the same types as the bindings Guice Squeezer would otherwise discover by reflection, but
+ * uses plain <code>bind(...).to(...)</code> calls and generated provider classes that call the provider methods
+ * directly. Guice Squeezer uses the generated module if it is present on the class path. Invalid bindings, e.g.
+ * non-static bound classes or provider methods without a return type, are reported as compile errors.
+ *
+ * Test classes with private bound classes or provider methods cannot be accessed from the generated module. No module
+ * is generated for them, so Guice Squeezer falls back to discovering their bindings by reflection.
+ */
+@SupportedAnnotationTypes({ BindingModuleProcessor.BIND_ANNOTATION, BindingModuleProcessor.PROVIDES_ANNOTATION })
+public class BindingModuleProcessor extends AbstractProcessor {
+
+    /**
+     * Name of the bind annotation
+     */
+    public static final String BIND_ANNOTATION = "me.seeber.guicesqueezer.Bind";
+
+    /**
+     * Name of the provides annotation
+     */
+    public static final String PROVIDES_ANNOTATION = "com.google.inject.Provides";
+
+    /**
+     * Suffix appended to the name of the test class to get the name of the generated module
+     *
+     * Must match the suffix Guice Squeezer uses to look up the generated module.
+     */
+    public static final String GENERATED_MODULE_SUFFIX = "_BindingModule";
+
+    /**
+     * Names of meta annotations that mark qualifiers
+     */
+    protected static final List<String> QUALIFIER_ANNOTATIONS = Collections
+            .unmodifiableList(Arrays.asList("javax.inject.Qualifier", "com.google.inject.BindingAnnotation"));
+
+    /**
+     * Names of meta annotations that mark scopes
+     */
+    protected static final List<String> SCOPE_ANNOTATIONS = Collections
+            .unmodifiableList(Arrays.asList("javax.inject.Scope", "com.google.inject.ScopeAnnotation"));
+
+    /**
+     * Bound classes and provider methods declared by a test class
+     */
+    protected static class TestClassBindings {
+
+        /**
+         * Test class
+         */
+        private final TypeElement testClass;
+
+        /**
+         * Nested classes annotated with <code>@Bind</code>
+         */
+        private final List<TypeElement> boundClasses;
+
+        /**
+         * Methods annotated with <code>@Provides</code>
+         */
+        private final List<ExecutableElement> providerMethods;
+
+        /**
+         * Create new bindings
+         *
+         * @param testClass Test class
+         */
+        public TestClassBindings(TypeElement testClass) {
+            this.testClass = testClass;
+            this.boundClasses = new ArrayList<>();
+            this.providerMethods = new ArrayList<>();
+        }
+
+        /**
+         * Get the test class
+         *
+         * @return Test class
+         */
+        public TypeElement getTestClass() {
+            return this.testClass;
+        }
+
+        /**
+         * Get the nested classes annotated with <code>@Bind</code>
+         *
+         * @return Bound classes
+         */
+        public List<TypeElement> getBoundClasses() {
+            return this.boundClasses;
+        }
+
+        /**
+         * Get the methods annotated with <code>@Provides</code>
+         *
+         * @return Provider methods
+         */
+        public List<ExecutableElement> getProviderMethods() {
+            return this.providerMethods;
+        }
+
+    }
+
+    /**
+     * @see javax.annotation.processing.AbstractProcessor#getSupportedSourceVersion()
+     */
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    /**
+     * @see javax.annotation.processing.AbstractProcessor#process(java.util.Set,
+     *      javax.annotation.processing.RoundEnvironment)
+     */
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        Map<TypeElement, TestClassBindings> testClasses = new LinkedHashMap<>();
+        TypeElement bindAnnotation = this.processingEnv.getElementUtils().getTypeElement(BIND_ANNOTATION);
+        TypeElement providesAnnotation = this.processingEnv.getElementUtils().getTypeElement(PROVIDES_ANNOTATION);
+
+        if (bindAnnotation != null) {
+            for (Element element : roundEnvironment.getElementsAnnotatedWith(bindAnnotation)) {
+                Element enclosingElement = element.getEnclosingElement();
+
+                if (element instanceof TypeElement && enclosingElement instanceof TypeElement) {
+                    testClasses.computeIfAbsent((TypeElement) enclosingElement, c -> new TestClassBindings(c))
+                            .getBoundClasses().add((TypeElement) element);
+                }
+            }
+        }
+
+        if (providesAnnotation != null) {
+            for (Element element : roundEnvironment.getElementsAnnotatedWith(providesAnnotation)) {
+                Element enclosingElement = element.getEnclosingElement();
+
+                if (element instanceof ExecutableElement && enclosingElement instanceof TypeElement
+                        && !isModule((TypeElement) enclosingElement)) {
+                    testClasses.computeIfAbsent((TypeElement) enclosingElement, c -> new TestClassBindings(c))
+                            .getProviderMethods().add((ExecutableElement) element);
+                }
+            }
+        }
+
+        for (TestClassBindings bindings : testClasses.values()) {
+            if (validate(bindings) && isAccessible(bindings)) {
+                generate(bindings);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Check if the bindings of a test class are valid and report errors
+     *
+     * @param bindings Bindings of the test class
+     * @return <code>true</code> if the bindings are valid
+     */
+    protected boolean validate(TestClassBindings bindings) {
+        boolean valid = true;
+
+        for (TypeElement boundClass : bindings.getBoundClasses()) {
+            if (!boundClass.getModifiers().contains(Modifier.STATIC)) {
+                error(boundClass, "Class '%s' annotated with '%s' must be static.", boundClass.getQualifiedName(),
+                        "Bind");
+                valid = false;
+            }
+            else if (!getBoundType(boundClass).isPresent()) {
+                error(boundClass,
+                        "Cannot determine bound type for class '%s' annotated with '%s'. If you do not specify the "
+                                + "bound type in the annotation, the class must either implement an interface or "
+                                + "extend a class other than Object that is then used as bound type.",
+                        boundClass.getQualifiedName(), "Bind");
+                valid = false;
+            }
+            else if (!this.processingEnv.getTypeUtils().isAssignable(
+                    this.processingEnv.getTypeUtils().erasure(boundClass.asType()), getBoundType(boundClass).get())) {
+                error(boundClass, "Class '%s' annotated with '%s' must be a subtype of '%s'.",
+                        boundClass.getQualifiedName(), "Bind", getBoundType(boundClass).get());
+                valid = false;
+            }
+
+            valid &= validateAnnotations(boundClass);
+        }
+
+        for (ExecutableElement method : bindings.getProviderMethods()) {
+            if (!method.getModifiers().contains(Modifier.STATIC)) {
+                error(method, "Method '%s' annotated with '%s' must be static.", method.getSimpleName(), "Provides");
+                valid = false;
+            }
+            else if (method.getReturnType().getKind() == TypeKind.VOID) {
+                error(method, "Method '%s' annotated with '%s' must have a return type.", method.getSimpleName(),
+                        "Provides");
+                valid = false;
+            }
+            else if (!method.getTypeParameters().isEmpty()) {
+                error(method, "Method '%s' annotated with '%s' must not have type parameters.",
+                        method.getSimpleName(), "Provides");
+                valid = false;
+            }
+
+            valid &= validateAnnotations(method);
+
+            for (Element parameter : method.getParameters()) {
+                if (getAnnotations(parameter, QUALIFIER_ANNOTATIONS).size() > 1) {
+                    error(parameter, "Method '%s' has more than one qualifier annotation for parameter '%s'",
+                            method.getSimpleName(), parameter.getSimpleName());
+                    valid = false;
+                }
+            }
+        }
+
+        return valid;
+    }
+
+    /**
+     * Check that an element has at most one qualifier and one scope annotation and report errors
+     *
+     * @param element Element to check
+     * @return <code>true</code> if the annotations are valid
+     */
+    protected boolean validateAnnotations(Element element) {
+        boolean valid = true;
+
+        if (getAnnotations(element, QUALIFIER_ANNOTATIONS).size() > 1) {
+            error(element, "Element '%s' has more than one qualifier annotation", element.getSimpleName());
+            valid = false;
+        }
+
+        if (getAnnotations(element, SCOPE_ANNOTATIONS).size() > 1) {
+            error(element, "Element '%s' has more than one scope annotation", element.getSimpleName());
+            valid = false;
+        }
+
+        return valid;
+    }
+
+    /**
+     * Check if the generated module can access all bound classes and provider methods of a test class
+     *
+     * @param bindings Bindings of the test class
+     * @return <code>true</code> if all elements are accessible
+     */
+    protected boolean isAccessible(TestClassBindings bindings) {
+        List<Element> elements = new ArrayList<>();
+        elements.addAll(bindings.getBoundClasses());
+        elements.addAll(bindings.getProviderMethods());
+
+        for (Element element = bindings.getTestClass(); element instanceof TypeElement; element = element
+                .getEnclosingElement()) {
+            elements.add(element);
+        }
+
+        boolean accessible = true;
+
+        for (Element element : elements) {
+            if (element.getModifiers().contains(Modifier.PRIVATE) || element instanceof TypeElement
+                    && ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL
+                    && ((TypeElement) element).getNestingKind() != NestingKind.MEMBER) {
+                this.processingEnv.getMessager().printMessage(Kind.NOTE,
+                        format("'%s' is not accessible, bindings of '%s' are discovered at runtime.",
+                                element.getSimpleName(), bindings.getTestClass().getQualifiedName()),
+                        element);
+                accessible = false;
+            }
+        }
+
+        return accessible;
+    }
+
+    /**
+     * Generate the binding module for a test class
+     *
+     * @param bindings Bindings of the test class
+     */
+    protected void generate(TestClassBindings bindings) {
+        TypeElement testClass = bindings.getTestClass();
+        String packageName = this.processingEnv.getElementUtils().getPackageOf(testClass).getQualifiedName()
+                .toString();
+        String moduleName = getModuleName(testClass);
+        BindingModuleWriter moduleWriter = new BindingModuleWriter(this.processingEnv, packageName, moduleName,
+                testClass);
+
+        for (TypeElement boundClass : bindings.getBoundClasses()) {
+            moduleWriter.addBoundClass(boundClass, getBoundType(boundClass).get(),
+                    getAnnotation(boundClass, QUALIFIER_ANNOTATIONS), getAnnotation(boundClass, SCOPE_ANNOTATIONS));
+        }
+
+        for (ExecutableElement method : bindings.getProviderMethods()) {
+            List<Optional<AnnotationMirror>> parameterQualifiers = method.getParameters().stream()
+                    .map(p -> getAnnotation(p, QUALIFIER_ANNOTATIONS)).collect(Collectors.toList());
+            moduleWriter.addProviderMethod(method, getAnnotation(method, QUALIFIER_ANNOTATIONS),
+                    getAnnotation(method, SCOPE_ANNOTATIONS), parameterQualifiers);
+        }
+
+        String qualifiedName = packageName.isEmpty() ? moduleName : packageName + "." + moduleName;
+
+        try {
+            JavaFileObject file = this.processingEnv.getFiler().createSourceFile(qualifiedName, testClass);
+
+            try (Writer writer = file.openWriter()) {
+                writer.write(moduleWriter.write());
+            }
+        }
+        catch (IOException e) {
+            error(testClass, "Could not write binding module '%s': %s", qualifiedName, e.getMessage());
+        }
+    }
+
+    /**
+     * Get the name of the generated module for a test class
+     *
+     * The names of the test class and its enclosing classes are joined by underscores. Underscores in the names are
+     * replaced with <code>_1</code>, so different test classes never get the same module name.
+     *
+     * @param testClass Test class
+     * @return Simple name of the generated module
+     */
+    protected String getModuleName(TypeElement testClass) {
+        StringBuilder name = new StringBuilder(getEscapedName(testClass));
+
+        for (Element element = testClass.getEnclosingElement(); element instanceof TypeElement; element = element
+                .getEnclosingElement()) {
+            name.insert(0, '_').insert(0, getEscapedName(element));
+        }
+
+        name.append(GENERATED_MODULE_SUFFIX);
+        return name.toString();
+    }
+
+    /**
+     * Get the simple name of a class used in the name of a generated module
+     *
+     * @param element Class
+     * @return Simple name with underscores replaced by <code>_1</code>
+     */
+    protected static String getEscapedName(Element element) {
+        return element.getSimpleName().toString().replace("_", "_1");
+    }
+
+    /**
+     * Get the type bound by a class annotated with <code>@Bind</code>
+     *
+     * @param boundClass Bound class
+     * @return Bound type, or an empty optional if the type cannot be determined
+     */
+    protected Optional<TypeMirror> getBoundType(TypeElement boundClass) {
+        for (AnnotationMirror annotation : boundClass.getAnnotationMirrors()) {
+            if (getName(annotation).equals(BIND_ANNOTATION)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation
+                        .getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        TypeMirror value = (TypeMirror) entry.getValue().getValue();
+
+                        if (!isType(value, "java.lang.Void")) {
+                            return Optional.of(value);
+                        }
+                    }
+                }
+            }
+        }
+
+        Optional<TypeMirror> boundType;
+
+        if (!boundClass.getInterfaces().isEmpty()) {
+            boundType = Optional.of(boundClass.getInterfaces().get(0));
+        }
+        else if (boundClass.getSuperclass().getKind() == TypeKind.DECLARED
+                && !isType(boundClass.getSuperclass(), "java.lang.Object")) {
+            boundType = Optional.of(boundClass.getSuperclass());
+        }
+        else {
+            boundType = Optional.empty();
+        }
+
+        return boundType.map(t -> this.processingEnv.getTypeUtils().erasure(t));
+    }
+
+    /**
+     * Get the annotations of an element whose types are annotated with one of the given meta annotations
+     *
+     * @param element Annotated element
+     * @param metaAnnotations Names of the meta annotations
+     * @return Matching annotations
+     */
+    protected List<AnnotationMirror> getAnnotations(Element element, List<String> metaAnnotations) {
+        List<AnnotationMirror> annotations = new ArrayList<>();
+
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            Element annotationType = annotation.getAnnotationType().asElement();
+
+            if (annotationType.getAnnotationMirrors().stream().anyMatch(m -> metaAnnotations.contains(getName(m)))) {
+                annotations.add(annotation);
+            }
+        }
+
+        return annotations;
+    }
+
+    /**
+     * Get the single annotation of an element whose type is annotated with one of the given meta annotations
+     *
+     * @param element Annotated element
+     * @param metaAnnotations Names of the meta annotations
+     * @return Matching annotation, or an empty optional if there is no matching annotation
+     */
+    protected Optional<AnnotationMirror> getAnnotation(Element element, List<String> metaAnnotations) {
+        List<AnnotationMirror> annotations = getAnnotations(element, metaAnnotations);
+        Optional<AnnotationMirror> annotation = annotations.stream().findFirst();
+        return annotation;
+    }
+
+    /**
+     * Check if a class extends <code>com.google.inject.Module</code>
+     *
+     * Provider methods of Guice modules are handled by Guice and not by the generated module.
+     *
+     * @param type Class to check
+     * @return <code>true</code> if the class is a module
+     */
+    protected boolean isModule(TypeElement type) {
+        TypeElement moduleType = this.processingEnv.getElementUtils().getTypeElement("com.google.inject.Module");
+        boolean module = moduleType != null && (type.getKind() == ElementKind.INTERFACE
+                || this.processingEnv.getTypeUtils().isAssignable(type.asType(),
+                        this.processingEnv.getTypeUtils().erasure(moduleType.asType())));
+        return module;
+    }
+
+    /**
+     * Check if a type is the declared type with the given name
+     *
+     * @param type Type to check
+     * @param name Qualified name
+     * @return <code>true</code> if the type has the name
+     */
+    protected static boolean isType(TypeMirror type, String name) {
+        boolean matches = type instanceof DeclaredType
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+        return matches;
+    }
+
+    /**
+     * Get the qualified name of an annotation type
+     *
+     * @param annotation Annotation
+     * @return Qualified name of the annotation type
+     */
+    protected static String getName(AnnotationMirror annotation) {
+        return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    /**
+     * Report an error
+     *
+     * @param element Element that caused the error
+     * @param message Message format
+     * @param arguments Message arguments
+     */
+    protected void error(Element element, String message, @Nullable Object... arguments) {
+        this.processingEnv.getMessager().printMessage(Kind.ERROR, format(message, arguments), element);
+    }
+
+}
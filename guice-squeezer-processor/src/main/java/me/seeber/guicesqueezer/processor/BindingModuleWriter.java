@@ -0,0 +1,490 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.processor;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+
+/**
+ * Writer that creates the source of a generated binding module
+ */
+public class BindingModuleWriter {
+
+    /**
+     * Processing environment
+     */
+    private final ProcessingEnvironment processingEnv;
+
+    /**
+     * Package of the generated module
+     */
+    private final String packageName;
+
+    /**
+     * Simple name of the generated module
+     */
+    private final String moduleName;
+
+    /**
+     * Test class whose bindings are generated
+     */
+    private final TypeElement testClass;
+
+    /**
+     * Statements that create the bindings
+     */
+    private final List<String> bindings;
+
+    /**
+     * Sources of the generated provider classes
+     */
+    private final List<String> providerClasses;
+
+    /**
+     * Flag if the generated module looks up provider methods by reflection
+     */
+    private boolean usesMethodLookup;
+
+    /**
+     * Create a new writer
+     *
+     * @param processingEnv Processing environment
+     * @param packageName Package of the generated module
+     * @param moduleName Simple name of the generated module
+     * @param testClass Test class whose bindings are generated
+     */
+    public BindingModuleWriter(ProcessingEnvironment processingEnv, String packageName, String moduleName,
+            TypeElement testClass) {
+        this.processingEnv = processingEnv;
+        this.packageName = packageName;
+        this.moduleName = moduleName;
+        this.testClass = testClass;
+        this.bindings = new ArrayList<>();
+        this.providerClasses = new ArrayList<>();
+    }
+
+    /**
+     * Add the binding for a class annotated with <code>@Bind</code>
+     *
+     * @param boundClass Bound class
+     * @param boundType Bound type
+     * @param qualifier Qualifier annotation of the bound class
+     * @param scope Scope annotation of the bound class
+     */
+    public void addBoundClass(TypeElement boundClass, TypeMirror boundType, Optional<AnnotationMirror> qualifier,
+            Optional<AnnotationMirror> scope) {
+        StringBuilder binding = new StringBuilder();
+        binding.append("bind(").append(getClassLiteral(boundType)).append(")");
+
+        if (qualifier.isPresent()) {
+            binding.append(".annotatedWith(")
+                    .append(getQualifier(qualifier.get(), boundClass.getQualifiedName() + ".class")).append(")");
+        }
+
+        binding.append(".to(").append(boundClass.getQualifiedName()).append(".class)");
+
+        if (scope.isPresent()) {
+            binding.append(".in(").append(getAnnotationType(scope.get())).append(".class)");
+        }
+
+        binding.append(";");
+        this.bindings.add(binding.toString());
+    }
+
+    /**
+     * Add the binding and the provider class for a method annotated with <code>@Provides</code>
+     *
+     * The method is bound to its raw return type, and arguments of type {@link Optional},
+     * {@link java.util.function.Supplier} or <code>Lazy</code> are resolved by the default argument resolver, like the
+     * bindings discovered by reflection. The provider class is a singleton, so the providers of the arguments are only
+     * looked up once per injector. Failures of the provider method are reported with the same exceptions and messages
+     * as the bindings discovered by reflection.
+     *
+     * @param method Provider method
+     * @param qualifier Qualifier annotation of the provider method
+     * @param scope Scope annotation of the provider method
+     * @param parameterQualifiers Qualifier annotation of each parameter
+     */
+    public void addProviderMethod(ExecutableElement method, Optional<AnnotationMirror> qualifier,
+            Optional<AnnotationMirror> scope, List<Optional<AnnotationMirror>> parameterQualifiers) {
+        String providerName = "ProviderMethod" + this.providerClasses.size();
+        String providedType = getBoxedType(method.getReturnType());
+
+        StringBuilder binding = new StringBuilder();
+        binding.append("bind(").append(getClassLiteral(method.getReturnType())).append(")");
+
+        if (qualifier.isPresent()) {
+            binding.append(".annotatedWith(").append(getQualifier(qualifier.get(), providerName + ".METHOD"))
+                    .append(")");
+        }
+
+        binding.append(".toProvider(").append(providerName).append(".class)");
+
+        if (scope.isPresent()) {
+            binding.append(".in(").append(getAnnotationType(scope.get())).append(".class)");
+        }
+
+        binding.append(";");
+        this.bindings.add(binding.toString());
+
+        StringBuilder keys = new StringBuilder();
+        StringBuilder fields = new StringBuilder();
+        List<String> constructorParameters = new ArrayList<>();
+        StringBuilder assignments = new StringBuilder();
+        StringBuilder parameters = new StringBuilder();
+        List<String> arguments = new ArrayList<>();
+        boolean usesInjector = false;
+        int index = 0;
+
+        keys.append(format("        private static final java.lang.reflect.Method METHOD = %s;%n%n",
+                getMethodLookup(method)));
+
+        for (VariableElement parameter : method.getParameters()) {
+            Optional<AnnotationMirror> parameterQualifier = parameterQualifiers.get(index);
+            String name = "argument" + index;
+
+            if (isWrapper(parameter.asType())) {
+                String keyName = "KEY" + index;
+                String key = getKey(parameter.asType(), parameterQualifier,
+                        format("METHOD.getParameters()[%d]", index));
+
+                keys.append(format("        private static final com.google.inject.Key<?> %s = %s;%n%n", keyName, key));
+                fields.append(format("        private final com.google.inject.Provider<?> %s;%n%n", name));
+                assignments.append(format("            this.%s = me.seeber.guicesqueezer.DefaultArgumentResolver"
+                        + ".getDefault().getArgumentProvider(%s, injector);%n", name, keyName));
+                parameters.append(format("            %s parameter%d = (%s) this.%s.get();%n", parameter.asType(),
+                        index, parameter.asType(), name));
+                arguments.add("parameter" + index);
+                usesInjector = true;
+            }
+            else {
+                boolean provider = isProvider(parameter.asType());
+                String injectedType = provider ? parameter.asType().toString()
+                        : "com.google.inject.Provider<" + getBoxedType(parameter.asType()) + ">";
+
+                fields.append(format("        private final %s %s;%n%n", injectedType, name));
+                constructorParameters.add((parameterQualifier.isPresent() ? parameterQualifier.get() + " " : "")
+                        + injectedType + " " + name);
+                assignments.append(format("            this.%s = %s;%n", name, name));
+
+                if (provider) {
+                    arguments.add("this." + name);
+                }
+                else {
+                    parameters.append(format("            %s parameter%d = this.%s.get();%n",
+                            getBoxedType(parameter.asType()), index, name));
+                    arguments.add("parameter" + index);
+                }
+            }
+
+            ++index;
+        }
+
+        if (usesInjector) {
+            constructorParameters.add("com.google.inject.Injector injector");
+        }
+
+        StringBuilder body = new StringBuilder();
+
+        if (parameters.length() > 0) {
+            body.append(parameters).append(format("%n"));
+        }
+
+        body.append(format("            %s value;%n%n", providedType));
+        body.append(format("            try {%n"));
+        body.append(format("                value = %s.%s(%s);%n", this.testClass.getQualifiedName(),
+                method.getSimpleName(), String.join(", ", arguments)));
+        body.append(format("            }%n"));
+        body.append(format("            catch (Throwable t) {%n"));
+        body.append(format("                throw new IllegalStateException(java.lang.String.format(%s, METHOD),%n",
+                getConstant("Error calling provider method '%s'")));
+        body.append(format("                        new java.lang.reflect.InvocationTargetException(t));%n"));
+        body.append(format("            }%n"));
+        body.append(format("%n            if (value == null) {%n"));
+        body.append(format("                throw new NullPointerException(java.lang.String.format(%s, METHOD));%n",
+                getConstant("Provider method '%s' returned a null value")));
+        body.append(format("            }%n%n"));
+        body.append(format("            return value;%n"));
+
+        StringBuilder providerClass = new StringBuilder();
+        providerClass.append(format("    /**%n"));
+        providerClass.append(format("     * Provider that calls {@code %s}%n", getMethodDescription(method)));
+        providerClass.append(format("     */%n"));
+        providerClass.append(format("    @com.google.inject.Singleton%n"));
+        providerClass.append(format("    public static final class %s implements com.google.inject.Provider<%s> {%n%n",
+                providerName, providedType));
+        providerClass.append(keys);
+        providerClass.append(fields);
+        providerClass.append(format("        @com.google.inject.Inject%n"));
+        providerClass.append(
+                format("        public %s(%s) {%n", providerName, String.join(", ", constructorParameters)));
+        providerClass.append(assignments);
+        providerClass.append(format("        }%n%n"));
+        providerClass.append(format("        @Override%n"));
+        providerClass.append(format("        public %s get() {%n", providedType));
+        providerClass.append(body);
+        providerClass.append(format("        }%n%n"));
+        providerClass.append(format("    }%n%n"));
+        this.providerClasses.add(providerClass.toString());
+    }
+
+    /**
+     * Write the source of the generated module
+     *
+     * @return Source of the generated module
+     */
+    public String write() {
+        StringBuilder source = new StringBuilder();
+
+        if (!this.packageName.isEmpty()) {
+            source.append(format("package %s;%n%n", this.packageName));
+        }
+
+        source.append(format("/**%n"));
+        source.append(format(" * Bindings of {@link %s}, generated by {@code %s}%n", this.testClass.getQualifiedName(),
+                BindingModuleProcessor.class.getName()));
+        source.append(format(" */%n"));
+        source.append(format("@me.seeber.guicesqueezer.StatelessModule%n"));
+        source.append(format("@SuppressWarnings({ \"unchecked\", \"rawtypes\" })%n"));
+        source.append(format("public final class %s extends com.google.inject.AbstractModule {%n%n", this.moduleName));
+
+        for (String providerClass : this.providerClasses) {
+            source.append(providerClass);
+        }
+
+        source.append(format("    @Override%n"));
+        source.append(format("    protected void configure() {%n"));
+
+        for (String binding : this.bindings) {
+            source.append(format("        %s%n", binding));
+        }
+
+        source.append(format("    }%n"));
+
+        if (this.usesMethodLookup) {
+            source.append(format("%n"));
+            source.append(format("    private static java.lang.reflect.Method getMethod(Class<?> type, String name, "
+                    + "Class<?>... parameterTypes) {%n"));
+            source.append(format("        try {%n"));
+            source.append(format("            return type.getDeclaredMethod(name, parameterTypes);%n"));
+            source.append(format("        }%n"));
+            source.append(format("        catch (NoSuchMethodException e) {%n"));
+            source.append(format("            throw new IllegalStateException(e);%n"));
+            source.append(format("        }%n"));
+            source.append(format("    }%n"));
+        }
+
+        source.append(format("%n}%n"));
+        return source.toString();
+    }
+
+    /**
+     * Get the expression that creates the qualifier used to annotate a binding
+     *
+     * Named annotations are created with <code>Names.named(...)</code>, and annotations without members are
+     * represented by their type. Other annotations are read from the annotated element at runtime.
+     *
+     * @param qualifier Qualifier annotation
+     * @param annotatedElement Expression that returns the annotated element
+     * @return Qualifier expression
+     */
+    protected String getQualifier(AnnotationMirror qualifier, String annotatedElement) {
+        String annotationType = getAnnotationType(qualifier);
+        String expression;
+
+        if (annotationType.equals("javax.inject.Named") || annotationType.equals("com.google.inject.name.Named")) {
+            Object value = "";
+
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : qualifier.getElementValues()
+                    .entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    value = entry.getValue().getValue();
+                }
+            }
+
+            expression = format("com.google.inject.name.Names.named(%s)", getConstant(value.toString()));
+        }
+        else if (ElementFilter.methodsIn(qualifier.getAnnotationType().asElement().getEnclosedElements()).isEmpty()) {
+            expression = annotationType + ".class";
+        }
+        else {
+            expression = format("%s.getAnnotation(%s.class)", annotatedElement, annotationType);
+        }
+
+        return expression;
+    }
+
+    /**
+     * Get the class literal of a bound type
+     *
+     * Types are bound by their erasure like the bindings discovered by reflection.
+     *
+     * @param type Bound type
+     * @return Class literal of the erasure of the type, boxing primitive types
+     */
+    protected String getClassLiteral(TypeMirror type) {
+        String literal = (type.getKind().isPrimitive() ? getBoxedType(type) : getErasure(type)) + ".class";
+        return literal;
+    }
+
+    /**
+     * Get the expression that creates the key of a parameter
+     *
+     * @param type Type of the parameter
+     * @param qualifier Qualifier annotation of the parameter
+     * @param annotatedElement Expression that returns the parameter
+     * @return Key expression
+     */
+    protected String getKey(TypeMirror type, Optional<AnnotationMirror> qualifier, String annotatedElement) {
+        String typeLiteral = format("new com.google.inject.TypeLiteral<%s>() {}", type);
+        String key = qualifier.isPresent()
+                ? format("com.google.inject.Key.get(%s, %s)", typeLiteral, getQualifier(qualifier.get(),
+                        annotatedElement))
+                : format("com.google.inject.Key.get(%s)", typeLiteral);
+        return key;
+    }
+
+    /**
+     * Get the expression that looks up a provider method by reflection
+     *
+     * @param method Provider method
+     * @return Lookup expression
+     */
+    protected String getMethodLookup(ExecutableElement method) {
+        this.usesMethodLookup = true;
+
+        StringBuilder lookup = new StringBuilder();
+        lookup.append("getMethod(").append(this.testClass.getQualifiedName()).append(".class, ")
+                .append(getConstant(method.getSimpleName().toString()));
+
+        for (VariableElement parameter : method.getParameters()) {
+            lookup.append(", ").append(getErasure(parameter.asType())).append(".class");
+        }
+
+        lookup.append(")");
+        return lookup.toString();
+    }
+
+    /**
+     * Get the name of a type, boxing primitive types
+     *
+     * @param type Type
+     * @return Name of the type
+     */
+    protected String getBoxedType(TypeMirror type) {
+        String name = type.getKind().isPrimitive()
+                ? this.processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+                : type.toString();
+        return name;
+    }
+
+    /**
+     * Get the name of the erasure of a type
+     *
+     * @param type Type
+     * @return Name of the erasure
+     */
+    protected String getErasure(TypeMirror type) {
+        return this.processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Check if a type is a parameterized provider that is injected directly
+     *
+     * @param type Type to check
+     * @return <code>true</code> if the type is a provider
+     */
+    protected boolean isProvider(TypeMirror type) {
+        boolean provider = type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().size() == 1
+                && (BindingModuleProcessor.isType(type, "javax.inject.Provider")
+                        || BindingModuleProcessor.isType(type, "com.google.inject.Provider"));
+        return provider;
+    }
+
+    /**
+     * Check if a type is a parameterized {@link Optional}, {@link java.util.function.Supplier} or <code>Lazy</code>,
+     * whose argument is resolved by the default argument resolver
+     *
+     * @param type Type to check
+     * @return <code>true</code> if the type is a wrapper
+     */
+    protected boolean isWrapper(TypeMirror type) {
+        boolean wrapper = type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().size() == 1
+                && (BindingModuleProcessor.isType(type, "java.util.Optional")
+                        || BindingModuleProcessor.isType(type, "java.util.function.Supplier")
+                        || BindingModuleProcessor.isType(type, "me.seeber.guicesqueezer.Lazy"));
+        return wrapper;
+    }
+
+    /**
+     * Get the qualified name of an annotation type
+     *
+     * @param annotation Annotation
+     * @return Qualified name of the annotation type
+     */
+    protected String getAnnotationType(AnnotationMirror annotation) {
+        return BindingModuleProcessor.getName(annotation);
+    }
+
+    /**
+     * Get a string constant
+     *
+     * @param value Value of the constant
+     * @return Java expression of the constant
+     */
+    protected String getConstant(String value) {
+        return this.processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    /**
+     * Get the description of a provider method used in the documentation of the generated provider
+     *
+     * @param method Provider method
+     * @return Description of the method
+     */
+    protected String getMethodDescription(ExecutableElement method) {
+        return this.testClass.getQualifiedName() + "." + method.getSimpleName();
+    }
+
+}
@@ -0,0 +1,431 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.processor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.tools.Diagnostic;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.ProvisionException;
+import com.google.inject.Singleton;
+import com.google.inject.name.Names;
+
+import me.seeber.guicesqueezer.DefaultTestComposition;
+import me.seeber.guicesqueezer.StatelessModule;
+import me.seeber.guicesqueezer.TestClassMetadata;
+import me.seeber.guicesqueezer.java.Validate;
+
+@SuppressWarnings("javadoc")
+public class BindingModuleProcessorTest {
+
+    private static final String VALID_SOURCE = String.join("\n",
+            "package sample;",
+            "",
+            "import javax.inject.Named;",
+            "import javax.inject.Singleton;",
+            "import com.google.inject.Provides;",
+            "import me.seeber.guicesqueezer.Bind;",
+            "",
+            "public class SampleTest {",
+            "",
+            "    @Bind",
+            "    @Singleton",
+            "    public static class Task implements Runnable {",
+            "        public void run() {",
+            "        }",
+            "    }",
+            "",
+            "    @Provides",
+            "    @Named(\"greeting\")",
+            "    public static String greeting(@Named(\"name\") String name, int count) {",
+            "        return \"Hello \" + name + count;",
+            "    }",
+            "",
+            "    @Provides",
+            "    @Named(\"name\")",
+            "    public static String name() {",
+            "        return \"World\";",
+            "    }",
+            "",
+            "    @Provides",
+            "    public static int count() {",
+            "        return 1;",
+            "    }",
+            "",
+            "}");
+
+    private static final String WRAPPER_SOURCE = String.join("\n",
+            "package sample;",
+            "",
+            "import java.util.Arrays;",
+            "import java.util.List;",
+            "import java.util.Optional;",
+            "import java.util.function.Supplier;",
+            "import javax.inject.Named;",
+            "import com.google.inject.Provides;",
+            "import me.seeber.guicesqueezer.Lazy;",
+            "",
+            "public class SampleTest {",
+            "",
+            "    @Provides",
+            "    @Named(\"greeting\")",
+            "    public static String greeting(@Named(\"name\") Supplier<String> name, Lazy<Integer> count,",
+            "            Optional<Double> missing) {",
+            "        return \"Hello \" + name.get() + count.get() + missing.isPresent();",
+            "    }",
+            "",
+            "    @Provides",
+            "    @Named(\"name\")",
+            "    public static String name() {",
+            "        return \"World\";",
+            "    }",
+            "",
+            "    @Provides",
+            "    public static int count() {",
+            "        return 1;",
+            "    }",
+            "",
+            "    @Provides",
+            "    public static List<String> names() {",
+            "        return Arrays.asList(\"World\");",
+            "    }",
+            "",
+            "}");
+
+    private static final String FAILING_SOURCE = String.join("\n",
+            "package sample;",
+            "",
+            "import java.io.IOException;",
+            "import java.util.function.Supplier;",
+            "import javax.inject.Named;",
+            "import com.google.inject.Provides;",
+            "",
+            "public class SampleTest {",
+            "",
+            "    @Provides",
+            "    @Named(\"checked\")",
+            "    public static String checked(Supplier<Integer> count) throws IOException {",
+            "        throw new IOException(\"Checked\");",
+            "    }",
+            "",
+            "    @Provides",
+            "    @Named(\"unchecked\")",
+            "    public static String unchecked() {",
+            "        throw new IllegalArgumentException(\"Unchecked\");",
+            "    }",
+            "",
+            "    @Provides",
+            "    @Named(\"null\")",
+            "    public static String nullValue() {",
+            "        return null;",
+            "    }",
+            "",
+            "}");
+
+    private static final String NESTED_SOURCE = String.join("\n",
+            "package sample;",
+            "",
+            "import com.google.inject.Provides;",
+            "",
+            "public class SampleTest {",
+            "",
+            "    public static class Inner_Test {",
+            "",
+            "        @Provides",
+            "        public static String name() {",
+            "            return \"Underscore\";",
+            "        }",
+            "",
+            "    }",
+            "",
+            "    public static class Inner {",
+            "",
+            "        public static class Test {",
+            "",
+            "            @Provides",
+            "            public static String name() {",
+            "                return \"Nested\";",
+            "            }",
+            "",
+            "        }",
+            "",
+            "    }",
+            "",
+            "}");
+
+    private static final String INVALID_SOURCE = String.join("\n",
+            "package sample;",
+            "",
+            "import com.google.inject.Provides;",
+            "import me.seeber.guicesqueezer.Bind;",
+            "",
+            "public class SampleTest {",
+            "",
+            "    @Bind",
+            "    public class Task implements Runnable {",
+            "        public void run() {",
+            "        }",
+            "    }",
+            "",
+            "    @Provides",
+            "    public static void nothing() {",
+            "    }",
+            "",
+            "}");
+
+    private static final String PRIVATE_SOURCE = String.join("\n",
+            "package sample;",
+            "",
+            "import com.google.inject.Provides;",
+            "",
+            "public class SampleTest {",
+            "",
+            "    @Provides",
+            "    private static String name() {",
+            "        return \"World\";",
+            "    }",
+            "",
+            "}");
+
+    @Nullable
+    private Path directory;
+
+    @Before
+    public void initializeTest() throws IOException {
+        this.directory = Files.createTempDirectory("processor");
+    }
+
+    @After
+    public void finishTest() throws IOException {
+        List<Path> paths = Files.walk(getDirectory()).sorted((a, b) -> b.compareTo(a)).collect(Collectors.toList());
+
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+
+    @Test
+    public void testProcess() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(VALID_SOURCE);
+
+        assertThat(errors(diagnostics)).isEmpty();
+        assertThat(getDirectory().resolve("sample/SampleTest_BindingModule.java")).exists();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { getDirectory().toUri().toURL() },
+                getClass().getClassLoader())) {
+            Class<?> moduleClass = classLoader.loadClass("sample.SampleTest_BindingModule");
+
+            assertThat(moduleClass.getAnnotation(StatelessModule.class)).isNotNull();
+
+            Injector injector = Guice.createInjector((Module) moduleClass.newInstance());
+
+            assertThat(injector.getInstance(Key.get(String.class, Names.named("greeting")))).isEqualTo("Hello World1");
+            assertThat(injector.getInstance(Runnable.class)).isSameAs(injector.getInstance(Runnable.class));
+            assertThat(injector.getInstance(Runnable.class).getClass().getName()).isEqualTo("sample.SampleTest$Task");
+        }
+    }
+
+    @Test
+    public void testProcess_Errors() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(INVALID_SOURCE);
+
+        assertThat(errors(diagnostics)).containsExactly(
+                "Class 'sample.SampleTest.Task' annotated with 'Bind' must be static.",
+                "Method 'nothing' annotated with 'Provides' must have a return type.");
+    }
+
+    @Test
+    public void testProcess_Private() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(PRIVATE_SOURCE);
+
+        assertThat(errors(diagnostics)).isEmpty();
+        assertThat(getDirectory().resolve("sample/SampleTest_BindingModule.java")).doesNotExist();
+    }
+
+    @Test
+    public void testProcess_NestedModuleNames() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile(NESTED_SOURCE);
+
+        assertThat(errors(diagnostics)).isEmpty();
+        assertThat(getDirectory().resolve("sample/SampleTest_Inner_1Test_BindingModule.java")).exists();
+        assertThat(getDirectory().resolve("sample/SampleTest_Inner_Test_BindingModule.java")).exists();
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { getDirectory().toUri().toURL() },
+                getClass().getClassLoader())) {
+            Class<?> underscoreClass = classLoader.loadClass("sample.SampleTest$Inner_Test");
+            Class<?> nestedClass = classLoader.loadClass("sample.SampleTest$Inner$Test");
+
+            assertThat(TestClassMetadata.of(underscoreClass).getGeneratedModuleClass().map(c -> c.getName()))
+                    .contains("sample.SampleTest_Inner_1Test_BindingModule");
+            assertThat(TestClassMetadata.of(nestedClass).getGeneratedModuleClass().map(c -> c.getName()))
+                    .contains("sample.SampleTest_Inner_Test_BindingModule");
+            assertThat(createInjector(underscoreClass).getInstance(String.class)).isEqualTo("Underscore");
+            assertThat(createInjector(nestedClass).getInstance(String.class)).isEqualTo("Nested");
+        }
+    }
+
+    @Test
+    public void testProcess_SameBindingsAsReflection() throws Exception {
+        Path generatedDirectory = getDirectory().resolve("generated");
+        Path reflectionDirectory = getDirectory().resolve("reflection");
+
+        assertThat(errors(compile(WRAPPER_SOURCE, generatedDirectory, true))).isEmpty();
+        assertThat(errors(compile(WRAPPER_SOURCE, reflectionDirectory, false))).isEmpty();
+        assertThat(generatedDirectory.resolve("sample/SampleTest_BindingModule.class")).exists();
+        assertThat(reflectionDirectory.resolve("sample/SampleTest_BindingModule.class")).doesNotExist();
+
+        try (URLClassLoader generatedLoader = new URLClassLoader(new URL[] { generatedDirectory.toUri().toURL() },
+                getClass().getClassLoader());
+                URLClassLoader reflectionLoader = new URLClassLoader(
+                        new URL[] { reflectionDirectory.toUri().toURL() }, getClass().getClassLoader())) {
+            Injector generatedInjector = createInjector(generatedLoader.loadClass("sample.SampleTest"));
+            Injector reflectionInjector = createInjector(reflectionLoader.loadClass("sample.SampleTest"));
+
+            assertThat(generatedInjector.getBindings().keySet())
+                    .isEqualTo(reflectionInjector.getBindings().keySet());
+
+            for (Injector injector : Arrays.asList(generatedInjector, reflectionInjector)) {
+                assertThat(injector.getInstance(Key.get(String.class, Names.named("greeting"))))
+                        .isEqualTo("Hello World1false");
+                assertThat(injector.getInstance(List.class)).containsExactly("World");
+            }
+        }
+    }
+
+    @Test
+    public void testProcess_SameFailuresAsReflection() throws Exception {
+        Path generatedDirectory = getDirectory().resolve("generated");
+        Path reflectionDirectory = getDirectory().resolve("reflection");
+
+        assertThat(errors(compile(FAILING_SOURCE, generatedDirectory, true))).isEmpty();
+        assertThat(errors(compile(FAILING_SOURCE, reflectionDirectory, false))).isEmpty();
+
+        try (URLClassLoader generatedLoader = new URLClassLoader(new URL[] { generatedDirectory.toUri().toURL() },
+                getClass().getClassLoader());
+                URLClassLoader reflectionLoader = new URLClassLoader(
+                        new URL[] { reflectionDirectory.toUri().toURL() }, getClass().getClassLoader())) {
+            assertThat(generatedLoader.loadClass("sample.SampleTest_BindingModule$ProviderMethod0")
+                    .getAnnotation(Singleton.class)).isNotNull();
+
+            Injector generatedInjector = createInjector(generatedLoader.loadClass("sample.SampleTest"));
+            Injector reflectionInjector = createInjector(reflectionLoader.loadClass("sample.SampleTest"));
+
+            for (String name : Arrays.asList("checked", "unchecked", "null")) {
+                Key<String> key = Key.get(String.class, Names.named(name));
+
+                assertThat(describeFailure(() -> generatedInjector.getInstance(key)))
+                        .isEqualTo(describeFailure(() -> reflectionInjector.getInstance(key)));
+            }
+        }
+    }
+
+    private static List<String> describeFailure(Runnable provision) {
+        try {
+            provision.run();
+            throw new AssertionError("Provision did not fail");
+        }
+        catch (ProvisionException e) {
+            List<String> causes = new ArrayList<>();
+
+            for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+                causes.add(cause.getClass().getName() + ": " + cause.getMessage());
+            }
+
+            return causes;
+        }
+    }
+
+    private static Injector createInjector(Class<?> testClass) {
+        Module module = new DefaultTestComposition().createTestClassModule(testClass);
+        Injector injector = Guice.createInjector(module);
+        return injector;
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String source) throws IOException {
+        return compile(source, getDirectory(), true);
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String source, Path directory, boolean process)
+            throws IOException {
+        Path sourceFile = directory.resolve("sample/SampleTest.java");
+        Files.createDirectories(sourceFile.getParent());
+        Files.write(sourceFile, source.getBytes("UTF-8"));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjects(sourceFile.toFile());
+            List<String> options = Arrays.asList("-d", directory.toString(), "-s", directory.toString(),
+                    "-classpath", System.getProperty("java.class.path") + File.pathSeparator + directory);
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, units);
+            task.setProcessors(process ? Arrays.asList(new BindingModuleProcessor()) : Collections.emptyList());
+            task.call();
+        }
+
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> errors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream().filter(d -> d.getKind() == Kind.ERROR).map(d -> d.getMessage(Locale.ROOT))
+                .collect(Collectors.toList());
+    }
+
+    private Path getDirectory() {
+        return Validate.notNull(this.directory, "directory");
+    }
+
+}
@@ -0,0 +1,129 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+/**
+ * Benchmark for resolving the arguments of a method with qualified and provider parameters
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArgumentResolverBenchmark {
+
+    /**
+     * Service injected as argument
+     */
+    public static class Service {
+        // Nothing to do
+    }
+
+    /**
+     * Module that binds the arguments
+     */
+    public static class ArgumentModule extends AbstractModule {
+        /**
+         * @see com.google.inject.AbstractModule#configure()
+         */
+        @Override
+        protected void configure() {
+            bind(String.class).annotatedWith(Names.named("name")).toInstance("World");
+            bind(Integer.class).annotatedWith(Names.named("count")).toInstance(1);
+        }
+    }
+
+    /**
+     * Method whose arguments are resolved
+     *
+     * @param name Qualified argument
+     * @param count Qualified provider argument
+     * @param service Unqualified argument
+     * @param serviceProvider Guice provider argument
+     */
+    public static void method(@Named("name") String name, @Named("count") Provider<Integer> count, Service service,
+            com.google.inject.Provider<Service> serviceProvider) {
+        // Nothing to do
+    }
+
+    /**
+     * Resolver to benchmark
+     */
+    private ArgumentResolver argumentResolver;
+
+    /**
+     * Injector used to resolve arguments
+     */
+    private Injector injector;
+
+    /**
+     * Method whose arguments are resolved
+     */
+    private Method method;
+
+    /**
+     * Set up the benchmark
+     *
+     * @throws NoSuchMethodException if the method cannot be found
+     */
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        this.argumentResolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+        this.injector = Guice.createInjector(new ArgumentModule());
+        this.method = ArgumentResolverBenchmark.class.getMethod("method", String.class, Provider.class,
+                Service.class, com.google.inject.Provider.class);
+    }
+
+    /**
+     * Resolve the arguments of the method
+     *
+     * @return Resolved arguments
+     */
+    @Benchmark
+    public Object[] resolveArguments() {
+        return this.argumentResolver.resolveArguments(this.method, this.injector);
+    }
+
+}
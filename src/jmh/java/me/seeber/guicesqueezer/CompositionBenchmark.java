@@ -0,0 +1,204 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+import com.google.inject.Provides;
+import com.google.inject.name.Names;
+
+/**
+ * Benchmark for creating the class level module of a test class with a deep class hierarchy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompositionBenchmark {
+
+    /**
+     * Module used by the third level of the test class hierarchy
+     */
+    public static class FirstModule extends AbstractModule {
+        /**
+         * @see com.google.inject.AbstractModule#configure()
+         */
+        @Override
+        protected void configure() {
+            bind(String.class).annotatedWith(Names.named("first")).toInstance("1");
+        }
+    }
+
+    /**
+     * Module used by the fifth level of the test class hierarchy
+     */
+    public static class SecondModule extends AbstractModule {
+        /**
+         * @see com.google.inject.AbstractModule#configure()
+         */
+        @Override
+        protected void configure() {
+            bind(String.class).annotatedWith(Names.named("second")).toInstance("2");
+        }
+    }
+
+    /**
+     * First level of the test class hierarchy
+     */
+    public static class Level1 {
+        /**
+         * @return Value
+         */
+        @Provides
+        @Named("level1")
+        public static String level1() {
+            return "1";
+        }
+    }
+
+    /**
+     * Second level of the test class hierarchy
+     */
+    public static class Level2 extends Level1 {
+        /**
+         * @return Value
+         */
+        @Provides
+        @Named("level2")
+        public static String level2() {
+            return "2";
+        }
+    }
+
+    /**
+     * Third level of the test class hierarchy
+     */
+    @TestModules(FirstModule.class)
+    public static class Level3 extends Level2 {
+        /**
+         * @return Value
+         */
+        @Provides
+        @Named("level3")
+        public static String level3() {
+            return "3";
+        }
+    }
+
+    /**
+     * Fourth level of the test class hierarchy
+     */
+    public static class Level4 extends Level3 {
+        /**
+         * @return Value
+         */
+        @Provides
+        @Named("level4")
+        public static String level4() {
+            return "4";
+        }
+    }
+
+    /**
+     * Fifth level of the test class hierarchy
+     */
+    @TestModules(SecondModule.class)
+    public static class Level5 extends Level4 {
+        /**
+         * @return Value
+         */
+        @Provides
+        @Named("level5")
+        public static String level5() {
+            return "5";
+        }
+    }
+
+    /**
+     * Sixth level of the test class hierarchy
+     */
+    public static class Level6 extends Level5 {
+        /**
+         * @return Value
+         */
+        @Provides
+        @Named("level6")
+        public static String level6() {
+            return "6";
+        }
+    }
+
+    /**
+     * Composition without caching
+     */
+    private final TestComposition composition;
+
+    /**
+     * Composition that caches class level modules
+     */
+    private final TestComposition cachingComposition;
+
+    /**
+     * Create a new benchmark
+     */
+    public CompositionBenchmark() {
+        this.composition = new DefaultTestComposition();
+        this.cachingComposition = new CachingTestComposition(new DefaultTestComposition());
+    }
+
+    /**
+     * Create the class level module without caching
+     *
+     * @return Class level module
+     */
+    @Benchmark
+    public Module createTestClassModule() {
+        return this.composition.createTestClassModule(Level6.class);
+    }
+
+    /**
+     * Create the class level module with caching
+     *
+     * @return Class level module
+     */
+    @Benchmark
+    public Module createTestClassModuleCached() {
+        return this.cachingComposition.createTestClassModule(Level6.class);
+    }
+
+}
@@ -0,0 +1,96 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Named;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+import me.seeber.guicesqueezer.BindingModule.MethodProvider;
+
+/**
+ * Benchmark for creating instances with a provider method
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MethodProviderBenchmark {
+
+    /**
+     * Provider method called by the benchmark
+     *
+     * @param name Injected name
+     * @return Greeting
+     */
+    public static String greeting(@Named("name") String name) {
+        return "Hello " + name;
+    }
+
+    /**
+     * Provider to benchmark
+     */
+    private MethodProvider<String> provider;
+
+    /**
+     * Set up the benchmark
+     *
+     * @throws NoSuchMethodException if the provider method cannot be found
+     */
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        Injector injector = Guice.createInjector(
+                binder -> binder.bind(String.class).annotatedWith(Names.named("name")).toInstance("World"));
+
+        this.provider = new MethodProvider<>(MethodProviderBenchmark.class.getMethod("greeting", String.class),
+                new DefaultArgumentResolver(new DefaultAnnotationInspector()));
+        injector.injectMembers(this.provider);
+    }
+
+    /**
+     * Create an instance by calling the provider method
+     *
+     * @return Created instance
+     */
+    @Benchmark
+    public String get() {
+        return this.provider.get();
+    }
+
+}
@@ -0,0 +1,175 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provides;
+import com.google.inject.name.Names;
+
+/**
+ * Benchmark for running a test method with the runner, compared to wiring Guice by hand
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RunnerBenchmark {
+
+    /**
+     * Service injected into the test
+     */
+    public static class Service {
+        /**
+         * @return Greeting
+         */
+        public String greet() {
+            return "Hello";
+        }
+    }
+
+    /**
+     * Test class run by the benchmark
+     */
+    public static class SubjectTest {
+
+        /**
+         * Injected service
+         */
+        @Inject
+        protected Service service;
+
+        /**
+         * Greeting created by the test method
+         */
+        protected String greeting;
+
+        /**
+         * Create a new test
+         */
+        public SubjectTest() {
+            this.service = new Service();
+            this.greeting = "";
+        }
+
+        /**
+         * @return Name
+         */
+        @Provides
+        @Named("name")
+        public static String name() {
+            return "World";
+        }
+
+        /**
+         * Test method
+         *
+         * @param name Injected name
+         */
+        @Test
+        public void test(@Named("name") String name) {
+            this.greeting = this.service.greet() + " " + name;
+        }
+
+    }
+
+    /**
+     * Runner for the test class
+     */
+    private GuiceSqueezer runner;
+
+    /**
+     * Test method
+     */
+    private FrameworkMethod testMethod;
+
+    /**
+     * Set up the benchmark
+     *
+     * @throws InitializationError if the runner cannot be created
+     * @throws NoSuchMethodException if the test method cannot be found
+     */
+    @Setup
+    public void setup() throws InitializationError, NoSuchMethodException {
+        this.runner = new GuiceSqueezer(SubjectTest.class);
+        this.testMethod = new FrameworkMethod(SubjectTest.class.getMethod("test", String.class));
+    }
+
+    /**
+     * Create the injector for the test method
+     *
+     * @return Injector
+     */
+    @Benchmark
+    public Injector updateInjector() {
+        return this.runner.updateInjector(this.testMethod);
+    }
+
+    /**
+     * Create the injector and test object, and invoke the test method with the runner
+     *
+     * @throws Throwable if the test fails
+     */
+    @Benchmark
+    public void runTestMethod() throws Throwable {
+        this.runner.updateInjector(this.testMethod);
+        Object test = this.runner.createTest();
+        this.runner.methodInvoker(this.testMethod, test).evaluate();
+    }
+
+    /**
+     * Create the injector and test object, and invoke the test method with Guice wired by hand
+     *
+     * @return Test object
+     */
+    @Benchmark
+    public Object baseline() {
+        Injector injector = Guice.createInjector(
+                binder -> binder.bind(String.class).annotatedWith(Names.named("name")).toInstance(SubjectTest.name()));
+        SubjectTest test = injector.getInstance(SubjectTest.class);
+        test.test(injector.getInstance(Key.get(String.class, Names.named("name"))));
+        return test;
+    }
+
+}
@@ -0,0 +1,157 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Metrics listener that sums up the timings of all test classes in memory
+ *
+ * If the listener is created with an {@link InjectorCache}, the report also contains the statistics of the cache.
+ */
+public class AggregatingMetricsListener implements SqueezerMetricsListener {
+
+    /**
+     * Timings by test class
+     */
+    private final Map<Class<?>, PhaseTimings> classTimings;
+
+    /**
+     * Timings of all test classes
+     */
+    private final PhaseTimings totalTimings;
+
+    /**
+     * Injector cache whose statistics are reported, or <code>null</code> to only report the timings
+     */
+    @Nullable
+    private final InjectorCache injectorCache;
+
+    /**
+     * Create a new listener
+     */
+    public AggregatingMetricsListener() {
+        this(null);
+    }
+
+    /**
+     * Create a new listener that also reports the statistics of an injector cache
+     *
+     * @param injectorCache Injector cache whose statistics are reported, or <code>null</code> to only report the
+     *            timings
+     */
+    public AggregatingMetricsListener(@Nullable InjectorCache injectorCache) {
+        this.classTimings = new ConcurrentHashMap<>();
+        this.totalTimings = new PhaseTimings();
+        this.injectorCache = injectorCache;
+    }
+
+    /**
+     * Add the timings of a test class
+     *
+     * @see me.seeber.guicesqueezer.SqueezerMetricsListener#testClassFinished(java.lang.Class,
+     *      me.seeber.guicesqueezer.PhaseTimings)
+     */
+    @Override
+    public void testClassFinished(Class<?> testClass, PhaseTimings timings) {
+        this.classTimings.computeIfAbsent(testClass, c -> new PhaseTimings()).add(timings);
+        this.totalTimings.add(timings);
+    }
+
+    /**
+     * Get the timings of a test class
+     *
+     * @param testClass Test class
+     * @return Timings of the test class, empty if the class has not been run
+     */
+    public PhaseTimings getClassTimings(Class<?> testClass) {
+        PhaseTimings timings = this.classTimings.getOrDefault(testClass, new PhaseTimings());
+        return timings;
+    }
+
+    /**
+     * Get the timings of all test classes
+     *
+     * @return Timings of all test classes
+     */
+    public PhaseTimings getTotalTimings() {
+        return this.totalTimings;
+    }
+
+    /**
+     * Get a report of the timings, with the slowest test classes first
+     *
+     * Times are reported as wall time and CPU time in milliseconds. If the injector cache is enabled, its hits, misses
+     * and evictions are reported after the timings.
+     *
+     * @return Report
+     */
+    public String getReport() {
+        List<Map.Entry<Class<?>, PhaseTimings>> entries = new ArrayList<>(this.classTimings.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().getTotalWallTime(), a.getValue().getTotalWallTime()));
+
+        StringBuilder report = new StringBuilder();
+        report.append(format("Guice Squeezer timings (wall/cpu): %s%n", this.totalTimings));
+
+        for (Map.Entry<Class<?>, PhaseTimings> entry : entries) {
+            report.append(format("  %s (%d ms): %s%n", entry.getKey().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(entry.getValue().getTotalWallTime()), entry.getValue()));
+        }
+
+        InjectorCache injectorCache = this.injectorCache;
+
+        if (injectorCache != null && injectorCache.isEnabled()) {
+            report.append(format("%s%n", injectorCache.getStatistics()));
+        }
+
+        return report.toString();
+    }
+
+    /**
+     * Write the report of the timings to a file
+     *
+     * @param file File to write the report to, replaced if it exists
+     * @throws IOException if the report cannot be written
+     */
+    public void writeReport(Path file) throws IOException {
+        Files.write(file, getReport().getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.annotation.Annotation;
+
+import javax.inject.Qualifier;
+import javax.inject.Scope;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.BindingAnnotation;
+import com.google.inject.ScopeAnnotation;
+
+import me.seeber.guicesqueezer.java.Argument;
+
+/**
+ * Classifier that checks if annotation types are qualifiers or scopes
+ *
+ * The meta annotations of each annotation type are only examined once, the result is kept with the annotation type.
+ */
+public final class AnnotationClassifier {
+
+    /**
+     * Annotation type is a qualifier
+     */
+    private static final int QUALIFIER = 1;
+
+    /**
+     * Annotation type is a scope
+     */
+    private static final int SCOPE = 2;
+
+    /**
+     * Classification of each annotation type
+     */
+    private static final ClassValue<Integer> CLASSIFICATIONS = new ClassValue<Integer>() {
+        /**
+         * @see java.lang.ClassValue#computeValue(java.lang.Class)
+         */
+        @Override
+        protected Integer computeValue(@Nullable Class<?> type) {
+            return classify(Argument.notNull(type, "type"));
+        }
+    };
+
+    /**
+     * Hide constructor of utility class
+     */
+    private AnnotationClassifier() {
+    }
+
+    /**
+     * Check if an annotation type is a qualifier, i.e. it is annotated with {@link Qualifier} or
+     * {@link BindingAnnotation}
+     *
+     * @param annotationType Annotation type
+     * @return <code>true</code> if the annotation type is a qualifier
+     */
+    public static boolean isQualifier(Class<? extends Annotation> annotationType) {
+        return (CLASSIFICATIONS.get(annotationType) & QUALIFIER) != 0;
+    }
+
+    /**
+     * Check if an annotation type is a scope, i.e. it is annotated with {@link Scope} or {@link ScopeAnnotation}
+     *
+     * @param annotationType Annotation type
+     * @return <code>true</code> if the annotation type is a scope
+     */
+    public static boolean isScope(Class<? extends Annotation> annotationType) {
+        return (CLASSIFICATIONS.get(annotationType) & SCOPE) != 0;
+    }
+
+    /**
+     * Classify an annotation type
+     *
+     * @param type Annotation type
+     * @return Classification flags
+     */
+    private static int classify(Class<?> type) {
+        int classification = 0;
+
+        if (type.getAnnotation(Qualifier.class) != null || type.getAnnotation(BindingAnnotation.class) != null) {
+            classification |= QUALIFIER;
+        }
+
+        if (type.getAnnotation(Scope.class) != null || type.getAnnotation(ScopeAnnotation.class) != null) {
+            classification |= SCOPE;
+        }
+
+        return classification;
+    }
+
+}
@@ -45,4 +45,14 @@ public interface AnnotationInspector {
      */
     public Optional<Annotation> getQualifier(AnnotatedElement annotatedElement) throws IllegalArgumentException;
 
+    /**
+     * Get the qualifier and scope annotations for an annotated element
+     *
+     * @param annotatedElement Annotated element
+     * @return Qualifier and scope annotations
+     */
+    public default BindingAnnotations getBindingAnnotations(AnnotatedElement annotatedElement) {
+        return BindingAnnotations.scan(annotatedElement);
+    }
+
 }
@@ -46,4 +46,44 @@ public interface ArgumentResolver {
      */
     public Object[] resolveArguments(Method method, Injector injector);
 
+    /**
+     * Resolve a single method argument
+     *
+     * Used if the other arguments of the method are resolved by someone else. The default implementation resolves all
+     * arguments and returns the requested one.
+     *
+     * @param method Method to resolve the argument for
+     * @param index Index of the argument
+     * @param injector Injector used to resolve objects
+     * @return Resolved argument
+     */
+    public default Object resolveArgument(Method method, int index, Injector injector) {
+        Object argument = resolveArguments(method, injector)[index];
+        return argument;
+    }
+
+    /**
+     * Check if a single method argument can be resolved with an injector
+     *
+     * Used if the other arguments of the method are resolved by someone else. The default implementation assumes that
+     * all arguments can be resolved.
+     *
+     * @param method Method to resolve the argument for
+     * @param index Index of the argument
+     * @param injector Injector used to resolve objects
+     * @return <code>true</code> if the argument can be resolved
+     */
+    public default boolean canResolveArgument(Method method, int index, Injector injector) {
+        return true;
+    }
+
+    /**
+     * Release all state kept for the methods of a test class after all its test methods have been run
+     *
+     * @param testClass Test class
+     */
+    public default void releaseTestClass(Class<?> testClass) {
+        // Nothing to release by default
+    }
+
 }
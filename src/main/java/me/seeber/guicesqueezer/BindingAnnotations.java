@@ -0,0 +1,155 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Qualifier and scope annotations of an annotated element
+ *
+ * If an element has more than one qualifier or scope annotation, the error is only reported when the qualifier or
+ * scope is requested.
+ */
+public class BindingAnnotations {
+
+    /**
+     * Annotated element
+     */
+    private final AnnotatedElement annotatedElement;
+
+    /**
+     * Qualifier annotation, or <code>null</code> if there is none
+     */
+    @Nullable
+    private final Annotation qualifier;
+
+    /**
+     * <code>true</code> if the element has more than one qualifier annotation
+     */
+    private final boolean multipleQualifiers;
+
+    /**
+     * Scope annotation, or <code>null</code> if there is none
+     */
+    @Nullable
+    private final Annotation scope;
+
+    /**
+     * <code>true</code> if the element has more than one scope annotation
+     */
+    private final boolean multipleScopes;
+
+    /**
+     * Create new binding annotations
+     *
+     * @param annotatedElement Annotated element
+     * @param qualifier Qualifier annotation, or <code>null</code> if there is none
+     * @param multipleQualifiers <code>true</code> if the element has more than one qualifier annotation
+     * @param scope Scope annotation, or <code>null</code> if there is none
+     * @param multipleScopes <code>true</code> if the element has more than one scope annotation
+     */
+    protected BindingAnnotations(AnnotatedElement annotatedElement,
+            @Nullable Annotation qualifier,
+            boolean multipleQualifiers,
+            @Nullable Annotation scope,
+            boolean multipleScopes) {
+        this.annotatedElement = annotatedElement;
+        this.qualifier = qualifier;
+        this.multipleQualifiers = multipleQualifiers;
+        this.scope = scope;
+        this.multipleScopes = multipleScopes;
+    }
+
+    /**
+     * Scan the annotations of an element for qualifier and scope annotations
+     *
+     * @param annotatedElement Annotated element
+     * @return Binding annotations of the element
+     */
+    public static BindingAnnotations scan(AnnotatedElement annotatedElement) {
+        Annotation qualifier = null;
+        boolean multipleQualifiers = false;
+        Annotation scope = null;
+        boolean multipleScopes = false;
+
+        for (Annotation annotation : annotatedElement.getAnnotations()) {
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+
+            if (AnnotationClassifier.isQualifier(annotationType)) {
+                multipleQualifiers |= (qualifier != null);
+                qualifier = (qualifier != null) ? qualifier : annotation;
+            }
+
+            if (AnnotationClassifier.isScope(annotationType)) {
+                multipleScopes |= (scope != null);
+                scope = (scope != null) ? scope : annotation;
+            }
+        }
+
+        BindingAnnotations bindingAnnotations = new BindingAnnotations(annotatedElement, qualifier, multipleQualifiers,
+                scope, multipleScopes);
+        return bindingAnnotations;
+    }
+
+    /**
+     * Get the qualifier annotation
+     *
+     * @return Qualifier annotation
+     * @throws IllegalArgumentException if there is more than one qualifier annotation
+     */
+    public Optional<Annotation> getQualifier() throws IllegalArgumentException {
+        if (this.multipleQualifiers) {
+            throw new IllegalArgumentException(
+                    format("Element '%s' has more than one qualifier annotation", this.annotatedElement));
+        }
+
+        return Optional.ofNullable(this.qualifier);
+    }
+
+    /**
+     * Get the type of the scope annotation
+     *
+     * @return Scope annotation type
+     * @throws IllegalArgumentException if there is more than one scope annotation
+     */
+    public Optional<Class<? extends Annotation>> getScope() throws IllegalArgumentException {
+        if (this.multipleScopes) {
+            throw new IllegalArgumentException(
+                    format("Element '%s' has more than one scope annotation", this.annotatedElement));
+        }
+
+        return Optional.ofNullable(this.scope).map(a -> a.annotationType());
+    }
+
+}
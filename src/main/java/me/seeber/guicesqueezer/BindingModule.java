@@ -30,8 +30,12 @@ package me.seeber.guicesqueezer;
 import static java.lang.String.format;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.List;
@@ -306,6 +310,12 @@ public class BindingModule implements Module {
          */
         private final ArgumentResolver argumentResolver;
 
+        /**
+         * Method handle that takes the arguments as array, or <code>null</code> to call the method using reflection
+         */
+        @Nullable
+        private final MethodHandle invoker;
+
         /**
          * Injector used to resolve arguments
          */
@@ -321,6 +331,53 @@ public class BindingModule implements Module {
         public MethodProvider(Method method, ArgumentResolver argumentResolver) {
             this.method = method;
             this.argumentResolver = argumentResolver;
+            this.invoker = createInvoker(method);
+        }
+
+        /**
+         * Create a method handle that calls a static method with the arguments passed as array
+         *
+         * @param method Method to call
+         * @return Method handle, or <code>null</code> if the method cannot be called with a method handle
+         */
+        protected static @Nullable MethodHandle createInvoker(Method method) {
+            if ((method.getModifiers() & Modifier.STATIC) == 0) {
+                return null;
+            }
+
+            try {
+                MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+                MethodHandle invoker = handle.asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                return invoker;
+            }
+            catch (IllegalAccessException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Call the provider method
+         *
+         * @param parameters Method arguments
+         * @return Value returned by the method
+         * @throws IllegalAccessException if the method is not accessible
+         * @throws InvocationTargetException if the method throws an exception
+         */
+        protected @Nullable Object invoke(Object[] parameters)
+                throws IllegalAccessException, InvocationTargetException {
+            MethodHandle invoker = this.invoker;
+
+            if (invoker == null) {
+                return this.method.invoke(null, parameters);
+            }
+
+            try {
+                return (Object) invoker.invokeExact(parameters);
+            }
+            catch (Throwable t) {
+                throw new InvocationTargetException(t);
+            }
         }
 
         /**
@@ -331,9 +388,11 @@ public class BindingModule implements Module {
         @Override
         @SuppressWarnings("unchecked")
         public T get() {
-            try {
+            try (SqueezerEvent event = SqueezerEvents.beginProvision()) {
+                event.setTestClass(this.method.getDeclaringClass()).setMethod(this.method);
+
                 Object[] parameters = this.argumentResolver.resolveArguments(this.method, this.injector);
-                @Nullable T object = (T) this.method.invoke(null, parameters);
+                @Nullable T object = (T) invoke(parameters);
 
                 if (object == null) {
                     throw new NullPointerException(format("Provider method '%s' returned a null value", this.method));
@@ -342,7 +401,7 @@ public class BindingModule implements Module {
                 return object;
             }
             catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new IllegalStateException(format("Error calling provider mmethod '%s'", this.method), e);
+                throw new IllegalStateException(format("Error calling provider method '%s'", this.method), e);
             }
         }
 
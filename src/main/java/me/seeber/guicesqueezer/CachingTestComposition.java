@@ -0,0 +1,166 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Injector;
+import com.google.inject.Module;
+
+/**
+ * Composition that caches the class level modules created by another composition
+ *
+ * The class level module only depends on the test class, so it is created once per test class and reused for all test
+ * methods until the test class is released. Method level modules are always created by the wrapped composition.
+ */
+public class CachingTestComposition implements TestComposition {
+
+    /**
+     * Composition used to create the modules
+     */
+    private final TestComposition composition;
+
+    /**
+     * Cached class level modules
+     */
+    private final ConcurrentMap<Class<?>, Module> testClassModules;
+
+    /**
+     * Cached class level fingerprints
+     */
+    private final ConcurrentMap<Class<?>, Optional<CompositionFingerprint>> testClassFingerprints;
+
+    /**
+     * Create a new caching composition
+     *
+     * @param composition Composition used to create the modules
+     */
+    public CachingTestComposition(TestComposition composition) {
+        this.composition = composition;
+        this.testClassModules = new ConcurrentHashMap<>();
+        this.testClassFingerprints = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the class level module from the cache, creating it if it does not exist yet
+     *
+     * @see me.seeber.guicesqueezer.TestComposition#createTestClassModule(java.lang.Class)
+     */
+    @Override
+    public Module createTestClassModule(Class<?> testClass) {
+        Module module = this.testClassModules.computeIfAbsent(testClass,
+                c -> this.composition.createTestClassModule(c));
+        return module;
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.TestComposition#createTestMethodModule(java.lang.reflect.Method)
+     */
+    @Override
+    public Module createTestMethodModule(Method testMethod) {
+        return this.composition.createTestMethodModule(testMethod);
+    }
+
+    /**
+     * Get the class level fingerprint from the cache, creating it if it does not exist yet
+     *
+     * @see me.seeber.guicesqueezer.TestComposition#createTestClassFingerprint(java.lang.Class)
+     */
+    @Override
+    public Optional<CompositionFingerprint> createTestClassFingerprint(Class<?> testClass) {
+        Optional<CompositionFingerprint> fingerprint = this.testClassFingerprints.computeIfAbsent(testClass,
+                c -> this.composition.createTestClassFingerprint(c));
+        return fingerprint;
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.TestComposition#createTestMethodFingerprint(java.lang.reflect.Method)
+     */
+    @Override
+    public Optional<CompositionFingerprint> createTestMethodFingerprint(Method testMethod) {
+        return this.composition.createTestMethodFingerprint(testMethod);
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.TestComposition#validateTestMethods(java.util.List)
+     */
+    @Override
+    public List<Throwable> validateTestMethods(List<FrameworkMethod> testMethods) {
+        return this.composition.validateTestMethods(testMethods);
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.TestComposition#createInvocationStatement(org.junit.runners.model.FrameworkMethod,
+     *      java.lang.Object, com.google.inject.Injector)
+     */
+    @Override
+    public Statement createInvocationStatement(FrameworkMethod testMethod, Object test, Injector injector) {
+        return this.composition.createInvocationStatement(testMethod, test, injector);
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.TestComposition#createRowsInvocationStatement(FrameworkMethod, FrameworkMethod,
+     *      Object, Injector)
+     */
+    @Override
+    public Statement createRowsInvocationStatement(FrameworkMethod testMethod,
+            FrameworkMethod rowSource,
+            Object test,
+            Injector injector) {
+        return this.composition.createRowsInvocationStatement(testMethod, rowSource, test, injector);
+    }
+
+    /**
+     * Remove the cached class level module and fingerprint of a test class
+     *
+     * @see me.seeber.guicesqueezer.TestComposition#releaseTestClass(java.lang.Class)
+     */
+    @Override
+    public void releaseTestClass(Class<?> testClass) {
+        this.testClassModules.remove(testClass);
+        this.testClassFingerprints.remove(testClass);
+        this.composition.releaseTestClass(testClass);
+    }
+
+    /**
+     * Get the composition used to create the modules
+     *
+     * @return Composition used to create the modules
+     */
+    public TestComposition getComposition() {
+        return this.composition;
+    }
+
+}
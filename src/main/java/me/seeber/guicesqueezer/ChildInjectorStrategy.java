@@ -0,0 +1,289 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.inject.Binding;
+import com.google.inject.ConfigurationException;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Scope;
+import com.google.inject.spi.DefaultElementVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.PrivateElements;
+import com.google.inject.spi.ScopeBinding;
+
+/**
+ * Strategy that creates the class level injector once and derives child injectors for test methods
+ *
+ * Test methods without a method level module use the class level injector directly. If the method level module only
+ * adds new bindings, the test method gets a child injector of the class level injector. Only if the method level module
+ * overrides bindings of the class level injector, a new injector is built like with the
+ * {@link DefaultInjectorStrategy}. The same happens if the test method uses other stage or binder options than the test
+ * class.
+ *
+ * Since the class level injector is shared by all test methods of a class, singletons are shared as well.
+ */
+public class ChildInjectorStrategy extends DefaultInjectorStrategy {
+
+    /**
+     * Visitor that checks if an element conflicts with the bindings of an injector
+     */
+    protected static class ConflictVisitor extends DefaultElementVisitor<Boolean> {
+
+        /**
+         * Injector to check against
+         */
+        private final Injector injector;
+
+        /**
+         * Create a new visitor
+         *
+         * @param injector Injector to check against
+         */
+        public ConflictVisitor(Injector injector) {
+            this.injector = injector;
+        }
+
+        /**
+         * Check if a key is already bound in the injector
+         *
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.Binding)
+         */
+        @Override
+        public <T> Boolean visit(Binding<T> binding) {
+            return isBound(binding.getKey());
+        }
+
+        /**
+         * Check if an exposed key is already bound in the injector
+         *
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.spi.PrivateElements)
+         */
+        @Override
+        public Boolean visit(PrivateElements privateElements) {
+            return privateElements.getExposedKeys().stream().anyMatch(k -> isBound(k));
+        }
+
+        /**
+         * Check if the scope annotation is already bound in the injector
+         *
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.spi.ScopeBinding)
+         */
+        @Override
+        public Boolean visit(ScopeBinding scopeBinding) {
+            Map<Class<? extends Annotation>, Scope> scopeBindings = this.injector.getScopeBindings();
+            return scopeBindings.containsKey(scopeBinding.getAnnotationType());
+        }
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visitOther(com.google.inject.spi.Element)
+         */
+        @Override
+        protected Boolean visitOther(Element element) {
+            return false;
+        }
+
+        /**
+         * Check if a key is bound in the injector, either explicitly or just in time
+         *
+         * Just in time bindings are created if necessary, so the result does not depend on the test methods that used
+         * the injector before. A child injector must not bind a key that its parent can bind just in time.
+         *
+         * @param key Key to check
+         * @return <code>true</code> if the key is bound
+         */
+        protected boolean isBound(Key<?> key) {
+            if (this.injector.getBindings().containsKey(key)) {
+                return true;
+            }
+
+            try {
+                this.injector.getBinding(key);
+                return true;
+            }
+            catch (ConfigurationException e) {
+                return false;
+            }
+        }
+
+    }
+
+    /**
+     * Class level injectors
+     */
+    private final ConcurrentMap<Class<?>, Injector> classInjectors;
+
+    /**
+     * Create a new strategy that uses the default injector cache
+     *
+     * @param composition Composition used to create the modules
+     */
+    public ChildInjectorStrategy(TestComposition composition) {
+        this(composition, InjectorCache.getDefault());
+    }
+
+    /**
+     * Create a new strategy
+     *
+     * @param composition Composition used to create the modules
+     * @param injectorCache Cache used to share class level injectors between test classes
+     */
+    public ChildInjectorStrategy(TestComposition composition, InjectorCache injectorCache) {
+        super(composition, injectorCache);
+        this.classInjectors = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the injector for a test method
+     *
+     * @see me.seeber.guicesqueezer.DefaultInjectorStrategy#createInjector(java.lang.Class, java.lang.reflect.Method)
+     */
+    @Override
+    @SuppressWarnings("try")
+    public Injector createInjector(Class<?> testClass, Method testMethod) {
+        if (!createInjectorOptions(testClass, testMethod).equals(InjectorOptions.forTestClass(testClass))) {
+            return super.createInjector(testClass, testMethod);
+        }
+
+        Injector classInjector = this.classInjectors.computeIfAbsent(testClass, c -> createClassInjector(c));
+        List<Element> methodElements;
+
+        try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.COMPOSITION)) {
+            Module methodModule = getComposition().createTestMethodModule(testMethod);
+            methodElements = Elements.getElements(methodModule);
+        }
+
+        if (methodElements.isEmpty()) {
+            return classInjector;
+        }
+
+        ConflictVisitor conflictVisitor = new ConflictVisitor(classInjector);
+        boolean conflict = methodElements.stream().anyMatch(e -> e.acceptVisitor(conflictVisitor));
+
+        if (conflict) {
+            InjectorOptions options = InjectorOptions.forTestClass(testClass);
+            Module module;
+
+            try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.COMPOSITION)) {
+                Module classModule = getComposition().createTestClassModule(testClass);
+                module = getModuleOverrides().override(options.getStage(), classModule,
+                        Elements.getModule(methodElements));
+            }
+
+            try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.INJECTOR)) {
+                Injector injector = options.createInjector(testClass, module);
+                return injector;
+            }
+        }
+
+        try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.INJECTOR)) {
+            Injector injector = classInjector.createChildInjector(Elements.getModule(methodElements));
+            return injector;
+        }
+    }
+
+    /**
+     * Create the class level injector
+     *
+     * If the injector cache is enabled and the class level composition has a fingerprint, the class level injector is
+     * shared with all other test classes with the same fingerprint.
+     *
+     * @param testClass Test class
+     * @return Class level injector
+     */
+    protected Injector createClassInjector(Class<?> testClass) {
+        InjectorOptions options = InjectorOptions.forTestClass(testClass);
+        Optional<CompositionFingerprint> fingerprint = getInjectorCache().isEnabled()
+                ? getComposition().createTestClassFingerprint(testClass)
+                : Optional.empty();
+
+        if (fingerprint.isPresent()) {
+            CompositionFingerprint optionsFingerprint = new CompositionFingerprint(
+                    Collections.singletonList(options.createFingerprintLayer(testClass)));
+            Injector injector = getInjectorCache().getInjector(fingerprint.get().with(optionsFingerprint),
+                    () -> buildClassInjector(testClass, options));
+            return injector;
+        }
+
+        Injector injector = buildClassInjector(testClass, options);
+        return injector;
+    }
+
+    /**
+     * Build a new class level injector
+     *
+     * @param testClass Test class
+     * @param options Stage and binder options of the test class
+     * @return Class level injector
+     */
+    @SuppressWarnings("try")
+    protected Injector buildClassInjector(Class<?> testClass, InjectorOptions options) {
+        Module classModule;
+
+        try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.COMPOSITION)) {
+            classModule = getComposition().createTestClassModule(testClass);
+        }
+
+        try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.INJECTOR)) {
+            Injector injector = options.createInjector(testClass, classModule);
+            return injector;
+        }
+    }
+
+    /**
+     * Test methods share the class level injector unless their method level modules override its bindings
+     *
+     * @see me.seeber.guicesqueezer.InjectorStrategy#isClassInjectorKept()
+     */
+    @Override
+    public boolean isClassInjectorKept() {
+        return true;
+    }
+
+    /**
+     * Release the class level injector
+     *
+     * @see me.seeber.guicesqueezer.InjectorStrategy#releaseTestClass(java.lang.Class)
+     */
+    @Override
+    public void releaseTestClass(Class<?> testClass) {
+        this.classInjectors.remove(testClass);
+    }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Fingerprint that identifies the modules composed for a test
+ *
+ * A fingerprint consists of layers, where each layer overrides the bindings of the previous layers. Each layer
+ * contains the elements that determine its bindings, e.g. module classes, factory methods or bound classes. Two
+ * compositions with equal fingerprints create equivalent injectors.
+ */
+public class CompositionFingerprint {
+
+    /**
+     * Layers of the fingerprint
+     */
+    private final List<Set<Object>> layers;
+
+    /**
+     * Create a new fingerprint
+     *
+     * Empty layers are ignored since they do not contribute any bindings.
+     *
+     * @param layers Layers of the fingerprint
+     */
+    public CompositionFingerprint(List<? extends Set<?>> layers) {
+        List<Set<Object>> nonEmptyLayers = new ArrayList<>(layers.size());
+
+        for (Set<?> layer : layers) {
+            if (!layer.isEmpty()) {
+                nonEmptyLayers.add(Collections.unmodifiableSet(new HashSet<>(layer)));
+            }
+        }
+
+        this.layers = Collections.unmodifiableList(nonEmptyLayers);
+    }
+
+    /**
+     * Create a new fingerprint that adds the layers of another fingerprint on top of this one
+     *
+     * @param fingerprint Fingerprint to add
+     * @return Combined fingerprint
+     */
+    public CompositionFingerprint with(CompositionFingerprint fingerprint) {
+        List<Set<Object>> combinedLayers = new ArrayList<>(this.layers);
+        combinedLayers.addAll(fingerprint.layers);
+        return new CompositionFingerprint(combinedLayers);
+    }
+
+    /**
+     * Get the layers of the fingerprint
+     *
+     * @return Layers of the fingerprint
+     */
+    public List<Set<Object>> getLayers() {
+        return this.layers;
+    }
+
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return this.layers.hashCode();
+    }
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(@Nullable Object object) {
+        boolean equal = (object == this);
+
+        if (!equal && object instanceof CompositionFingerprint) {
+            CompositionFingerprint other = (CompositionFingerprint) object;
+            equal = this.layers.equals(other.layers);
+        }
+
+        return equal;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return format("CompositionFingerprint%s", this.layers);
+    }
+
+}
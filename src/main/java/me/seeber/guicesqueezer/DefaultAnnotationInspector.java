@@ -27,11 +27,11 @@
  */
 package me.seeber.guicesqueezer;
 
-import static java.lang.String.format;
-
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Qualifier;
 
@@ -39,9 +39,23 @@ import com.google.inject.BindingAnnotation;
 
 /**
  * Default inspector used to examine binding annotations
+ *
+ * The binding annotations of each element are only scanned once.
  */
 public class DefaultAnnotationInspector implements AnnotationInspector {
 
+    /**
+     * Binding annotations by annotated element
+     */
+    private final ConcurrentMap<AnnotatedElement, BindingAnnotations> bindingAnnotations;
+
+    /**
+     * Create a new annotation inspector
+     */
+    public DefaultAnnotationInspector() {
+        this.bindingAnnotations = new ConcurrentHashMap<>();
+    }
+
     /**
      * Get the qualifier annotation for an annotated element
      *
@@ -54,23 +68,20 @@ public class DefaultAnnotationInspector implements AnnotationInspector {
      */
     @Override
     public Optional<Annotation> getQualifier(AnnotatedElement annotatedElement) throws IllegalArgumentException {
-        Annotation qualifierAnnotation = null;
-
-        for (Annotation annotation : annotatedElement.getAnnotations()) {
-            if (annotation.annotationType().getAnnotation(Qualifier.class) != null
-                    || annotation.annotationType().getAnnotation(BindingAnnotation.class) != null) {
-                if (qualifierAnnotation == null) {
-                    qualifierAnnotation = annotation;
-                }
-                else {
-                    throw new IllegalArgumentException(
-                            format("Element '%s' has more than one qualifier annotation", annotatedElement));
-                }
-            }
-        }
-
-        Optional<Annotation> qualifier = Optional.ofNullable(qualifierAnnotation);
+        Optional<Annotation> qualifier = getBindingAnnotations(annotatedElement).getQualifier();
         return qualifier;
     }
 
+    /**
+     * Get the qualifier and scope annotations for an annotated element, scanning its annotations only once
+     *
+     * @see me.seeber.guicesqueezer.AnnotationInspector#getBindingAnnotations(java.lang.reflect.AnnotatedElement)
+     */
+    @Override
+    public BindingAnnotations getBindingAnnotations(AnnotatedElement annotatedElement) {
+        BindingAnnotations annotations = this.bindingAnnotations.computeIfAbsent(annotatedElement,
+                e -> BindingAnnotations.scan(e));
+        return annotations;
+    }
+
 }
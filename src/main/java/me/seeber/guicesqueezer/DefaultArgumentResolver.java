@@ -27,28 +27,459 @@
  */
 package me.seeber.guicesqueezer;
 
+import static java.lang.String.format;
+
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 import javax.inject.Provider;
 
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.Binding;
+import com.google.inject.ConfigurationException;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 
+import me.seeber.guicesqueezer.java.Assert;
+
 /**
  * Default resolver used to resolve method arguments with an {@link Injector}
+ *
+ * The keys of the arguments are computed once per method. The providers for the keys are looked up once per method
+ * and injector. Besides the objects bound to the keys and providers for them, arguments can be {@link Lazy},
+ * {@link Supplier} or {@link Optional}. These are resolved with the existing bindings of the keys, so no just-in-time
+ * bindings are created for them. If the injector binds the wrapper type itself, e.g. <code>Supplier&lt;Foo&gt;</code>,
+ * the bound object is used instead.
  */
 public class DefaultArgumentResolver implements ArgumentResolver {
 
+    /**
+     * Kind of a method argument
+     */
+    protected static enum ArgumentKind {
+
+        /**
+         * Argument is the object bound to the key
+         */
+        INSTANCE,
+
+        /**
+         * Argument is a provider for the key
+         */
+        PROVIDER,
+
+        /**
+         * Argument is a {@link Lazy} that provisions the object bound to the key on first use
+         */
+        LAZY,
+
+        /**
+         * Argument is a {@link Supplier} that provisions the object bound to the key on first use
+         */
+        SUPPLIER,
+
+        /**
+         * Argument is an {@link Optional} that contains the object bound to the key, or is empty if the key is not
+         * bound
+         */
+        OPTIONAL;
+
+        /**
+         * Check if the argument is resolved with the existing binding of the key instead of creating a just-in-time
+         * binding
+         *
+         * @return <code>true</code> if the existing binding is used
+         */
+        public boolean isDeferred() {
+            return this == LAZY || this == SUPPLIER || this == OPTIONAL;
+        }
+
+    }
+
+    /**
+     * Argument that provisions the object bound to a key on first use
+     *
+     * @param <T> Type of the argument
+     */
+    protected static class LazyArgument<T> implements Lazy<T> {
+
+        /**
+         * Injector used to look up the provider if the key had no binding when the argument was created
+         */
+        private final Injector injector;
+
+        /**
+         * Key of the argument
+         */
+        private final Key<T> key;
+
+        /**
+         * Provider of the existing binding, or <code>null</code> if the key had no binding
+         */
+        private com.google.inject.@Nullable Provider<T> provider;
+
+        /**
+         * Provisioned object, valid if {@link #provisioned} is <code>true</code>
+         */
+        @Nullable
+        private T object;
+
+        /**
+         * <code>true</code> if the object has been provisioned
+         */
+        private boolean provisioned;
+
+        /**
+         * Create a new lazy argument
+         *
+         * @param injector Injector used to look up the provider if the key has no binding
+         * @param key Key of the argument
+         * @param provider Provider of the existing binding, or <code>null</code> if the key has no binding
+         */
+        public LazyArgument(Injector injector, Key<T> key, com.google.inject.@Nullable Provider<T> provider) {
+            this.injector = injector;
+            this.key = key;
+            this.provider = provider;
+        }
+
+        /**
+         * Provision the object on the first call
+         *
+         * If the key had no binding when the argument was created, the provider is looked up now, which creates a
+         * just-in-time binding.
+         *
+         * @see me.seeber.guicesqueezer.Lazy#get()
+         */
+        @Override
+        public synchronized T get() {
+            if (!this.provisioned) {
+                com.google.inject.Provider<T> provider = this.provider;
+
+                if (provider == null) {
+                    provider = this.injector.getProvider(this.key);
+                }
+
+                this.object = provider.get();
+                this.provisioned = true;
+                this.provider = null;
+            }
+
+            @SuppressWarnings("null")
+            T object = this.object;
+            return object;
+        }
+
+        /**
+         * @see java.lang.Object#toString()
+         */
+        @Override
+        public String toString() {
+            return format("Lazy[%s]", this.key);
+        }
+
+    }
+
+    /**
+     * Precomputed keys of the arguments of a method
+     *
+     * The plan keeps the providers for the keys bound by the injector it was last resolved with, so repeated calls with
+     * the same injector only look up the providers.
+     */
+    protected static class ResolutionPlan {
+
+        /**
+         * Providers bound by an injector
+         */
+        protected static class BoundProviders {
+
+            /**
+             * Injector the providers are bound by
+             */
+            private final Injector injector;
+
+            /**
+             * Kind of each argument for the injector
+             */
+            private final ArgumentKind[] kinds;
+
+            /**
+             * Provider for each argument, or <code>null</code> for deferred arguments whose key has no binding
+             */
+            private final com.google.inject.@Nullable Provider<?>[] providers;
+
+            /**
+             * Create new bound providers
+             *
+             * @param injector Injector the providers are bound by
+             * @param kinds Kind of each argument for the injector
+             * @param providers Provider for each argument
+             */
+            public BoundProviders(Injector injector, ArgumentKind[] kinds,
+                    com.google.inject.@Nullable Provider<?>[] providers) {
+                this.injector = injector;
+                this.kinds = kinds;
+                this.providers = providers;
+            }
+
+        }
+
+        /**
+         * Key of the type and qualifier of each parameter
+         */
+        private final Key<?>[] parameterKeys;
+
+        /**
+         * Key of each argument
+         */
+        private final Key<?>[] keys;
+
+        /**
+         * Kind of each argument
+         */
+        private final ArgumentKind[] kinds;
+
+        /**
+         * Providers bound by the injector the plan was last resolved with
+         */
+        @Nullable
+        private volatile BoundProviders boundProviders;
+
+        /**
+         * Create a new plan
+         *
+         * @param keys Key of each argument
+         * @param providerFlags Flag for each argument that is <code>true</code> if the argument is a provider
+         */
+        public ResolutionPlan(Key<?>[] keys, boolean[] providerFlags) {
+            this(keys, keys, toKinds(providerFlags));
+        }
+
+        /**
+         * Create a new plan
+         *
+         * @param parameterKeys Key of the type and qualifier of each parameter
+         * @param keys Key of each argument, which is the key of the wrapped type for wrapper parameters
+         * @param kinds Kind of each argument
+         */
+        public ResolutionPlan(Key<?>[] parameterKeys, Key<?>[] keys, ArgumentKind[] kinds) {
+            this.parameterKeys = parameterKeys;
+            this.keys = keys;
+            this.kinds = kinds;
+        }
+
+        /**
+         * Resolve the arguments with an injector
+         *
+         * @param injector Injector used to resolve the arguments
+         * @return Resolved arguments
+         */
+        public Object[] resolve(Injector injector) {
+            BoundProviders bound = this.boundProviders;
+
+            if (bound == null || bound.injector != injector) {
+                int size = this.keys.length;
+                ArgumentKind[] kinds = new ArgumentKind[size];
+                com.google.inject.@Nullable Provider<?>[] providers = new com.google.inject.Provider<?>[size];
+
+                for (int i = 0; i < providers.length; ++i) {
+                    kinds[i] = getKind(i, injector);
+                    providers[i] = getProvider(i, kinds[i], injector);
+                }
+
+                bound = new BoundProviders(injector, kinds, providers);
+                this.boundProviders = bound;
+            }
+
+            Object[] arguments = new Object[this.keys.length];
+
+            for (int i = 0; i < arguments.length; ++i) {
+                arguments[i] = createArgument(i, bound.kinds[i], injector, bound.providers[i]);
+            }
+
+            return arguments;
+        }
+
+        /**
+         * Resolve a single argument with an injector
+         *
+         * @param index Index of the argument
+         * @param injector Injector used to resolve the argument
+         * @return Resolved argument
+         */
+        public Object resolve(int index, Injector injector) {
+            ArgumentKind kind = getKind(index, injector);
+            Object argument = createArgument(index, kind, injector, getProvider(index, kind, injector));
+            return argument;
+        }
+
+        /**
+         * Check if a single argument can be resolved with an injector
+         *
+         * Deferred arguments can always be resolved. Other arguments need a binding for their key, which may be a
+         * just-in-time binding.
+         *
+         * @param index Index of the argument
+         * @param injector Injector used to resolve the argument
+         * @return <code>true</code> if the argument can be resolved
+         */
+        public boolean canResolve(int index, Injector injector) {
+            ArgumentKind kind = getKind(index, injector);
+
+            if (kind.isDeferred()) {
+                return true;
+            }
+
+            try {
+                injector.getBinding(getKey(index, kind));
+                return true;
+            }
+            catch (ConfigurationException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Release the bound providers
+         */
+        public void release() {
+            this.boundProviders = null;
+        }
+
+        /**
+         * Get the kind of an argument for an injector
+         *
+         * Deferred arguments are resolved as the object bound to the parameter key if the injector has a binding for
+         * the wrapper type itself.
+         *
+         * @param index Index of the argument
+         * @param injector Injector used to resolve the argument
+         * @return Kind of the argument
+         */
+        protected ArgumentKind getKind(int index, Injector injector) {
+            ArgumentKind kind = this.kinds[index];
+
+            if (kind.isDeferred() && injector.getExistingBinding(this.parameterKeys[index]) != null) {
+                kind = ArgumentKind.INSTANCE;
+            }
+
+            return kind;
+        }
+
+        /**
+         * Get the key used to resolve an argument
+         *
+         * @param index Index of the argument
+         * @param kind Kind of the argument for the injector
+         * @return Key of the wrapped type, or the parameter key if the injector binds the wrapper type itself
+         */
+        protected Key<?> getKey(int index, ArgumentKind kind) {
+            Key<?> key = kind == this.kinds[index] ? this.keys[index] : this.parameterKeys[index];
+            return key;
+        }
+
+        /**
+         * Get the provider for an argument
+         *
+         * Deferred arguments only use existing bindings, so no just-in-time binding is created for them.
+         *
+         * @param index Index of the argument
+         * @param kind Kind of the argument for the injector
+         * @param injector Injector used to resolve the argument
+         * @return Provider, or <code>null</code> if the argument is deferred and its key has no binding
+         */
+        protected com.google.inject.@Nullable Provider<?> getProvider(int index, ArgumentKind kind,
+                Injector injector) {
+            com.google.inject.Provider<?> provider;
+            Key<?> key = getKey(index, kind);
+
+            if (kind.isDeferred()) {
+                Binding<?> binding = injector.getExistingBinding(key);
+                provider = binding != null ? binding.getProvider() : null;
+            }
+            else {
+                provider = injector.getProvider(key);
+            }
+
+            return provider;
+        }
+
+        /**
+         * Create an argument from its provider
+         *
+         * @param index Index of the argument
+         * @param kind Kind of the argument for the injector
+         * @param injector Injector used to resolve the argument
+         * @param provider Provider of the argument, or <code>null</code> if the argument is deferred and its key has no
+         *            binding
+         * @return Argument
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes", "null" })
+        protected Object createArgument(int index, ArgumentKind kind, Injector injector,
+                com.google.inject.@Nullable Provider<?> provider) {
+            Object argument;
+
+            switch (kind) {
+                case PROVIDER:
+                    argument = provider;
+                    break;
+                case LAZY:
+                case SUPPLIER:
+                    argument = new LazyArgument(injector, this.keys[index], provider);
+                    break;
+                case OPTIONAL:
+                    argument = provider != null ? Optional.ofNullable(provider.get()) : Optional.empty();
+                    break;
+                default:
+                    argument = Assert.notNull(provider, "provider").get();
+                    break;
+            }
+
+            return argument;
+        }
+
+        /**
+         * Convert provider flags to argument kinds
+         *
+         * @param providerFlags Flag for each argument that is <code>true</code> if the argument is a provider
+         * @return Kind of each argument
+         */
+        private static ArgumentKind[] toKinds(boolean[] providerFlags) {
+            ArgumentKind[] kinds = new ArgumentKind[providerFlags.length];
+
+            for (int i = 0; i < kinds.length; ++i) {
+                kinds[i] = providerFlags[i] ? ArgumentKind.PROVIDER : ArgumentKind.INSTANCE;
+            }
+
+            return kinds;
+        }
+
+    }
+
+    /**
+     * Default resolver
+     */
+    private static final DefaultArgumentResolver DEFAULT_RESOLVER = new DefaultArgumentResolver(
+            new DefaultAnnotationInspector());
+
     /**
      * Annotation inspector used to inspect binding annotations
      */
     private final AnnotationInspector annotationInspector;
 
+    /**
+     * Resolution plans by method
+     */
+    private final ConcurrentMap<Method, ResolutionPlan> plans;
+
     /**
      * Create a new argument resolver
      *
@@ -56,6 +487,16 @@ public class DefaultArgumentResolver implements ArgumentResolver {
      */
     public DefaultArgumentResolver(AnnotationInspector annotationInspector) {
         this.annotationInspector = annotationInspector;
+        this.plans = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the default resolver, used by the binding modules generated at compile time
+     *
+     * @return Default resolver
+     */
+    public static DefaultArgumentResolver getDefault() {
+        return DEFAULT_RESOLVER;
     }
 
     /**
@@ -64,42 +505,167 @@ public class DefaultArgumentResolver implements ArgumentResolver {
      */
     @Override
     public Object[] resolveArguments(Method method, Injector injector) {
-        Type[] parameterTypes = method.getGenericParameterTypes();
+        try (SqueezerEvent event = SqueezerEvents.beginResolveArguments()) {
+            Object[] arguments = resolveArgumentsWithInjector(method, injector);
+            event.setTestClass(method.getDeclaringClass()).setMethod(method).setBindingCount(arguments.length);
+            return arguments;
+        }
+    }
+
+    /**
+     * Resolve the arguments of a method with an injector
+     *
+     * @param method Method whose arguments are resolved
+     * @param injector Injector used to resolve the arguments
+     * @return Resolved arguments
+     */
+    protected Object[] resolveArgumentsWithInjector(Method method, Injector injector) {
+        ResolutionPlan plan = this.plans.computeIfAbsent(method, m -> createPlan(m));
+        Object[] arguments = plan.resolve(injector);
+        return arguments;
+    }
+
+    /**
+     * Resolve a single argument using the resolution plan of the method
+     *
+     * @see me.seeber.guicesqueezer.ArgumentResolver#resolveArgument(java.lang.reflect.Method, int,
+     *      com.google.inject.Injector)
+     */
+    @Override
+    public Object resolveArgument(Method method, int index, Injector injector) {
+        ResolutionPlan plan = this.plans.computeIfAbsent(method, m -> createPlan(m));
+        Object argument = plan.resolve(index, injector);
+        return argument;
+    }
+
+    /**
+     * Check if a single argument can be resolved using the resolution plan of the method
+     *
+     * @see me.seeber.guicesqueezer.ArgumentResolver#canResolveArgument(java.lang.reflect.Method, int,
+     *      com.google.inject.Injector)
+     */
+    @Override
+    public boolean canResolveArgument(Method method, int index, Injector injector) {
+        ResolutionPlan plan = this.plans.computeIfAbsent(method, m -> createPlan(m));
+        boolean resolvable = plan.canResolve(index, injector);
+        return resolvable;
+    }
+
+    /**
+     * Get a provider for the arguments of a parameter with the given type and qualifier
+     *
+     * The arguments are resolved like the argument of a method parameter with the same key. The binding of the key is
+     * only looked up once, so the provider should be kept as long as the injector. This is used by the binding modules
+     * generated at compile time, so provider methods get the same arguments as with bindings discovered by reflection.
+     *
+     * @param parameterKey Key of the parameter type and qualifier
+     * @param injector Injector used to resolve the arguments
+     * @return Provider for the arguments
+     */
+    public com.google.inject.Provider<?> getArgumentProvider(Key<?> parameterKey, Injector injector) {
+        ResolutionPlan plan = createPlan(new Key<?>[] { parameterKey });
+        ArgumentKind kind = plan.getKind(0, injector);
+        com.google.inject.@Nullable Provider<?> provider = plan.getProvider(0, kind, injector);
+        com.google.inject.Provider<?> argumentProvider = () -> plan.createArgument(0, kind, injector, provider);
+        return argumentProvider;
+    }
+
+    /**
+     * Create the resolution plan for a method
+     *
+     * @param method Method whose arguments are resolved
+     * @return Resolution plan
+     */
+    protected ResolutionPlan createPlan(Method method) {
         Parameter[] parameters = method.getParameters();
-        Object[] arguments = new Object[parameterTypes.length];
+        Key<?>[] parameterKeys = new Key<?>[parameters.length];
 
-        for (int i = 0; i < arguments.length; ++i) {
-            boolean provider = false;
+        for (int i = 0; i < parameters.length; ++i) {
             Parameter parameter = parameters[i];
-
             Type parameterType = parameter.getParameterizedType();
+            Optional<Annotation> qualifier = this.annotationInspector.getQualifier(parameter);
+
+            parameterKeys[i] = qualifier.isPresent() ? Key.get(parameterType, qualifier.get())
+                    : Key.get(parameterType);
+        }
+
+        ResolutionPlan plan = createPlan(parameterKeys);
+        return plan;
+    }
+
+    /**
+     * Create the resolution plan for parameters
+     *
+     * Parameters whose type is a wrapper are resolved with the key of the wrapped type, keeping the qualifier, unless
+     * the injector binds the wrapper type itself.
+     *
+     * @param parameterKeys Key of the type and qualifier of each parameter
+     * @return Resolution plan
+     */
+    protected ResolutionPlan createPlan(Key<?>[] parameterKeys) {
+        Key<?>[] keys = new Key<?>[parameterKeys.length];
+        ArgumentKind[] kinds = new ArgumentKind[parameterKeys.length];
+
+        for (int i = 0; i < parameterKeys.length; ++i) {
+            ArgumentKind kind = ArgumentKind.INSTANCE;
+            Key<?> key = parameterKeys[i];
+            Type parameterType = key.getTypeLiteral().getType();
 
             if (parameterType instanceof ParameterizedType) {
                 ParameterizedType parameterizedType = (ParameterizedType) parameterType;
+                Optional<ArgumentKind> wrapperKind = getWrapperKind(parameterizedType.getRawType());
 
-                if (parameterizedType.getRawType() == Provider.class
-                        || parameterizedType.getRawType() == com.google.inject.Provider.class) {
-                    provider = true;
-                    parameterType = parameterizedType.getActualTypeArguments()[0];
+                if (wrapperKind.isPresent()) {
+                    kind = wrapperKind.get();
+                    key = key.ofType(parameterizedType.getActualTypeArguments()[0]);
                 }
             }
 
-            Key<?> key = Key.get(parameterType);
-            Optional<Annotation> qualifier = this.annotationInspector.getQualifier(parameter);
+            keys[i] = key;
+            kinds[i] = kind;
+        }
 
-            if (qualifier.isPresent()) {
-                key = Key.get(parameterType, qualifier.get());
-            }
+        ResolutionPlan plan = new ResolutionPlan(parameterKeys, keys, kinds);
+        return plan;
+    }
 
-            if (provider) {
-                arguments[i] = injector.getProvider(key);
-            }
-            else {
-                arguments[i] = injector.getInstance(key);
-            }
+    /**
+     * Get the kind of argument for a wrapper type
+     *
+     * @param rawType Raw type of the parameter
+     * @return Kind of argument, or an empty optional if the type is not a wrapper
+     */
+    protected Optional<ArgumentKind> getWrapperKind(Type rawType) {
+        ArgumentKind kind = null;
+
+        if (rawType == Provider.class || rawType == com.google.inject.Provider.class) {
+            kind = ArgumentKind.PROVIDER;
+        }
+        else if (rawType == Lazy.class) {
+            kind = ArgumentKind.LAZY;
+        }
+        else if (rawType == Supplier.class) {
+            kind = ArgumentKind.SUPPLIER;
+        }
+        else if (rawType == Optional.class) {
+            kind = ArgumentKind.OPTIONAL;
         }
 
-        return arguments;
+        return Optional.ofNullable(kind);
+    }
+
+    /**
+     * Release the providers bound for the methods of a test class and its superclasses
+     *
+     * @see me.seeber.guicesqueezer.ArgumentResolver#releaseTestClass(java.lang.Class)
+     */
+    @Override
+    public void releaseTestClass(Class<?> testClass) {
+        for (Map.Entry<Method, ResolutionPlan> entry : this.plans.entrySet()) {
+            if (entry.getKey().getDeclaringClass().isAssignableFrom(testClass)) {
+                entry.getValue().release();
+            }
+        }
     }
 
 }
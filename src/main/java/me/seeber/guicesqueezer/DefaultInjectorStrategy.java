@@ -0,0 +1,191 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Optional;
+
+import com.google.inject.Injector;
+import com.google.inject.Module;
+
+/**
+ * Default strategy that creates a new injector for each test method
+ *
+ * The injector is created from the class level module overridden by the method level module, using the stage and binder
+ * options of the test method. If the injector cache is enabled, injectors are shared between all test methods with the
+ * same composition fingerprint.
+ */
+public class DefaultInjectorStrategy implements InjectorStrategy {
+
+    /**
+     * Composition used to create the modules
+     */
+    private final TestComposition composition;
+
+    /**
+     * Cache used to share injectors between test classes
+     */
+    private final InjectorCache injectorCache;
+
+    /**
+     * Create a new strategy that uses the default injector cache
+     *
+     * @param composition Composition used to create the modules
+     */
+    public DefaultInjectorStrategy(TestComposition composition) {
+        this(composition, InjectorCache.getDefault());
+    }
+
+    /**
+     * Create a new strategy
+     *
+     * @param composition Composition used to create the modules
+     * @param injectorCache Cache used to share injectors between test classes
+     */
+    public DefaultInjectorStrategy(TestComposition composition, InjectorCache injectorCache) {
+        this.composition = composition;
+        this.injectorCache = injectorCache;
+    }
+
+    /**
+     * Get the injector for a test method
+     *
+     * If the injector cache is enabled and the composition has a fingerprint, the injector is shared with all other
+     * test methods with the same fingerprint.
+     *
+     * @see me.seeber.guicesqueezer.InjectorStrategy#createInjector(java.lang.Class, java.lang.reflect.Method)
+     */
+    @Override
+    public Injector createInjector(Class<?> testClass, Method testMethod) {
+        if (this.injectorCache.isEnabled()) {
+            Optional<CompositionFingerprint> fingerprint = createFingerprint(testClass, testMethod);
+
+            if (fingerprint.isPresent()) {
+                Injector injector = this.injectorCache.getInjector(fingerprint.get(),
+                        () -> buildInjector(testClass, testMethod));
+                return injector;
+            }
+        }
+
+        Injector injector = buildInjector(testClass, testMethod);
+        return injector;
+    }
+
+    /**
+     * Build a new injector for a test method
+     *
+     * @param testClass Test class
+     * @param testMethod Test method
+     * @return Injector for the test method
+     */
+    @SuppressWarnings("try")
+    protected Injector buildInjector(Class<?> testClass, Method testMethod) {
+        InjectorOptions options = createInjectorOptions(testClass, testMethod);
+        Module module;
+
+        try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.COMPOSITION)) {
+            Module classModule = this.composition.createTestClassModule(testClass);
+            Module methodModule = this.composition.createTestMethodModule(testMethod);
+            module = getModuleOverrides().override(options.getStage(), classModule, methodModule);
+        }
+
+        try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.INJECTOR)) {
+            Injector injector = options.createInjector(testClass, module);
+            return injector;
+        }
+    }
+
+    /**
+     * Get the stage and binder options used to create the injector for a test method
+     *
+     * @param testClass Test class
+     * @param testMethod Test method
+     * @return Options for the test method
+     */
+    protected InjectorOptions createInjectorOptions(Class<?> testClass, Method testMethod) {
+        InjectorOptions options = InjectorOptions.forTestMethod(testClass, testMethod);
+        return options;
+    }
+
+    /**
+     * Create the fingerprint of the modules composed for a test method
+     *
+     * @param testClass Test class
+     * @param testMethod Test method
+     * @return Fingerprint, or an empty optional if the composition cannot be fingerprinted
+     */
+    protected Optional<CompositionFingerprint> createFingerprint(Class<?> testClass, Method testMethod) {
+        Optional<CompositionFingerprint> classFingerprint = this.composition.createTestClassFingerprint(testClass);
+        Optional<CompositionFingerprint> methodFingerprint = this.composition.createTestMethodFingerprint(testMethod);
+
+        CompositionFingerprint optionsFingerprint = new CompositionFingerprint(Collections
+                .singletonList(createInjectorOptions(testClass, testMethod).createFingerprintLayer(testClass)));
+
+        Optional<CompositionFingerprint> fingerprint = classFingerprint
+                .flatMap(c -> methodFingerprint.map(m -> c.with(m).with(optionsFingerprint)));
+        return fingerprint;
+    }
+
+    /**
+     * Get the composition used to create the modules
+     *
+     * @return Composition used to create the modules
+     */
+    protected TestComposition getComposition() {
+        return this.composition;
+    }
+
+    /**
+     * Get the overrides used to override the class level module with the method level module
+     *
+     * @return Module overrides
+     */
+    protected ModuleOverrides getModuleOverrides() {
+        return ModuleOverrides.getDefault();
+    }
+
+    /**
+     * Get the metrics used to time the creation of injectors
+     *
+     * @return Metrics
+     */
+    protected SqueezerMetrics getMetrics() {
+        return SqueezerMetrics.getDefault();
+    }
+
+    /**
+     * Get the cache used to share injectors between test classes
+     *
+     * @return Injector cache
+     */
+    protected InjectorCache getInjectorCache() {
+        return this.injectorCache;
+    }
+
+}
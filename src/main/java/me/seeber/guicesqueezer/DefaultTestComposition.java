@@ -30,13 +30,19 @@ package me.seeber.guicesqueezer;
 import static java.lang.String.format;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.inject.Qualifier;
 import javax.inject.Scope;
@@ -47,7 +53,6 @@ import org.junit.Test;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.Statement;
 
-import com.google.inject.BindingAnnotation;
 import com.google.inject.Injector;
 import com.google.inject.Module;
 import com.google.inject.Provides;
@@ -60,12 +65,18 @@ import me.seeber.guicesqueezer.BindingModule.ClassTarget;
 import me.seeber.guicesqueezer.BindingModule.ProviderMethodTarget;
 import me.seeber.guicesqueezer.BindingModule.TypeSource;
 import me.seeber.guicesqueezer.java.Assert;
+import me.seeber.guicesqueezer.java.Lists;
 
 /**
  * Default composition that inspects annotations to determine the test composition
  */
 public class DefaultTestComposition implements TestComposition {
 
+    /**
+     * Module that binds the test scopes
+     */
+    private static final Module TEST_SCOPES_MODULE = new TestScopesModule();
+
     /**
      * Annotation inspector used to inspect binding annotations
      */
@@ -76,12 +87,24 @@ public class DefaultTestComposition implements TestComposition {
      */
     private final ArgumentResolver argumentResolver;
 
+    /**
+     * Recorder used to replay modules
+     */
+    private final ModuleRecorder moduleRecorder;
+
+    /**
+     * Method handles used to call test methods
+     */
+    private final ConcurrentMap<Method, Optional<MethodHandle>> testMethodInvokers;
+
     /**
      * Create a new injector factory
      */
     public DefaultTestComposition() {
         this.annotationInspector = new DefaultAnnotationInspector();
         this.argumentResolver = new DefaultArgumentResolver(this.annotationInspector);
+        this.moduleRecorder = ModuleRecorder.getDefault();
+        this.testMethodInvokers = new ConcurrentHashMap<>();
     }
 
     /**
@@ -91,8 +114,23 @@ public class DefaultTestComposition implements TestComposition {
      * @param argumentResolver Parameter resolver used to resolve method arguments
      */
     public DefaultTestComposition(AnnotationInspector annotationInspector, ArgumentResolver argumentResolver) {
+        this(annotationInspector, argumentResolver, ModuleRecorder.getDefault());
+    }
+
+    /**
+     * Create a new injector factory
+     *
+     * @param annotationInspector Annotation inspector used to inspect binding annotations
+     * @param argumentResolver Parameter resolver used to resolve method arguments
+     * @param moduleRecorder Recorder used to replay modules
+     */
+    public DefaultTestComposition(AnnotationInspector annotationInspector,
+            ArgumentResolver argumentResolver,
+            ModuleRecorder moduleRecorder) {
         this.annotationInspector = annotationInspector;
         this.argumentResolver = argumentResolver;
+        this.moduleRecorder = moduleRecorder;
+        this.testMethodInvokers = new ConcurrentHashMap<>();
     }
 
     /**
@@ -104,7 +142,7 @@ public class DefaultTestComposition implements TestComposition {
     protected Module createModuleUsingBoundNestedClasses(Class<?> testClass) {
         List<Binding> bindings = new ArrayList<>();
 
-        for (Class<?> nestedClass : testClass.getDeclaredClasses()) {
+        for (Class<?> nestedClass : TestClassMetadata.of(testClass).getBoundClasses()) {
             Bind bindingAnnotation = nestedClass.getAnnotation(Bind.class);
 
             if (bindingAnnotation != null) {
@@ -144,6 +182,23 @@ public class DefaultTestComposition implements TestComposition {
         return module;
     }
 
+    /**
+     * Create the module generated at compile time that contains the bindings specified by {@link Bind} annotations and
+     * {@link Provides} methods
+     *
+     * The module is generated by the annotation processor from the guice-squeezer-processor artifact. If it is not on
+     * the class path, the bindings are discovered by reflection instead.
+     *
+     * @param testClass Test class
+     * @return Generated module, or an empty optional if no module was generated
+     * @see TestClassMetadata#getGeneratedModuleClass()
+     */
+    protected Optional<Module> createModuleUsingGeneratedBindings(Class<?> testClass) {
+        Optional<Module> module = TestClassMetadata.of(testClass).getGeneratedModuleClass()
+                .map(c -> replayModuleFromClass(c));
+        return module;
+    }
+
     /**
      * Create a module that contains bindings specified by {@link Provides} methods
      *
@@ -153,7 +208,7 @@ public class DefaultTestComposition implements TestComposition {
     protected Module createModuleUsingProviderMethods(Class<?> testClass) {
         List<Binding> bindings = new ArrayList<>();
 
-        for (Method method : testClass.getDeclaredMethods()) {
+        for (Method method : TestClassMetadata.of(testClass).getProviderMethods()) {
             Provides providesAnnotation = method.getAnnotation(Provides.class);
 
             if (providesAnnotation != null) {
@@ -195,22 +250,8 @@ public class DefaultTestComposition implements TestComposition {
      */
     protected Optional<Class<? extends Annotation>> getScope(AnnotatedElement annotatedElement)
             throws IllegalArgumentException {
-        Annotation scopeAnnotation = null;
-
-        for (Annotation annotation : annotatedElement.getAnnotations()) {
-            if (annotation.annotationType().getAnnotation(Scope.class) != null
-                    || annotation.annotationType().getAnnotation(ScopeAnnotation.class) != null) {
-                if (scopeAnnotation == null) {
-                    scopeAnnotation = annotation;
-                }
-                else {
-                    throw new IllegalArgumentException(
-                            format("Element '%s' has more than one scope annotation", annotatedElement));
-                }
-            }
-        }
-
-        Optional<Class<? extends Annotation>> scope = Optional.ofNullable(scopeAnnotation).map(a -> a.annotationType());
+        Optional<Class<? extends Annotation>> scope = this.annotationInspector.getBindingAnnotations(annotatedElement)
+                .getScope();
         return scope;
     }
 
@@ -283,6 +324,81 @@ public class DefaultTestComposition implements TestComposition {
         }
     }
 
+    /**
+     * Create a test module from a module class, replaying the module if possible
+     *
+     * @param moduleClass Class of test module
+     * @return Test module
+     * @see ModuleRecorder
+     */
+    protected Module replayModuleFromClass(Class<? extends @Nullable Module> moduleClass) {
+        if (moduleClass.getAnnotation(NoReplay.class) != null) {
+            return shareModuleFromClass(moduleClass);
+        }
+
+        Module module = this.moduleRecorder.getModule(moduleClass, () -> shareModuleFromClass(moduleClass));
+        return module;
+    }
+
+    /**
+     * Create a test module by calling a factory method, replaying the module if possible
+     *
+     * @param method Method that returns the test module
+     * @return Test module
+     * @see ModuleRecorder
+     */
+    protected Module replayModuleFromMethod(Method method) {
+        if (method.getAnnotation(NoReplay.class) != null) {
+            return shareModuleFromMethod(method);
+        }
+
+        Module module = this.moduleRecorder.getModule(method, () -> shareModuleFromMethod(method));
+        return module;
+    }
+
+    /**
+     * Create a test module from a module class, sharing the module instance if the class is annotated with
+     * {@link StatelessModule}
+     *
+     * @param moduleClass Class of test module
+     * @return Test module
+     * @see StatelessModules
+     */
+    protected Module shareModuleFromClass(Class<? extends @Nullable Module> moduleClass) {
+        if (moduleClass.getAnnotation(StatelessModule.class) == null) {
+            return createModuleFromClass(moduleClass);
+        }
+
+        Module module = getStatelessModules().getModule(moduleClass, () -> createModuleFromClass(moduleClass));
+        return module;
+    }
+
+    /**
+     * Create a test module by calling a factory method, sharing the module instance if the method is annotated with
+     * {@link StatelessModule}
+     *
+     * @param method Method that returns the test module
+     * @return Test module
+     * @see StatelessModules
+     */
+    protected Module shareModuleFromMethod(Method method) {
+        if (method.getAnnotation(StatelessModule.class) == null) {
+            return createModuleFromMethod(method);
+        }
+
+        Module module = getStatelessModules().getModule(method, () -> createModuleFromMethod(method));
+        return module;
+    }
+
+    /**
+     * Get the cache of stateless module instances
+     *
+     * @return Cache of stateless module instances
+     */
+    protected StatelessModules getStatelessModules() {
+        return StatelessModules.getDefault();
+    }
+
     /**
      * Setup the module used to create the test injector
      *
@@ -302,24 +418,73 @@ public class DefaultTestComposition implements TestComposition {
      */
     @Override
     public Module createTestClassModule(Class<?> testClass) {
-        Module annotationModule = createModuleUsingTestModulesAnnotations(testClass);
+        try (SqueezerEvent event = SqueezerEvents.beginComposeModule()) {
+            Module classModule = composeTestClassModule(testClass);
 
-        Module nestedClassModule = createModuleUsingNestedModuleClasses(testClass);
-        Module providerModule = createModuleUsingFactoryMethods(testClass);
-        Module boundTypesModule = createModuleUsingBoundNestedClasses(testClass);
-        Module providedTypesModule = createModuleUsingProviderMethods(testClass);
+            if (event.isRecording()) {
+                int moduleCount = createTestClassFingerprint(testClass)
+                        .map(f -> f.getLayers().stream().mapToInt(l -> l.size()).sum()).orElse(0);
+                event.setTestClass(testClass).setModuleCount(moduleCount);
+            }
+
+            return classModule;
+        }
+    }
 
-        Module classModule = Modules.override(annotationModule).with(nestedClassModule, providerModule,
-                boundTypesModule, providedTypesModule);
+    /**
+     * Compose the class level module from the modules of the test class and its superclasses
+     *
+     * The modules of the whole class hierarchy are combined into a single {@link LayeredModule}, so the elements of
+     * each module are only recorded once regardless of the depth of the hierarchy. The lowest layer is the
+     * {@link TestScopesModule}, so test modules can bind objects in {@link ClassScoped} and {@link TestScoped} scope.
+     *
+     * @param testClass Test class
+     * @return Class level module
+     */
+    protected Module composeTestClassModule(Class<?> testClass) {
+        List<Module> layers = new ArrayList<>();
+        layers.add(TEST_SCOPES_MODULE);
+        addTestClassModuleLayers(testClass, layers);
 
+        Module classModule = new LayeredModule(layers);
+        return classModule;
+    }
+
+    /**
+     * Add the module layers of a test class and its superclasses
+     *
+     * Each class contributes two layers: The modules from the {@link TestModules} annotation, and the modules declared
+     * by the class, which override the annotation modules. The layers of a class override the layers of its
+     * superclasses.
+     *
+     * @param testClass Test class
+     * @param layers Layers to add to
+     */
+    protected void addTestClassModuleLayers(Class<?> testClass, List<Module> layers) {
         Class<?> superclass = testClass.getSuperclass();
 
         if (superclass != null) {
-            Module superclassModule = createTestClassModule(superclass);
-            classModule = Modules.override(superclassModule).with(classModule);
+            addTestClassModuleLayers(superclass, layers);
         }
 
-        return classModule;
+        Module annotationModule = createModuleUsingTestModulesAnnotations(testClass);
+
+        Module nestedClassModule = createModuleUsingNestedModuleClasses(testClass);
+        Module providerModule = createModuleUsingFactoryMethods(testClass);
+        Optional<Module> generatedModule = createModuleUsingGeneratedBindings(testClass);
+
+        layers.add(annotationModule);
+
+        if (generatedModule.isPresent()) {
+            layers.add(Modules.combine(nestedClassModule, providerModule, generatedModule.get()));
+        }
+        else {
+            Module boundTypesModule = this.moduleRecorder.getModule(Arrays.asList(testClass, Bind.class),
+                    () -> createModuleUsingBoundNestedClasses(testClass));
+            Module providedTypesModule = this.moduleRecorder.getModule(Arrays.asList(testClass, Provides.class),
+                    () -> createModuleUsingProviderMethods(testClass));
+            layers.add(Modules.combine(nestedClassModule, providerModule, boundTypesModule, providedTypesModule));
+        }
     }
 
     /**
@@ -334,12 +499,9 @@ public class DefaultTestComposition implements TestComposition {
     protected Module createModuleUsingFactoryMethods(Class<?> testClass) {
         List<Module> modules = new ArrayList<>();
 
-        for (Method method : testClass.getDeclaredMethods()) {
-            if ((method.getModifiers() & Modifier.STATIC) != 0 && method.getParameterCount() == 0
-                    && Module.class.isAssignableFrom(method.getReturnType())) {
-                Module module = createModuleFromMethod(method);
-                modules.add(module);
-            }
+        for (Method method : TestClassMetadata.of(testClass).getFactoryMethods()) {
+            Module module = replayModuleFromMethod(method);
+            modules.add(module);
         }
 
         Module module = Modules.combine(modules);
@@ -358,12 +520,9 @@ public class DefaultTestComposition implements TestComposition {
     protected Module createModuleUsingNestedModuleClasses(Class<?> testClass) {
         List<Module> modules = new ArrayList<>();
 
-        for (Class<?> nestedClass : testClass.getDeclaredClasses()) {
-            if ((nestedClass.getModifiers() & Modifier.STATIC) != 0 && Module.class.isAssignableFrom(nestedClass)) {
-                Class<? extends Module> moduleClass = nestedClass.asSubclass(Module.class);
-                Module nestedModule = createModuleFromClass(moduleClass);
-                modules.add(nestedModule);
-            }
+        for (Class<? extends Module> moduleClass : TestClassMetadata.of(testClass).getModuleClasses()) {
+            Module nestedModule = replayModuleFromClass(moduleClass);
+            modules.add(nestedModule);
         }
 
         Module module = Modules.combine(modules);
@@ -379,7 +538,8 @@ public class DefaultTestComposition implements TestComposition {
      * <li>Annotate the method with a {@link TestModules} annotation
      * </ol>
      *
-     * The returned module builder contains a module with all configured test modules.
+     * The returned module builder contains a module with all configured test modules. If the method does not configure
+     * any modules, {@link Modules#EMPTY_MODULE} is returned, so the class level module can be used unchanged.
      *
      * @param testMethod Test method
      * @return Module builder for test method
@@ -390,10 +550,80 @@ public class DefaultTestComposition implements TestComposition {
 
         modules.add(createModuleUsingTestModulesAnnotations(testMethod));
 
-        Module module = Modules.combine(modules);
+        Module module = modules.stream().allMatch(m -> m == Modules.EMPTY_MODULE) ? Modules.EMPTY_MODULE
+                : Modules.combine(modules);
         return module;
     }
 
+    /**
+     * Create the fingerprint of the class level module
+     *
+     * The fingerprint contains two layers for the test class and each of its superclasses: The module classes from the
+     * {@link TestModules} annotation, and the nested module classes, module factory methods, classes annotated with
+     * {@link Bind} and methods annotated with {@link Provides} declared by the class. Since a test class that does not
+     * declare any of these does not contribute any layers, test classes that inherit or declare the same modules have
+     * equal fingerprints.
+     *
+     * @see me.seeber.guicesqueezer.TestComposition#createTestClassFingerprint(java.lang.Class)
+     */
+    @Override
+    public Optional<CompositionFingerprint> createTestClassFingerprint(Class<?> testClass) {
+        List<Set<Object>> layers = new ArrayList<>();
+        addTestClassFingerprintLayers(testClass, layers);
+
+        Optional<CompositionFingerprint> fingerprint = Optional.of(new CompositionFingerprint(layers));
+        return fingerprint;
+    }
+
+    /**
+     * Add the fingerprint layers of a test class and its superclasses
+     *
+     * @param testClass Test class
+     * @param layers Layers to add to
+     */
+    protected void addTestClassFingerprintLayers(Class<?> testClass, List<Set<Object>> layers) {
+        Class<?> superclass = testClass.getSuperclass();
+
+        if (superclass != null) {
+            addTestClassFingerprintLayers(superclass, layers);
+        }
+
+        layers.add(getTestModulesFingerprintLayer(testClass));
+        layers.add(TestClassMetadata.of(testClass).getFingerprintLayer());
+    }
+
+    /**
+     * Create the fingerprint of the method level module
+     *
+     * The fingerprint contains one layer with the module classes from the {@link TestModules} annotation of the method.
+     *
+     * @see me.seeber.guicesqueezer.TestComposition#createTestMethodFingerprint(java.lang.reflect.Method)
+     */
+    @Override
+    public Optional<CompositionFingerprint> createTestMethodFingerprint(Method testMethod) {
+        List<Set<Object>> layers = Lists.of(getTestModulesFingerprintLayer(testMethod));
+
+        Optional<CompositionFingerprint> fingerprint = Optional.of(new CompositionFingerprint(layers));
+        return fingerprint;
+    }
+
+    /**
+     * Get the fingerprint layer for the modules specified by a {@link TestModules} annotation
+     *
+     * @param element Annotated element
+     * @return Fingerprint layer containing the module classes
+     */
+    protected Set<Object> getTestModulesFingerprintLayer(AnnotatedElement element) {
+        Set<Object> layer = new HashSet<>();
+        TestModules testModules = element.getAnnotation(TestModules.class);
+
+        if (testModules != null) {
+            layer.addAll(Arrays.asList(testModules.value()));
+        }
+
+        return layer;
+    }
+
     /**
      * Create modules specified by a {@link TestModules} annotation
      *
@@ -411,12 +641,12 @@ public class DefaultTestComposition implements TestComposition {
                             TestModules.class.getSimpleName(), testModules.value()));
                 }
 
-                Module module = createModuleFromClass(moduleClass);
+                Module module = replayModuleFromClass(moduleClass);
                 modules.add(module);
             }
         }
 
-        Module module = Modules.combine(modules);
+        Module module = modules.isEmpty() ? Modules.EMPTY_MODULE : Modules.combine(modules);
         return module;
     }
 
@@ -440,8 +670,7 @@ public class DefaultTestComposition implements TestComposition {
                 Annotation qualifierAnnotation = null;
 
                 for (Annotation parameterAnnotation : testMethod.getMethod().getParameterAnnotations()[i]) {
-                    if (parameterAnnotation.annotationType().getAnnotation(Qualifier.class) != null
-                            || parameterAnnotation.annotationType().getAnnotation(BindingAnnotation.class) != null) {
+                    if (AnnotationClassifier.isQualifier(parameterAnnotation.annotationType())) {
                         if (qualifierAnnotation == null) {
                             qualifierAnnotation = parameterAnnotation;
                         }
@@ -462,13 +691,56 @@ public class DefaultTestComposition implements TestComposition {
     /**
      * Get a method invoker
      *
-     * Change the default JUnit behavior to add parameters
+     * Change the default JUnit behavior to add parameters. Method handles are only cached for plain
+     * {@link FrameworkMethod} instances, since subclasses are always called through
+     * {@link FrameworkMethod#invokeExplosively(Object, Object...)}.
      */
     @Override
     public Statement createInvocationStatement(FrameworkMethod testMethod, Object test, Injector injector) {
         InvokeWithParametersStatement statement = new InvokeWithParametersStatement(testMethod, test,
-                this.argumentResolver, injector);
+                this.argumentResolver, injector, getInvoker(testMethod));
         return statement;
     }
 
+    /**
+     * Create a statement that invokes a test method once for each data row, using the argument resolver of this
+     * composition
+     *
+     * @see me.seeber.guicesqueezer.TestComposition#createRowsInvocationStatement(FrameworkMethod, FrameworkMethod,
+     *      Object, Injector)
+     */
+    @Override
+    public Statement createRowsInvocationStatement(FrameworkMethod testMethod,
+            FrameworkMethod rowSource,
+            Object test,
+            Injector injector) {
+        InvokeWithRowsStatement statement = new InvokeWithRowsStatement(testMethod, rowSource, test,
+                this.argumentResolver, injector, getInvoker(testMethod));
+        return statement;
+    }
+
+    /**
+     * Get the method handle that calls a test method
+     *
+     * @param testMethod Test method
+     * @return Method handle, or empty to call {@link FrameworkMethod#invokeExplosively(Object, Object...)}
+     */
+    protected Optional<MethodHandle> getInvoker(FrameworkMethod testMethod) {
+        Optional<MethodHandle> invoker = testMethod.getClass() == FrameworkMethod.class
+                ? this.testMethodInvokers.computeIfAbsent(testMethod.getMethod(),
+                        m -> InvokeWithParametersStatement.createInvoker(testMethod))
+                : Optional.empty();
+        return invoker;
+    }
+
+    /**
+     * Release the state kept by the argument resolver
+     *
+     * @see me.seeber.guicesqueezer.TestComposition#releaseTestClass(java.lang.Class)
+     */
+    @Override
+    public void releaseTestClass(Class<?> testClass) {
+        this.argumentResolver.releaseTestClass(testClass);
+    }
+
 }
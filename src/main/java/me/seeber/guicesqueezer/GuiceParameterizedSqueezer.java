@@ -0,0 +1,148 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
+import org.junit.runners.model.Statement;
+
+import me.seeber.guicesqueezer.java.Argument;
+import me.seeber.guicesqueezer.java.Assert;
+
+/**
+ * JUnit runner that runs test methods annotated with {@link WithRows} once for each data row
+ *
+ * The rows are provided by a method of the test class annotated with {@link DataRows} and are pulled one at a time, so
+ * large generated data sets are never materialized. All rows of a test method run against the same injector and test
+ * object, and {@link org.junit.Before} and {@link org.junit.After} methods run once for all rows. Test methods without
+ * {@link WithRows} annotation are run as by {@link GuiceSqueezer}.
+ */
+public class GuiceParameterizedSqueezer extends GuiceSqueezer {
+
+    /**
+     * Row sources by name
+     */
+    private @Nullable Map<String, FrameworkMethod> rowSources;
+
+    /**
+     * Create a new test runner
+     *
+     * @param testClass Test class
+     * @throws InitializationError if the test class is not valid
+     */
+    public GuiceParameterizedSqueezer(Class<?> testClass) throws InitializationError {
+        super(testClass);
+    }
+
+    /**
+     * Create a method invoker that runs the test method for each data row
+     *
+     * @see me.seeber.guicesqueezer.GuiceSqueezer#methodInvoker(org.junit.runners.model.FrameworkMethod,
+     *      java.lang.Object)
+     */
+    @Override
+    protected Statement methodInvoker(@Nullable FrameworkMethod testMethod, @Nullable Object test) {
+        FrameworkMethod method = Argument.notNull(testMethod, "testMethod");
+        WithRows withRows = method.getAnnotation(WithRows.class);
+
+        if (withRows == null) {
+            return super.methodInvoker(method, test);
+        }
+
+        FrameworkMethod rowSource = getRowSource(withRows.value()).orElseThrow(() -> new IllegalArgumentException(
+                format("No row source '%s' for test method '%s'", withRows.value(), method.getMethod())));
+        Statement statement = getInjectorFactory().createRowsInvocationStatement(method, rowSource,
+                Argument.notNull(test, "test"), getInjector());
+        return statement;
+    }
+
+    /**
+     * Validate the row sources of test methods annotated with {@link WithRows}
+     *
+     * @see me.seeber.guicesqueezer.GuiceSqueezer#validateTestMethods(java.util.List)
+     */
+    @Override
+    protected void validateTestMethods(List<Throwable> errors) {
+        super.validateTestMethods(errors);
+
+        for (FrameworkMethod rowSource : getTestClass().getAnnotatedMethods(DataRows.class)) {
+            if (!rowSource.isPublic()) {
+                errors.add(new IllegalArgumentException(
+                        format("Row source '%s' must be public", rowSource.getMethod())));
+            }
+
+            if (!InvokeWithRowsStatement.isRowsType(rowSource.getReturnType())) {
+                errors.add(new IllegalArgumentException(format(
+                        "Row source '%s' must return a Stream, Iterator or Iterable", rowSource.getMethod())));
+            }
+        }
+
+        for (FrameworkMethod testMethod : getTestClass().getAnnotatedMethods(Test.class)) {
+            WithRows withRows = testMethod.getAnnotation(WithRows.class);
+
+            if (withRows != null && !getRowSource(withRows.value()).isPresent()) {
+                errors.add(new IllegalArgumentException(format("No row source '%s' for test method '%s'",
+                        withRows.value(), testMethod.getMethod())));
+            }
+        }
+    }
+
+    /**
+     * Get a row source by name
+     *
+     * @param name Name of the row source
+     * @return Method annotated with {@link DataRows}, or an empty optional if there is no row source with the name
+     */
+    protected synchronized Optional<FrameworkMethod> getRowSource(String name) {
+        if (this.rowSources == null) {
+            Map<String, FrameworkMethod> rowSources = new HashMap<>();
+
+            for (FrameworkMethod rowSource : getTestClass().getAnnotatedMethods(DataRows.class)) {
+                DataRows annotation = rowSource.getAnnotation(DataRows.class);
+                String rowsName = annotation.value().isEmpty() ? rowSource.getName() : annotation.value();
+                rowSources.putIfAbsent(rowsName, rowSource);
+            }
+
+            this.rowSources = rowSources;
+        }
+
+        Optional<FrameworkMethod> rowSource = Optional
+                .ofNullable(Assert.notNull(this.rowSources, "rowSources").get(name));
+        return rowSource;
+    }
+
+}
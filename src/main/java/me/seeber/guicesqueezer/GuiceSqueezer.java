@@ -27,10 +27,17 @@
  */
 package me.seeber.guicesqueezer;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.junit.Test;
+import org.junit.internal.runners.model.EachTestNotifier;
+import org.junit.runner.Description;
 import org.junit.runner.Runner;
 import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.BlockJUnit4ClassRunner;
@@ -38,10 +45,7 @@ import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.Statement;
 
-import com.google.inject.Guice;
 import com.google.inject.Injector;
-import com.google.inject.Module;
-import com.google.inject.util.Modules;
 
 import me.seeber.guicesqueezer.java.Argument;
 import me.seeber.guicesqueezer.java.Validate;
@@ -52,10 +56,37 @@ import me.seeber.guicesqueezer.java.Validate;
 public class GuiceSqueezer extends BlockJUnit4ClassRunner {
 
     /**
-     * Injector used to create test objects
+     * System property that sets the class of the default injector strategy
+     */
+    public static final String INJECTOR_STRATEGY_PROPERTY = "guicesqueezer.injectorStrategy";
+
+    /**
+     * System property that sets the number of threads used to run test methods of classes not annotated with
+     * {@link ParallelMethods}
+     */
+    public static final String PARALLEL_THREADS_PROPERTY = "guicesqueezer.parallelMethods.threads";
+
+    /**
+     * System property that sets the look ahead depth for building injectors of classes not annotated with
+     * {@link PrebuildInjectors}
+     */
+    public static final String PREBUILD_DEPTH_PROPERTY = "guicesqueezer.prebuildInjectors.depth";
+
+    /**
+     * Injector used to create test objects, kept per thread to allow test methods to run in parallel
+     */
+    private final ThreadLocal<@Nullable Injector> injector;
+
+    /**
+     * Phase timings summed over all test methods of the test class
+     */
+    private final PhaseTimings classTimings;
+
+    /**
+     * Pipeline that builds injectors in the background while the test class is run
      */
     @Nullable
-    private Injector injector;
+    private volatile InjectorPipeline injectorPipeline;
 
     /**
      * Injector factory used to create Guice injectors for tests
@@ -63,6 +94,22 @@ public class GuiceSqueezer extends BlockJUnit4ClassRunner {
     @Nullable
     private TestComposition injectorFactory;
 
+    /**
+     * Strategy used to create injectors
+     */
+    @Nullable
+    private InjectorStrategy injectorStrategy;
+
+    /**
+     * Test object shared by all test methods if the test class is annotated with {@link TestInstancePerClass}
+     */
+    private volatile @Nullable Object sharedTest;
+
+    /**
+     * Injector for the fields of the shared test object that are injected again for each test method
+     */
+    private @Nullable PerTestFieldInjector perTestFieldInjector;
+
     /**
      * Create a new runner
      *
@@ -71,17 +118,106 @@ public class GuiceSqueezer extends BlockJUnit4ClassRunner {
      */
     public GuiceSqueezer(Class<?> testClass) throws InitializationError {
         super(testClass);
+
+        this.injector = new ThreadLocal<>();
+        this.classTimings = new PhaseTimings();
+
+        int parallelThreads = getParallelThreads();
+
+        if (parallelThreads > 1) {
+            setScheduler(new ParallelScheduler(parallelThreads));
+        }
+    }
+
+    /**
+     * Run the test class and release the state kept for it afterwards
+     *
+     * @see org.junit.runners.ParentRunner#run(org.junit.runner.notification.RunNotifier)
+     */
+    @Override
+    public void run(@Nullable RunNotifier notifier) {
+        int prebuildDepth = getPrebuildDepth();
+
+        if (prebuildDepth > 0 && getParallelThreads() <= 1) {
+            Class<?> testClass = getTestClass().getJavaClass();
+            this.injectorPipeline = new InjectorPipeline(getPlannedTestMethods(),
+                    m -> getInjectorStrategy().createInjector(testClass, m), prebuildDepth);
+        }
+
+        try {
+            super.run(notifier);
+        }
+        finally {
+            InjectorPipeline pipeline = this.injectorPipeline;
+
+            if (pipeline != null) {
+                pipeline.close();
+                this.injectorPipeline = null;
+            }
+
+            if (getMetrics().isEnabled()) {
+                getMetrics().finishTestClass(getTestClass().getJavaClass(), this.classTimings);
+            }
+
+            getInjectorStrategy().releaseTestClass(getTestClass().getJavaClass());
+            getInjectorFactory().releaseTestClass(getTestClass().getJavaClass());
+            getTestScopes().releaseTestClass(getTestClass().getJavaClass());
+            this.sharedTest = null;
+            this.injector.remove();
+        }
     }
 
     /**
+     * Run a test method inside a new test scope
+     *
+     * If the injector for the test method cannot be created, the failure is reported for the test method. The injector
+     * of the test method is removed from the current thread when the test method is finished, so worker threads of the
+     * {@link ParallelScheduler} do not keep it reachable.
+     *
      * @see org.junit.runners.BlockJUnit4ClassRunner#runChild(org.junit.runners.model.FrameworkMethod,
      *      org.junit.runner.notification.RunNotifier)
      */
     @Override
+    @SuppressWarnings("try")
     protected void runChild(@Nullable FrameworkMethod method, @Nullable RunNotifier notifier) {
-        updateInjector(Argument.notNull(method, "method"));
+        FrameworkMethod testMethod = Argument.notNull(method, "method");
+        Optional<PhaseTimings> timings = getMetrics().startTestMethod();
+
+        try (TestScopes.Context context = getTestScopes().enterTest(getTestClass().getJavaClass(),
+                getInjectorStrategy().isClassInjectorKept())) {
+            try {
+                updateInjector(testMethod);
+            }
+            catch (RuntimeException e) {
+                reportFailure(testMethod, Argument.notNull(notifier, "notifier"), e);
+                return;
+            }
+
+            super.runChild(testMethod, notifier);
+        }
+        finally {
+            this.injector.remove();
+
+            if (timings.isPresent()) {
+                getMetrics().finishTestMethod(getTestClass().getJavaClass(), testMethod.getMethod(), timings.get());
+                this.classTimings.add(timings.get());
+            }
+        }
+    }
+
+    /**
+     * Report a failure for a test method that could not be run
+     *
+     * @param method Test method
+     * @param notifier Notifier to report to
+     * @param failure Failure to report
+     */
+    protected void reportFailure(FrameworkMethod method, RunNotifier notifier, Throwable failure) {
+        EachTestNotifier testNotifier = new EachTestNotifier(notifier, describeChild(method));
 
-        super.runChild(method, notifier);
+        testNotifier.fireTestStarted();
+        testNotifier.addFailure(failure);
+        testNotifier.fireTestFinished();
     }
 
     /**
@@ -91,31 +227,112 @@ public class GuiceSqueezer extends BlockJUnit4ClassRunner {
      * @return Injector to use
      */
     protected Injector updateInjector(FrameworkMethod method) {
-        Module classModule = getInjectorFactory().createTestClassModule(getTestClass().getJavaClass());
-        Module methodModule = getInjectorFactory()
-                .createTestMethodModule(Argument.notNull(method, "method").getMethod());
-        Module module = Modules.override(classModule).with(methodModule);
-        Injector injector = Guice.createInjector(module);
+        Method testMethod = Argument.notNull(method, "method").getMethod();
+
+        try (SqueezerEvent event = SqueezerEvents.beginUpdateInjector()) {
+            Injector injector = createInjector(testMethod);
 
-        setInjector(injector);
+            setInjector(injector);
 
+            if (event.isRecording()) {
+                event.setTestClass(getTestClass().getJavaClass()).setMethod(testMethod)
+                        .setBindingCount(injector.getAllBindings().size());
+            }
+
+            return injector;
+        }
+    }
+
+    /**
+     * Get the injector for a test method
+     *
+     * @param testMethod Test method
+     * @return Injector for the test method
+     */
+    protected Injector createInjector(Method testMethod) {
+        InjectorPipeline pipeline = this.injectorPipeline;
+
+        if (pipeline != null) {
+            return pipeline.take(testMethod);
+        }
+
+        Injector injector = getInjectorStrategy().createInjector(getTestClass().getJavaClass(), testMethod);
         return injector;
     }
 
+    /**
+     * Get the test methods in the order they will be run, after filtering and sorting
+     *
+     * @return Test methods
+     */
+    protected List<Method> getPlannedTestMethods() {
+        Map<Description, Method> testMethods = new HashMap<>();
+
+        for (FrameworkMethod testMethod : getChildren()) {
+            testMethods.put(describeChild(testMethod), testMethod.getMethod());
+        }
+
+        List<Method> plannedTestMethods = new ArrayList<>();
+
+        for (Description description : getDescription().getChildren()) {
+            Method testMethod = testMethods.get(description);
+
+            if (testMethod != null) {
+                plannedTestMethods.add(testMethod);
+            }
+        }
+
+        return plannedTestMethods;
+    }
+
     /**
      * Create a new test object from Guice
      *
+     * If the test class is annotated with {@link TestInstancePerClass}, the test object is only created for the first
+     * test method and reused for the following ones.
+     *
      * @see org.junit.runners.BlockJUnit4ClassRunner#createTest()
      */
     @Override
+    @SuppressWarnings("try")
     protected Object createTest() throws Exception {
-        Object testObject = getInjector().getInstance(getTestClass().getJavaClass());
+        Object testObject;
+
+        try (SqueezerMetrics.Timer timer = getMetrics().time(Phase.CREATE_TEST)) {
+            if (isTestInstancePerClass()) {
+                testObject = reuseTest();
+            }
+            else {
+                testObject = getInjector().getInstance(getTestClass().getJavaClass());
+            }
+        }
 
         assert testObject != null;
 
         return testObject;
     }
 
+    /**
+     * Get the test object shared by all test methods, creating it for the first test method
+     *
+     * For the following test methods, only the fields annotated with {@link PerTest} are injected again.
+     *
+     * @return Shared test object
+     */
+    protected Object reuseTest() {
+        Object testObject = this.sharedTest;
+
+        if (testObject == null) {
+            testObject = getInjector().getInstance(getTestClass().getJavaClass());
+            this.sharedTest = testObject;
+        }
+        else {
+            getPerTestFieldInjector().injectMembers(testObject, getInjector());
+        }
+
+        return testObject;
+    }
+
     /**
      * Get a method invoker
      *
@@ -139,16 +356,27 @@ public class GuiceSqueezer extends BlockJUnit4ClassRunner {
         List<FrameworkMethod> testMethods = getTestClass().getAnnotatedMethods(Test.class);
         List<Throwable> validationErrors = getInjectorFactory().validateTestMethods(testMethods);
         errors.addAll(validationErrors);
+
+        if (isTestInstancePerClass()) {
+            try {
+                getPerTestFieldInjector();
+            }
+            catch (IllegalArgumentException e) {
+                errors.add(e);
+            }
+        }
     }
 
     /**
      * Get the factory used to create Guice injectors for the test
      *
+     * The class level module is cached for the test class, so it is only created once for all test methods.
+     *
      * @return Injector factory
      */
-    protected TestComposition getInjectorFactory() {
+    protected synchronized TestComposition getInjectorFactory() {
         if (this.injectorFactory == null) {
-            this.injectorFactory = new DefaultTestComposition();
+            this.injectorFactory = new CachingTestComposition(new DefaultTestComposition());
         }
 
         assert this.injectorFactory != null;
@@ -156,13 +384,99 @@ public class GuiceSqueezer extends BlockJUnit4ClassRunner {
         return this.injectorFactory;
     }
 
+    /**
+     * Get the strategy used to create injectors
+     *
+     * The strategy is selected by the {@link UseInjectorStrategy} annotation of the test class. If the test class is
+     * not annotated, the strategy class can be set with the system property {@value #INJECTOR_STRATEGY_PROPERTY}, and
+     * {@link DefaultInjectorStrategy} is used if the property is not set.
+     *
+     * @return Injector strategy
+     */
+    protected synchronized InjectorStrategy getInjectorStrategy() {
+        if (this.injectorStrategy == null) {
+            this.injectorStrategy = createInjectorStrategy(getInjectorStrategyClass());
+        }
+
+        assert this.injectorStrategy != null;
+
+        return this.injectorStrategy;
+    }
+
+    /**
+     * Get the class of the strategy used to create injectors
+     *
+     * @return Strategy class
+     */
+    protected Class<? extends InjectorStrategy> getInjectorStrategyClass() {
+        Class<? extends InjectorStrategy> strategyClass = InjectorStrategies
+                .getStrategyClass(getTestClass().getJavaClass());
+        return strategyClass;
+    }
+
+    /**
+     * Create the strategy used to create injectors
+     *
+     * @param strategyClass Strategy class
+     * @return Injector strategy
+     */
+    protected InjectorStrategy createInjectorStrategy(Class<? extends InjectorStrategy> strategyClass) {
+        InjectorStrategy strategy = InjectorStrategies.createStrategy(strategyClass, getInjectorFactory());
+        return strategy;
+    }
+
+    /**
+     * Get the injector for the fields of the shared test object that are injected again for each test method
+     *
+     * @return Field injector
+     * @throws IllegalArgumentException if a field annotated with {@link PerTest} cannot be injected
+     */
+    protected synchronized PerTestFieldInjector getPerTestFieldInjector() throws IllegalArgumentException {
+        if (this.perTestFieldInjector == null) {
+            this.perTestFieldInjector = new PerTestFieldInjector(getTestClass().getJavaClass(),
+                    new DefaultAnnotationInspector());
+        }
+
+        assert this.perTestFieldInjector != null;
+
+        return this.perTestFieldInjector;
+    }
+
+    /**
+     * Check if the test object is shared by all test methods
+     *
+     * @return <code>true</code> if the test class is annotated with {@link TestInstancePerClass}
+     */
+    protected boolean isTestInstancePerClass() {
+        boolean perClass = getTestClass().getJavaClass().isAnnotationPresent(TestInstancePerClass.class);
+        return perClass;
+    }
+
     /**
      * Get the injector used to create test objects
      *
      * @return Injector
      */
     protected Injector getInjector() {
-        return Validate.notNull(this.injector, "injector");
+        return Validate.notNull(this.injector.get(), "injector");
+    }
+
+    /**
+     * Get the metrics used to time the phases of test methods
+     *
+     * @return Metrics
+     */
+    protected SqueezerMetrics getMetrics() {
+        return SqueezerMetrics.getDefault();
+    }
+
+    /**
+     * Get the scopes used for class and test scoped objects
+     *
+     * @return Test scopes
+     */
+    protected TestScopes getTestScopes() {
+        return TestScopes.getDefault();
     }
 
     /**
@@ -171,7 +485,49 @@ public class GuiceSqueezer extends BlockJUnit4ClassRunner {
      * @param injector Injector
      */
     protected void setInjector(Injector injector) {
-        this.injector = injector;
+        this.injector.set(injector);
+    }
+
+    /**
+     * Get the number of test methods to build injectors for in advance
+     *
+     * The depth is taken from the {@link PrebuildInjectors} annotation of the test class. If the test class is not
+     * annotated, the depth can be set with the system property {@value #PREBUILD_DEPTH_PROPERTY}. Injectors are not
+     * built in advance if test methods are run in parallel.
+     *
+     * @return Look ahead depth, injectors are not built in advance if this is 0
+     */
+    protected int getPrebuildDepth() {
+        PrebuildInjectors annotation = getTestClass().getJavaClass().getAnnotation(PrebuildInjectors.class);
+        int depth = annotation != null ? annotation.depth() : Integer.getInteger(PREBUILD_DEPTH_PROPERTY, 0);
+        return depth;
+    }
+
+    /**
+     * Get the number of threads used to run test methods in parallel
+     *
+     * The number of threads is taken from the {@link ParallelMethods} annotation of the test class. If the test class
+     * is not annotated, the number of threads can be set with the system property
+     * {@value #PARALLEL_THREADS_PROPERTY}. Test methods of classes annotated with {@link TestInstancePerClass} are
+     * always run sequentially.
+     *
+     * @return Number of threads, test methods are run sequentially if this is less than 2
+     */
+    protected int getParallelThreads() {
+        ParallelMethods annotation = getTestClass().getJavaClass().getAnnotation(ParallelMethods.class);
+        int threads;
+
+        if (isTestInstancePerClass()) {
+            threads = 1;
+        }
+        else if (annotation != null) {
+            threads = annotation.threads() > 0 ? annotation.threads() : Runtime.getRuntime().availableProcessors();
+        }
+        else {
+            threads = Integer.getInteger(PARALLEL_THREADS_PROPERTY, 1);
+        }
+
+        return threads;
     }
 
 }
@@ -0,0 +1,258 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.Injector;
+
+/**
+ * Cache that shares injectors between tests with the same {@link CompositionFingerprint}
+ *
+ * The cache evicts the least recently used injector once it contains more than the configured maximum number of
+ * injectors. If several threads request an injector for the same fingerprint at the same time, the injector is only
+ * created once and all other threads wait for it.
+ *
+ * The default cache used by {@link GuiceSqueezer} is disabled unless its maximum size is set with the system property
+ * {@value #MAX_SIZE_PROPERTY}. The cache statistics are available with {@link #getHits()}, {@link #getMisses()} and
+ * {@link #getEvictions()}, or as readable text with {@link #getStatistics()}.
+ */
+public class InjectorCache {
+
+    /**
+     * System property that sets the maximum size of the default cache
+     */
+    public static final String MAX_SIZE_PROPERTY = "guicesqueezer.injectorCache.maxSize";
+
+    /**
+     * Default cache
+     */
+    private static final InjectorCache DEFAULT_CACHE = new InjectorCache(Integer.getInteger(MAX_SIZE_PROPERTY, 0));
+
+    /**
+     * Maximum number of cached injectors
+     */
+    private final int maxSize;
+
+    /**
+     * Cached injectors in access order, guarded by itself
+     */
+    private final Map<CompositionFingerprint, CompletableFuture<Injector>> injectors;
+
+    /**
+     * Number of cache hits
+     */
+    private final AtomicLong hits;
+
+    /**
+     * Number of cache misses
+     */
+    private final AtomicLong misses;
+
+    /**
+     * Number of evicted injectors
+     */
+    private final AtomicLong evictions;
+
+    /**
+     * Create a new injector cache
+     *
+     * @param maxSize Maximum number of cached injectors, the cache is disabled if this is not positive
+     */
+    public InjectorCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.injectors = new LinkedHashMap<CompositionFingerprint, CompletableFuture<Injector>>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.@Nullable Entry<CompositionFingerprint, CompletableFuture<Injector>> eldest) {
+                boolean remove = size() > InjectorCache.this.maxSize;
+
+                if (remove) {
+                    InjectorCache.this.evictions.incrementAndGet();
+                }
+
+                return remove;
+            }
+
+        };
+    }
+
+    /**
+     * Get the default cache
+     *
+     * @return Default cache
+     */
+    public static InjectorCache getDefault() {
+        return DEFAULT_CACHE;
+    }
+
+    /**
+     * Get the injector for a fingerprint, creating it if it is not in the cache
+     *
+     * @param fingerprint Fingerprint of the injector's composition
+     * @param factory Factory used to create the injector if it is not in the cache
+     * @return Injector
+     */
+    public Injector getInjector(CompositionFingerprint fingerprint, Supplier<Injector> factory) {
+        if (!isEnabled()) {
+            return factory.get();
+        }
+
+        CompletableFuture<Injector> injectorFuture;
+        boolean create = false;
+
+        synchronized (this.injectors) {
+            injectorFuture = this.injectors.get(fingerprint);
+
+            if (injectorFuture == null) {
+                injectorFuture = new CompletableFuture<>();
+                this.injectors.put(fingerprint, injectorFuture);
+                create = true;
+            }
+        }
+
+        if (create) {
+            this.misses.incrementAndGet();
+
+            try {
+                Injector injector = factory.get();
+                injectorFuture.complete(injector);
+                return injector;
+            }
+            catch (RuntimeException | Error e) {
+                synchronized (this.injectors) {
+                    this.injectors.remove(fingerprint, injectorFuture);
+                }
+
+                injectorFuture.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        this.hits.incrementAndGet();
+
+        try {
+            Injector injector = injectorFuture.join();
+            return injector;
+        }
+        catch (CompletionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Check if the cache is enabled
+     *
+     * @return <code>true</code> if the cache is enabled
+     */
+    public boolean isEnabled() {
+        return this.maxSize > 0;
+    }
+
+    /**
+     * Get the maximum number of cached injectors
+     *
+     * @return Maximum number of cached injectors
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    /**
+     * Get the number of cached injectors
+     *
+     * @return Number of cached injectors
+     */
+    public int getSize() {
+        synchronized (this.injectors) {
+            return this.injectors.size();
+        }
+    }
+
+    /**
+     * Get the number of cache hits
+     *
+     * @return Number of cache hits
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Get the number of cache misses
+     *
+     * @return Number of cache misses
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Get the number of evicted injectors
+     *
+     * @return Number of evicted injectors
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+
+    /**
+     * Get a readable description of the cache statistics
+     *
+     * @return Cache statistics
+     */
+    public String getStatistics() {
+        return format("Guice Squeezer injector cache: %d hits, %d misses, %d evictions (max size %d)", getHits(),
+                getMisses(), getEvictions(), getMaxSize());
+    }
+
+}
@@ -0,0 +1,80 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.google.inject.Stage;
+
+/**
+ * Annotation for test classes and test methods that configures the stage and binder options of their injectors
+ *
+ * An annotation on a test method replaces the annotation on the test class.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Inherited
+public @interface InjectorConfig {
+
+    /**
+     * Name of the {@link Stage} used to create the injector, or empty to use the stage set with the system property
+     * {@value InjectorOptions#STAGE_PROPERTY}
+     *
+     * @return Name of the stage
+     */
+    public String stage() default "";
+
+    /**
+     * Disable circular proxies
+     *
+     * @return <code>true</code> to disable circular proxies
+     * @see com.google.inject.Binder#disableCircularProxies()
+     */
+    public boolean disableCircularProxies() default false;
+
+    /**
+     * Require explicit bindings for all injected types except the test class
+     *
+     * @return <code>true</code> to require explicit bindings
+     * @see com.google.inject.Binder#requireExplicitBindings()
+     */
+    public boolean requireExplicitBindings() default false;
+
+    /**
+     * Require an <code>@Inject</code> annotation on constructors of all injected types except the test class
+     *
+     * @return <code>true</code> to require an <code>@Inject</code> annotation
+     * @see com.google.inject.Binder#requireAtInjectOnConstructors()
+     */
+    public boolean requireAtInjectOnConstructors() default false;
+
+}
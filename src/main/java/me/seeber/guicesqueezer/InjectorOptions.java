@@ -0,0 +1,348 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.spi.InjectionPoint;
+
+/**
+ * Stage and binder options used to create the injector for a test
+ *
+ * The options are taken from the {@link InjectorConfig} annotation of the test method or test class. If neither is
+ * annotated or the annotation does not set a stage, the stage can be set with the system property
+ * {@value #STAGE_PROPERTY}.
+ */
+public class InjectorOptions {
+
+    /**
+     * System property that sets the stage for tests whose {@link InjectorConfig} annotation does not set a stage
+     */
+    public static final String STAGE_PROPERTY = "guicesqueezer.stage";
+
+    /**
+     * Module that applies the binder options before installing the test module
+     */
+    protected static class OptionsModule extends AbstractModule {
+
+        /**
+         * Options to apply
+         */
+        private final InjectorOptions options;
+
+        /**
+         * Test class
+         */
+        private final Class<?> testClass;
+
+        /**
+         * Test module
+         */
+        private final Module module;
+
+        /**
+         * Create a new module
+         *
+         * @param options Options to apply
+         * @param testClass Test class
+         * @param module Test module
+         */
+        public OptionsModule(InjectorOptions options, Class<?> testClass, Module module) {
+            this.options = options;
+            this.testClass = testClass;
+            this.module = module;
+        }
+
+        /**
+         * @see com.google.inject.AbstractModule#configure()
+         */
+        @Override
+        protected void configure() {
+            if (this.options.isDisableCircularProxies()) {
+                binder().disableCircularProxies();
+            }
+
+            if (this.options.isRequireExplicitBindings()) {
+                binder().requireExplicitBindings();
+            }
+
+            if (this.options.isRequireAtInjectOnConstructors()) {
+                binder().requireAtInjectOnConstructors();
+            }
+
+            if (this.options.isBindTestClass()) {
+                bindTestClass(this.testClass);
+            }
+
+            install(this.module);
+        }
+
+        /**
+         * Bind the test class to its constructor, so it can be created even if it has no <code>@Inject</code>
+         * annotation
+         *
+         * @param testClass Test class
+         */
+        @SuppressWarnings("unchecked")
+        protected <T> void bindTestClass(Class<T> testClass) {
+            Constructor<T> constructor = (Constructor<T>) InjectionPoint.forConstructorOf(testClass).getMember();
+            bind(testClass).toConstructor(constructor);
+        }
+
+    }
+
+    /**
+     * Stage used to create the injector
+     */
+    private final Stage stage;
+
+    /**
+     * Disable circular proxies
+     */
+    private final boolean disableCircularProxies;
+
+    /**
+     * Require explicit bindings
+     */
+    private final boolean requireExplicitBindings;
+
+    /**
+     * Require an <code>@Inject</code> annotation on constructors
+     */
+    private final boolean requireAtInjectOnConstructors;
+
+    /**
+     * Create new options
+     *
+     * @param stage Stage used to create the injector
+     * @param disableCircularProxies Disable circular proxies
+     * @param requireExplicitBindings Require explicit bindings
+     * @param requireAtInjectOnConstructors Require an <code>@Inject</code> annotation on constructors
+     */
+    public InjectorOptions(Stage stage, boolean disableCircularProxies, boolean requireExplicitBindings,
+            boolean requireAtInjectOnConstructors) {
+        this.stage = stage;
+        this.disableCircularProxies = disableCircularProxies;
+        this.requireExplicitBindings = requireExplicitBindings;
+        this.requireAtInjectOnConstructors = requireAtInjectOnConstructors;
+    }
+
+    /**
+     * Create options from an annotation
+     *
+     * @param config Annotation
+     * @return Options
+     */
+    public static InjectorOptions of(InjectorConfig config) {
+        Stage stage = config.stage().isEmpty() ? getDefaultStage() : parseStage(config.stage());
+        InjectorOptions options = new InjectorOptions(stage, config.disableCircularProxies(),
+                config.requireExplicitBindings(), config.requireAtInjectOnConstructors());
+        return options;
+    }
+
+    /**
+     * Get the default options for tests not annotated with {@link InjectorConfig}
+     *
+     * @return Default options
+     */
+    public static InjectorOptions getDefault() {
+        InjectorOptions options = new InjectorOptions(getDefaultStage(), false, false, false);
+        return options;
+    }
+
+    /**
+     * Get the stage set with the system property {@value #STAGE_PROPERTY}
+     *
+     * @return Stage set with the system property, {@link Stage#DEVELOPMENT} if the property is not set
+     */
+    protected static Stage getDefaultStage() {
+        String stageName = System.getProperty(STAGE_PROPERTY);
+        Stage stage = stageName != null ? parseStage(stageName) : Stage.DEVELOPMENT;
+        return stage;
+    }
+
+    /**
+     * Parse the name of a stage
+     *
+     * @param stageName Name of the stage, case is ignored
+     * @return Stage
+     * @throws IllegalArgumentException if there is no stage with the name
+     */
+    protected static Stage parseStage(String stageName) throws IllegalArgumentException {
+        Stage stage = Stage.valueOf(stageName.trim().toUpperCase());
+        return stage;
+    }
+
+    /**
+     * Get the options for a test class
+     *
+     * @param testClass Test class
+     * @return Options for the test class
+     */
+    public static InjectorOptions forTestClass(Class<?> testClass) {
+        InjectorConfig config = testClass.getAnnotation(InjectorConfig.class);
+        InjectorOptions options = config != null ? of(config) : getDefault();
+        return options;
+    }
+
+    /**
+     * Get the options for a test method
+     *
+     * @param testClass Test class
+     * @param testMethod Test method
+     * @return Options for the test method
+     */
+    public static InjectorOptions forTestMethod(Class<?> testClass, Method testMethod) {
+        InjectorConfig config = testMethod.getAnnotation(InjectorConfig.class);
+        InjectorOptions options = config != null ? of(config) : forTestClass(testClass);
+        return options;
+    }
+
+    /**
+     * Create an injector with these options
+     *
+     * @param testClass Test class, which is bound explicitly if required by the binder options
+     * @param module Test module
+     * @return Injector
+     */
+    public Injector createInjector(Class<?> testClass, Module module) {
+        Injector injector = Guice.createInjector(this.stage, new OptionsModule(this, testClass, module));
+        return injector;
+    }
+
+    /**
+     * Create the fingerprint layer for these options
+     *
+     * If the test class is bound explicitly, the layer also contains the test class.
+     *
+     * @param testClass Test class
+     * @return Fingerprint layer
+     */
+    public Set<Object> createFingerprintLayer(Class<?> testClass) {
+        Set<Object> layer = isBindTestClass() ? new HashSet<>(Arrays.asList(this, testClass))
+                : Collections.singleton(this);
+        return layer;
+    }
+
+    /**
+     * Get the stage used to create the injector
+     *
+     * @return Stage
+     */
+    public Stage getStage() {
+        return this.stage;
+    }
+
+    /**
+     * Check if circular proxies are disabled
+     *
+     * @return <code>true</code> if circular proxies are disabled
+     */
+    public boolean isDisableCircularProxies() {
+        return this.disableCircularProxies;
+    }
+
+    /**
+     * Check if explicit bindings are required
+     *
+     * @return <code>true</code> if explicit bindings are required
+     */
+    public boolean isRequireExplicitBindings() {
+        return this.requireExplicitBindings;
+    }
+
+    /**
+     * Check if an <code>@Inject</code> annotation is required on constructors
+     *
+     * @return <code>true</code> if an <code>@Inject</code> annotation is required
+     */
+    public boolean isRequireAtInjectOnConstructors() {
+        return this.requireAtInjectOnConstructors;
+    }
+
+    /**
+     * Check if the test class must be bound explicitly because of the binder options
+     *
+     * @return <code>true</code> if the test class must be bound explicitly
+     */
+    public boolean isBindTestClass() {
+        return this.requireExplicitBindings || this.requireAtInjectOnConstructors;
+    }
+
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.stage, this.disableCircularProxies, this.requireExplicitBindings,
+                this.requireAtInjectOnConstructors);
+    }
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(@Nullable Object object) {
+        boolean equal = (object == this);
+
+        if (!equal && object instanceof InjectorOptions) {
+            InjectorOptions other = (InjectorOptions) object;
+            equal = this.stage == other.stage && this.disableCircularProxies == other.disableCircularProxies
+                    && this.requireExplicitBindings == other.requireExplicitBindings
+                    && this.requireAtInjectOnConstructors == other.requireAtInjectOnConstructors;
+        }
+
+        return equal;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return format("InjectorOptions[stage=%s, disableCircularProxies=%s, requireExplicitBindings=%s, "
+                + "requireAtInjectOnConstructors=%s]", this.stage, this.disableCircularProxies,
+                this.requireExplicitBindings, this.requireAtInjectOnConstructors);
+    }
+
+}
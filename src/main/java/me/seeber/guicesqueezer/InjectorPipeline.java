@@ -0,0 +1,228 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.google.inject.Injector;
+
+/**
+ * Pipeline that builds the injectors for upcoming test methods in the background
+ *
+ * When the injector for a test method is taken from the pipeline, the injectors for the next test methods up to the
+ * look ahead depth are scheduled to be built on a background thread. If an injector could not be built, the failure is
+ * rethrown when the injector for its test method is taken, so it is reported for the correct test method.
+ *
+ * The pipeline must be used from a single thread.
+ */
+public class InjectorPipeline implements AutoCloseable {
+
+    /**
+     * Maximum look ahead depth
+     */
+    public static final int MAX_DEPTH = 4;
+
+    /**
+     * Test methods in the order they are run
+     */
+    private final List<Method> testMethods;
+
+    /**
+     * Index of each test method
+     */
+    private final Map<Method, Integer> testMethodIndexes;
+
+    /**
+     * Function used to build the injector for a test method
+     */
+    private final Function<Method, Injector> injectorFactory;
+
+    /**
+     * Number of test methods to build injectors for in advance
+     */
+    private final int depth;
+
+    /**
+     * Executor used to build injectors in the background
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Scheduled injectors by test method
+     */
+    private final Map<Method, Future<Injector>> scheduledInjectors;
+
+    /**
+     * Index of the next test method to schedule
+     */
+    private int nextIndex;
+
+    /**
+     * Create a new pipeline
+     *
+     * @param testMethods Test methods in the order they are run
+     * @param injectorFactory Function used to build the injector for a test method
+     * @param depth Number of test methods to build injectors for in advance, limited to {@value #MAX_DEPTH}
+     */
+    public InjectorPipeline(List<Method> testMethods, Function<Method, Injector> injectorFactory, int depth) {
+        this.testMethods = new ArrayList<>(testMethods);
+        this.testMethodIndexes = new HashMap<>();
+        this.injectorFactory = injectorFactory;
+        this.depth = Math.max(0, Math.min(depth, MAX_DEPTH));
+        this.scheduledInjectors = new HashMap<>();
+
+        for (int i = 0; i < this.testMethods.size(); ++i) {
+            this.testMethodIndexes.putIfAbsent(this.testMethods.get(i), i);
+        }
+
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "guice-squeezer-prebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Take the injector for a test method and schedule the injectors for the next test methods
+     *
+     * @param testMethod Test method
+     * @return Injector for the test method
+     */
+    public Injector take(Method testMethod) {
+        Integer index = this.testMethodIndexes.get(testMethod);
+
+        if (index == null) {
+            return this.injectorFactory.apply(testMethod);
+        }
+
+        discardScheduledInjectors(index);
+
+        Future<Injector> injectorFuture = this.scheduledInjectors.remove(testMethod);
+
+        if (this.nextIndex <= index) {
+            this.nextIndex = index + 1;
+        }
+
+        scheduleInjectors(index + this.depth);
+
+        if (injectorFuture == null) {
+            return this.injectorFactory.apply(testMethod);
+        }
+
+        try {
+            Injector injector = injectorFuture.get();
+            return injector;
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new IllegalStateException(format("Could not build injector for test method '%s'", testMethod), cause);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(format("Interrupted building injector for test method '%s'", testMethod),
+                    e);
+        }
+    }
+
+    /**
+     * Schedule injectors up to a test method
+     *
+     * @param lastIndex Index of the last test method to schedule
+     */
+    protected void scheduleInjectors(int lastIndex) {
+        while (this.nextIndex <= lastIndex && this.nextIndex < this.testMethods.size()) {
+            Method testMethod = this.testMethods.get(this.nextIndex);
+            Future<Injector> injectorFuture = this.executor.submit(() -> this.injectorFactory.apply(testMethod));
+            this.scheduledInjectors.put(testMethod, injectorFuture);
+            ++this.nextIndex;
+        }
+    }
+
+    /**
+     * Discard scheduled injectors of test methods that were skipped
+     *
+     * @param index Index of the current test method
+     */
+    protected void discardScheduledInjectors(int index) {
+        Iterator<Map.Entry<Method, Future<Injector>>> entries = this.scheduledInjectors.entrySet().iterator();
+
+        while (entries.hasNext()) {
+            Map.Entry<Method, Future<Injector>> entry = entries.next();
+
+            if (this.testMethodIndexes.get(entry.getKey()) < index) {
+                entry.getValue().cancel(true);
+                entries.remove();
+            }
+        }
+    }
+
+    /**
+     * Get the number of test methods to build injectors for in advance
+     *
+     * @return Look ahead depth
+     */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /**
+     * Cancel all scheduled injectors and stop the background thread
+     *
+     * @see java.lang.AutoCloseable#close()
+     */
+    @Override
+    public void close() {
+        for (Future<Injector> injectorFuture : this.scheduledInjectors.values()) {
+            injectorFuture.cancel(true);
+        }
+
+        this.scheduledInjectors.clear();
+        this.executor.shutdownNow();
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+/**
+ * Selection and creation of the strategies used to create injectors
+ */
+public final class InjectorStrategies {
+
+    /**
+     * Hide constructor of utility class
+     */
+    private InjectorStrategies() {
+    }
+
+    /**
+     * Get the class of the strategy used to create injectors for a test class
+     *
+     * The strategy is selected by the {@link UseInjectorStrategy} annotation of the test class. If the test class is
+     * not annotated, the strategy class can be set with the system property
+     * {@value GuiceSqueezer#INJECTOR_STRATEGY_PROPERTY}, and {@link DefaultInjectorStrategy} is used if the property is
+     * not set.
+     *
+     * @param testClass Test class
+     * @return Strategy class
+     */
+    public static Class<? extends InjectorStrategy> getStrategyClass(Class<?> testClass) {
+        UseInjectorStrategy annotation = testClass.getAnnotation(UseInjectorStrategy.class);
+
+        if (annotation != null) {
+            return annotation.value();
+        }
+
+        String strategyClassName = System.getProperty(GuiceSqueezer.INJECTOR_STRATEGY_PROPERTY);
+
+        if (strategyClassName != null) {
+            try {
+                Class<? extends InjectorStrategy> strategyClass = Class
+                        .forName(strategyClassName, true, testClass.getClassLoader())
+                        .asSubclass(InjectorStrategy.class);
+                return strategyClass;
+            }
+            catch (ClassNotFoundException | ClassCastException e) {
+                throw new IllegalArgumentException(
+                        format("Illegal injector strategy class '%s' in system property '%s'", strategyClassName,
+                                GuiceSqueezer.INJECTOR_STRATEGY_PROPERTY),
+                        e);
+            }
+        }
+
+        return DefaultInjectorStrategy.class;
+    }
+
+    /**
+     * Create a strategy used to create injectors
+     *
+     * @param strategyClass Strategy class
+     * @param composition Composition used to create the modules
+     * @return Injector strategy
+     */
+    public static InjectorStrategy createStrategy(Class<? extends InjectorStrategy> strategyClass,
+            TestComposition composition) {
+        try {
+            InjectorStrategy strategy = strategyClass.getConstructor(TestComposition.class).newInstance(composition);
+            return strategy;
+        }
+        catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(
+                    format("Could not create injector strategy '%s'", strategyClass.getName()), e);
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+
+import com.google.inject.Injector;
+
+/**
+ * Strategy that determines how the injectors for test methods are created
+ *
+ * Implementations must have a public constructor that takes the {@link TestComposition} used to create the modules.
+ */
+public interface InjectorStrategy {
+
+    /**
+     * Get the injector for a test method
+     *
+     * @param testClass Test class
+     * @param testMethod Test method
+     * @return Injector for the test method
+     */
+    public Injector createInjector(Class<?> testClass, Method testMethod);
+
+    /**
+     * Check if the test methods of a class share a class level injector
+     *
+     * Objects bound in {@link ClassScoped} can only be used if the class level injector is kept, since each injector
+     * creates its own class scoped objects.
+     *
+     * @return <code>true</code> if the test methods share a class level injector
+     */
+    public default boolean isClassInjectorKept() {
+        return false;
+    }
+
+    /**
+     * Release all state kept for a test class after all its test methods have been run
+     *
+     * @param testClass Test class
+     */
+    public default void releaseTestClass(Class<?> testClass) {
+        // Nothing to release by default
+    }
+
+}
@@ -27,7 +27,12 @@
  */
 package me.seeber.guicesqueezer;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Optional;
 
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.Statement;
@@ -37,7 +42,8 @@ import com.google.inject.Injector;
 /**
  * Statement that invokes a test method with parameters
  *
- * The parameters are resolved using the supplied {@link Injector} before calling the method.
+ * The parameters are resolved using the supplied {@link Injector} before calling the method. If a method handle is
+ * supplied, the test method is called through the handle instead of using reflection.
  */
 public class InvokeWithParametersStatement extends Statement {
 
@@ -61,6 +67,12 @@ public class InvokeWithParametersStatement extends Statement {
      */
     private final Injector injector;
 
+    /**
+     * Method handle that calls the test method with the arguments passed as array, or empty to call
+     * {@link FrameworkMethod#invokeExplosively(Object, Object...)}
+     */
+    private final Optional<MethodHandle> invoker;
+
     /**
      * Create a new statement
      *
@@ -73,19 +85,80 @@ public class InvokeWithParametersStatement extends Statement {
             Object target,
             ArgumentResolver argumentResolver,
             Injector injector) {
+        this(testMethod, target, argumentResolver, injector, Optional.empty());
+    }
+
+    /**
+     * Create a new statement that calls the test method with a method handle
+     *
+     * @param testMethod Test method to call
+     * @param target Test object
+     * @param argumentResolver Resolver used to resolve method parameters
+     * @param injector Injector to resolve parameters
+     * @param invoker Method handle created by {@link #createInvoker(FrameworkMethod)}, or empty to call
+     *            {@link FrameworkMethod#invokeExplosively(Object, Object...)}
+     */
+    public InvokeWithParametersStatement(FrameworkMethod testMethod,
+            Object target,
+            ArgumentResolver argumentResolver,
+            Injector injector,
+            Optional<MethodHandle> invoker) {
         this.testMethod = testMethod;
         this.target = target;
         this.argumentResolver = argumentResolver;
         this.injector = injector;
+        this.invoker = invoker;
+    }
+
+    /**
+     * Create a method handle that calls a test method with the arguments passed as array
+     *
+     * The handle takes the test object and the argument array, and throws exceptions of the test method unwrapped like
+     * {@link FrameworkMethod#invokeExplosively(Object, Object...)}. No handle is created for subclasses of
+     * {@link FrameworkMethod}, since they may change how the method is invoked.
+     *
+     * @param testMethod Test method
+     * @return Method handle, or empty if the test method cannot be called with a method handle
+     */
+    public static Optional<MethodHandle> createInvoker(FrameworkMethod testMethod) {
+        Method method = testMethod.getMethod();
+
+        if (testMethod.getClass() != FrameworkMethod.class || (method.getModifiers() & Modifier.STATIC) != 0) {
+            return Optional.empty();
+        }
+
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflect(method);
+            MethodHandle invoker = handle.asSpreader(Object[].class, method.getParameterCount())
+                    .asType(MethodType.methodType(void.class, Object.class, Object[].class));
+            return Optional.of(invoker);
+        }
+        catch (IllegalAccessException e) {
+            return Optional.empty();
+        }
     }
 
     /**
      * @see org.junit.runners.model.Statement#evaluate()
      */
     @Override
+    @SuppressWarnings("try")
     public void evaluate() throws Throwable {
+        SqueezerMetrics metrics = SqueezerMetrics.getDefault();
         Method method = this.testMethod.getMethod();
-        Object[] parameters = this.argumentResolver.resolveArguments(method, this.injector);
-        this.testMethod.invokeExplosively(this.target, parameters);
+        Object[] parameters;
+
+        try (SqueezerMetrics.Timer timer = metrics.time(Phase.RESOLVE_ARGUMENTS)) {
+            parameters = this.argumentResolver.resolveArguments(method, this.injector);
+        }
+
+        try (SqueezerMetrics.Timer timer = metrics.time(Phase.TEST_BODY)) {
+            if (this.invoker.isPresent()) {
+                this.invoker.get().invokeExact(this.target, parameters);
+            }
+            else {
+                this.testMethod.invokeExplosively(this.target, parameters);
+            }
+        }
     }
 }
@@ -0,0 +1,345 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.internal.AssumptionViolatedException;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Injector;
+
+/**
+ * Statement that invokes a test method once for each data row
+ *
+ * The rows are pulled one at a time from the stream, iterator or iterable returned by the row source. The values of a
+ * row are passed as the first arguments of the test method, the remaining arguments are resolved with the supplied
+ * {@link Injector} once for all rows. Failing rows do not stop the remaining rows, all failures are reported together
+ * after the last row, up to {@link #MAX_REPORTED_FAILURES}. Virtual machine errors and interrupts stop the remaining
+ * rows immediately. Rows that violate an assumption are skipped, the test is skipped if all rows were skipped.
+ */
+public class InvokeWithRowsStatement extends Statement {
+
+    /**
+     * Maximum number of row failures that are reported individually
+     */
+    public static final int MAX_REPORTED_FAILURES = 100;
+
+    /**
+     * Test method to call
+     */
+    private final FrameworkMethod testMethod;
+
+    /**
+     * Method that provides the rows
+     */
+    private final FrameworkMethod rowSource;
+
+    /**
+     * Test object
+     */
+    private final Object target;
+
+    /**
+     * Resolver used to resolve method parameters
+     */
+    private final ArgumentResolver argumentResolver;
+
+    /**
+     * Injector to resolve parameters
+     */
+    private final Injector injector;
+
+    /**
+     * Method handle that calls the test method with the arguments passed as array, or empty to call
+     * {@link FrameworkMethod#invokeExplosively(Object, Object...)}
+     */
+    private final Optional<MethodHandle> invoker;
+
+    /**
+     * Create a new statement
+     *
+     * @param testMethod Test method to call
+     * @param rowSource Method that provides the rows
+     * @param target Test object
+     * @param argumentResolver Resolver used to resolve method parameters
+     * @param injector Injector to resolve parameters
+     * @param invoker Method handle created by {@link InvokeWithParametersStatement#createInvoker(FrameworkMethod)}, or
+     *            empty to call {@link FrameworkMethod#invokeExplosively(Object, Object...)}
+     */
+    public InvokeWithRowsStatement(FrameworkMethod testMethod,
+            FrameworkMethod rowSource,
+            Object target,
+            ArgumentResolver argumentResolver,
+            Injector injector,
+            Optional<MethodHandle> invoker) {
+        this.testMethod = testMethod;
+        this.rowSource = rowSource;
+        this.target = target;
+        this.argumentResolver = argumentResolver;
+        this.injector = injector;
+        this.invoker = invoker;
+    }
+
+    /**
+     * @see org.junit.runners.model.Statement#evaluate()
+     */
+    @Override
+    public void evaluate() throws Throwable {
+        Object rows = getRows();
+
+        try {
+            invokeRows(toIterator(rows));
+        }
+        finally {
+            if (rows instanceof AutoCloseable) {
+                ((AutoCloseable) rows).close();
+            }
+        }
+    }
+
+    /**
+     * Get the rows from the row source
+     *
+     * @return Stream, iterator or iterable with the rows
+     * @throws Throwable if the row source fails
+     */
+    @SuppressWarnings("try")
+    protected Object getRows() throws Throwable {
+        Method method = this.rowSource.getMethod();
+        Object[] parameters;
+
+        try (SqueezerMetrics.Timer timer = SqueezerMetrics.getDefault().time(Phase.RESOLVE_ARGUMENTS)) {
+            parameters = this.argumentResolver.resolveArguments(method, this.injector);
+        }
+
+        Object rowTarget = (method.getModifiers() & Modifier.STATIC) != 0 ? null : this.target;
+        Object rows = this.rowSource.invokeExplosively(rowTarget, parameters);
+
+        if (rows == null) {
+            throw new IllegalArgumentException(format("Row source '%s' returned null", method));
+        }
+
+        return rows;
+    }
+
+    /**
+     * Invoke the test method for each row
+     *
+     * @param rows Rows
+     * @throws Throwable if one or more rows failed, or an assumption violation if all rows were skipped
+     */
+    @SuppressWarnings("try")
+    protected void invokeRows(Iterator<?> rows) throws Throwable {
+        Method method = this.testMethod.getMethod();
+        List<Throwable> failures = new ArrayList<>();
+        int unreportedFailures = 0;
+        long index = 0;
+        long skippedRows = 0;
+        @Nullable AssumptionViolatedException lastSkip = null;
+        int injectedOffset = -1;
+        Object[] injectedArguments = new Object[0];
+
+        try (SqueezerMetrics.Timer timer = SqueezerMetrics.getDefault().time(Phase.TEST_BODY)) {
+            while (rows.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException(format("Interrupted before row %d", index));
+                }
+
+                Object row = rows.next();
+                @Nullable Object[] values = toValues(row, method);
+
+                try {
+                    if (values.length > method.getParameterCount()) {
+                        throw new IllegalArgumentException(format("Row has %d values, but test method '%s' only has "
+                                + "%d parameters", values.length, method, method.getParameterCount()));
+                    }
+
+                    if (values.length != injectedOffset) {
+                        injectedArguments = resolveInjectedArguments(values.length);
+                        injectedOffset = values.length;
+                    }
+
+                    Object[] arguments = new Object[method.getParameterCount()];
+                    System.arraycopy(values, 0, arguments, 0, values.length);
+                    System.arraycopy(injectedArguments, 0, arguments, values.length, injectedArguments.length);
+
+                    invoke(arguments);
+                }
+                catch (AssumptionViolatedException e) {
+                    // Skip rows that do not match the assumptions of the test
+                    ++skippedRows;
+                    lastSkip = e;
+                }
+                catch (Throwable t) {
+                    if (isFatal(t)) {
+                        throw t;
+                    }
+
+                    if (failures.size() < MAX_REPORTED_FAILURES) {
+                        failures.add(new AssertionError(
+                                format("Row %d %s failed: %s", index, Arrays.deepToString(values), t), t));
+                    }
+                    else {
+                        ++unreportedFailures;
+                    }
+                }
+
+                ++index;
+            }
+        }
+
+        if (unreportedFailures > 0) {
+            failures.add(new AssertionError(format("%d more rows failed", unreportedFailures)));
+        }
+
+        MultipleFailureException.assertEmpty(failures);
+
+        if (skippedRows > 0 && skippedRows == index) {
+            throw new org.junit.AssumptionViolatedException(format("All %d rows were skipped", index), lastSkip);
+        }
+    }
+
+    /**
+     * Get the values of a row
+     *
+     * A row of type <code>Object[]</code> is spread over the first parameters of the test method. Other arrays are
+     * only spread if the first parameter is not an array, so a row like a <code>String[]</code> is passed as a single
+     * value to a first parameter of an array type. All other rows are passed as a single value.
+     *
+     * @param row Row
+     * @param method Test method
+     * @return Values of the row
+     */
+    protected static @Nullable Object[] toValues(@Nullable Object row, Method method) {
+        boolean spread = row instanceof Object[] && (row.getClass() == Object[].class
+                || method.getParameterCount() == 0 || !method.getParameterTypes()[0].isArray());
+        @Nullable Object[] values = spread ? (Object[]) row : new Object[] { row };
+        return values;
+    }
+
+    /**
+     * Check if a failure must stop the remaining rows instead of being reported with the row
+     *
+     * @param t Failure of a row
+     * @return <code>true</code> if the failure is a virtual machine error or an interrupt
+     */
+    protected static boolean isFatal(Throwable t) {
+        boolean fatal = t instanceof VirtualMachineError || t instanceof ThreadDeath
+                || t instanceof InterruptedException;
+        return fatal;
+    }
+
+    /**
+     * Resolve the arguments of the test method that are not provided by the rows
+     *
+     * @param offset Index of the first argument that is not provided by the rows
+     * @return Resolved arguments
+     */
+    @SuppressWarnings("try")
+    protected Object[] resolveInjectedArguments(int offset) {
+        Method method = this.testMethod.getMethod();
+        Object[] arguments = new Object[method.getParameterCount() - offset];
+
+        try (SqueezerMetrics.Timer timer = SqueezerMetrics.getDefault().time(Phase.RESOLVE_ARGUMENTS)) {
+            for (int i = 0; i < arguments.length; ++i) {
+                arguments[i] = this.argumentResolver.resolveArgument(method, offset + i, this.injector);
+            }
+        }
+
+        return arguments;
+    }
+
+    /**
+     * Invoke the test method for a single row
+     *
+     * @param arguments Arguments of the test method
+     * @throws Throwable if the test method fails
+     */
+    protected void invoke(Object[] arguments) throws Throwable {
+        if (this.invoker.isPresent()) {
+            this.invoker.get().invokeExact(this.target, arguments);
+        }
+        else {
+            this.testMethod.invokeExplosively(this.target, arguments);
+        }
+    }
+
+    /**
+     * Get an iterator for the rows returned by the row source
+     *
+     * @param rows Stream, iterator or iterable with the rows
+     * @return Iterator for the rows
+     * @throws IllegalArgumentException if the rows have an unsupported type
+     */
+    protected Iterator<?> toIterator(Object rows) throws IllegalArgumentException {
+        Iterator<?> iterator;
+
+        if (rows instanceof Stream) {
+            iterator = ((Stream<?>) rows).iterator();
+        }
+        else if (rows instanceof Iterator) {
+            iterator = (Iterator<?>) rows;
+        }
+        else if (rows instanceof Iterable) {
+            iterator = ((Iterable<?>) rows).iterator();
+        }
+        else {
+            throw new IllegalArgumentException(
+                    format("Row source '%s' must return a Stream, Iterator or Iterable", this.rowSource.getMethod()));
+        }
+
+        return iterator;
+    }
+
+    /**
+     * Check if a type can be returned by a row source
+     *
+     * @param type Return type of the row source
+     * @return <code>true</code> if the type is supported
+     */
+    public static boolean isRowsType(Class<?> type) {
+        boolean supported = Stream.class.isAssignableFrom(type) || Iterator.class.isAssignableFrom(type)
+                || Iterable.class.isAssignableFrom(type);
+        return supported;
+    }
+
+}
@@ -0,0 +1,202 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.PrivateElements;
+import com.google.inject.spi.ScopeBinding;
+import com.google.inject.util.Modules;
+
+/**
+ * Module that combines a list of layers, where each layer overrides the bindings of the layers before it
+ *
+ * The result is the same as nesting {@link Modules#override(Module...)} for each layer, but the elements of all layers
+ * are only recorded once. Bindings are overridden by their {@link Key}, scope bindings by their scope annotation, and
+ * all other elements are kept. The effective elements are then applied to the binder as one flat module.
+ *
+ * Overriding a key exposed by a private module requires rewriting the private module. If any layer contains a private
+ * module and the layers bind the same keys, the layers are nested using {@link Modules#override(Module...)} instead.
+ */
+public class LayeredModule implements Module {
+
+    /**
+     * Layers of the module, later layers override earlier layers
+     */
+    private final List<Module> layers;
+
+    /**
+     * Create a new layered module
+     *
+     * @param layers Layers of the module, later layers override earlier layers
+     */
+    public LayeredModule(List<Module> layers) {
+        this.layers = Collections.unmodifiableList(new ArrayList<>(layers));
+    }
+
+    /**
+     * @see com.google.inject.Module#configure(com.google.inject.Binder)
+     */
+    @Override
+    public void configure(Binder binder) {
+        List<List<Element>> layerElements = new ArrayList<>(this.layers.size());
+        boolean flattenable = true;
+
+        for (Module layer : this.layers) {
+            List<Element> elements = Elements.getElements(binder.currentStage(), layer);
+            flattenable &= elements.stream().noneMatch(e -> e instanceof PrivateElements);
+            layerElements.add(elements);
+        }
+
+        if (!flattenable) {
+            flattenable = !hasConflicts(binder.currentStage(), layerElements);
+        }
+
+        if (flattenable) {
+            for (List<Element> elements : flatten(layerElements)) {
+                for (Element element : elements) {
+                    element.applyTo(binder);
+                }
+            }
+        }
+        else {
+            binder.install(nest());
+        }
+    }
+
+    /**
+     * Remove overridden elements from each layer
+     *
+     * The layers are processed from the last to the first one, so each element only has to be checked against the
+     * keys and scopes bound by the layers after it.
+     *
+     * @param layerElements Elements of each layer
+     * @return Effective elements of each layer
+     */
+    protected List<List<Element>> flatten(List<List<Element>> layerElements) {
+        List<List<Element>> effectiveElements = new ArrayList<>(layerElements.size());
+        Set<Key<?>> overriddenKeys = new HashSet<>();
+        Set<Class<? extends Annotation>> overriddenScopes = new HashSet<>();
+
+        for (int i = layerElements.size() - 1; i >= 0; --i) {
+            List<Element> elements = new ArrayList<>();
+            Set<Key<?>> boundKeys = new HashSet<>();
+            Set<Class<? extends Annotation>> boundScopes = new HashSet<>();
+
+            for (Element element : layerElements.get(i)) {
+                if (element instanceof Binding) {
+                    Key<?> key = ((Binding<?>) element).getKey();
+
+                    if (overriddenKeys.contains(key)) {
+                        continue;
+                    }
+
+                    boundKeys.add(key);
+                }
+                else if (element instanceof ScopeBinding) {
+                    Class<? extends Annotation> scope = ((ScopeBinding) element).getAnnotationType();
+
+                    if (overriddenScopes.contains(scope)) {
+                        continue;
+                    }
+
+                    boundScopes.add(scope);
+                }
+
+                elements.add(element);
+            }
+
+            overriddenKeys.addAll(boundKeys);
+            overriddenScopes.addAll(boundScopes);
+            effectiveElements.add(elements);
+        }
+
+        Collections.reverse(effectiveElements);
+        return effectiveElements;
+    }
+
+    /**
+     * Check if any layer binds a key or scope annotation that is also bound or exposed by another layer
+     *
+     * @param stage Stage used to record the layers
+     * @param layerElements Elements of each layer
+     * @return <code>true</code> if the layers conflict
+     */
+    protected boolean hasConflicts(Stage stage, List<List<Element>> layerElements) {
+        List<ModuleOverrides.BoundKeys> layerKeys = new ArrayList<>(layerElements.size());
+
+        for (List<Element> elements : layerElements) {
+            ModuleOverrides.BoundKeys keys = new ModuleOverrides.BoundKeys(stage, elements);
+
+            if (layerKeys.stream().anyMatch(k -> k.conflictsWith(keys))) {
+                return true;
+            }
+
+            layerKeys.add(keys);
+        }
+
+        return false;
+    }
+
+    /**
+     * Nest the layers using {@link Modules#override(Module...)}
+     *
+     * @return Module with nested layers
+     */
+    protected Module nest() {
+        Module module = Modules.EMPTY_MODULE;
+
+        for (Module layer : this.layers) {
+            module = Modules.override(module).with(layer);
+        }
+
+        return module;
+    }
+
+    /**
+     * Get the layers of the module
+     *
+     * @return Layers of the module, later layers override earlier layers
+     */
+    public List<Module> getLayers() {
+        return this.layers;
+    }
+
+}
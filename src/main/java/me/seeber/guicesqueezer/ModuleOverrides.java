@@ -0,0 +1,274 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.PrivateElements;
+import com.google.inject.spi.ScopeBinding;
+import com.google.inject.util.Modules;
+
+/**
+ * Overrides modules, but only uses {@link Modules#override(Module...)} if the modules actually bind the same keys
+ *
+ * {@link Modules#override(Module...)} records and rewrites all elements of both modules, even if the overriding module
+ * does not bind any key of the overridden module. If the keys bound by both modules are disjoint, the modules are
+ * combined instead. If the overriding module is empty, the overridden module is used unchanged.
+ *
+ * The bound keys of each module instance are kept, so modules that are reused, e.g. by the
+ * {@link CachingTestComposition}, are only recorded once.
+ */
+public class ModuleOverrides {
+
+    /**
+     * Default overrides
+     */
+    private static final ModuleOverrides DEFAULT_OVERRIDES = new ModuleOverrides();
+
+    /**
+     * Keys and scope annotations bound by a module
+     */
+    protected static class BoundKeys {
+
+        /**
+         * Stage used to record the module
+         */
+        private final Stage stage;
+
+        /**
+         * Flag if the module does not contain any elements
+         */
+        private final boolean empty;
+
+        /**
+         * Keys bound or exposed by the module
+         */
+        private final Set<Key<?>> keys;
+
+        /**
+         * Scope annotations bound by the module
+         */
+        private final Set<Class<? extends Annotation>> scopes;
+
+        /**
+         * Create the bound keys of a module
+         *
+         * @param stage Stage used to record the module
+         * @param elements Elements of the module
+         */
+        public BoundKeys(Stage stage, List<Element> elements) {
+            Set<Key<?>> keys = new HashSet<>();
+            Set<Class<? extends Annotation>> scopes = new HashSet<>();
+
+            for (Element element : elements) {
+                if (element instanceof Binding) {
+                    keys.add(((Binding<?>) element).getKey());
+                }
+                else if (element instanceof PrivateElements) {
+                    keys.addAll(((PrivateElements) element).getExposedKeys());
+                }
+                else if (element instanceof ScopeBinding) {
+                    scopes.add(((ScopeBinding) element).getAnnotationType());
+                }
+            }
+
+            this.stage = stage;
+            this.empty = elements.isEmpty();
+            this.keys = keys;
+            this.scopes = scopes;
+        }
+
+        /**
+         * Check if the module binds any key or scope annotation that is also bound by another module
+         *
+         * @param other Bound keys of the other module
+         * @return <code>true</code> if the modules conflict
+         */
+        public boolean conflictsWith(BoundKeys other) {
+            boolean conflict = !Collections.disjoint(this.keys, other.keys)
+                    || !Collections.disjoint(this.scopes, other.scopes);
+            return conflict;
+        }
+
+        /**
+         * Get the stage used to record the module
+         *
+         * @return Stage used to record the module
+         */
+        public Stage getStage() {
+            return this.stage;
+        }
+
+        /**
+         * Check if the module does not contain any elements
+         *
+         * @return <code>true</code> if the module is empty
+         */
+        public boolean isEmpty() {
+            return this.empty;
+        }
+
+    }
+
+    /**
+     * Recorded module together with the module to use instead of the original module
+     */
+    protected static class Recording {
+
+        /**
+         * Keys bound by the module
+         */
+        private final BoundKeys boundKeys;
+
+        /**
+         * Module to use instead of the original module
+         */
+        private final Module module;
+
+        /**
+         * Create a new recording
+         *
+         * @param boundKeys Keys bound by the module
+         * @param module Module to use instead of the original module
+         */
+        public Recording(BoundKeys boundKeys, Module module) {
+            this.boundKeys = boundKeys;
+            this.module = module;
+        }
+
+        /**
+         * Get the keys bound by the module
+         *
+         * @return Keys bound by the module
+         */
+        public BoundKeys getBoundKeys() {
+            return this.boundKeys;
+        }
+
+        /**
+         * Get the module to use instead of the original module
+         *
+         * @return Module to use
+         */
+        public Module getModule() {
+            return this.module;
+        }
+
+    }
+
+    /**
+     * Bound keys by module instance
+     */
+    private final Map<Module, BoundKeys> boundKeys;
+
+    /**
+     * Create new overrides
+     */
+    public ModuleOverrides() {
+        this.boundKeys = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    /**
+     * Get the default overrides
+     *
+     * @return Default overrides
+     */
+    public static ModuleOverrides getDefault() {
+        return DEFAULT_OVERRIDES;
+    }
+
+    /**
+     * Override the bindings of a module
+     *
+     * @param stage Stage of the injector the module is used for
+     * @param module Module whose bindings are overridden
+     * @param overrides Module with overriding bindings
+     * @return Module with overridden bindings
+     */
+    public Module override(Stage stage, Module module, Module overrides) {
+        if (overrides == Modules.EMPTY_MODULE) {
+            return module;
+        }
+
+        Recording overridesRecording = record(stage, overrides);
+
+        if (overridesRecording.getBoundKeys().isEmpty()) {
+            return module;
+        }
+
+        Recording moduleRecording = record(stage, module);
+        Module overriddenModule;
+
+        if (moduleRecording.getBoundKeys().conflictsWith(overridesRecording.getBoundKeys())) {
+            overriddenModule = Modules.override(moduleRecording.getModule()).with(overridesRecording.getModule());
+        }
+        else {
+            overriddenModule = Modules.combine(moduleRecording.getModule(), overridesRecording.getModule());
+        }
+
+        return overriddenModule;
+    }
+
+    /**
+     * Get the keys bound by a module, recording the module if the keys are not known yet
+     *
+     * If the module is recorded, the recorded elements are returned as the module to use, so the module does not have
+     * to be configured again. Since recorded elements can only be used for one injector, they are not kept.
+     *
+     * @param stage Stage of the injector the module is used for
+     * @param module Module to record
+     * @return Recording of the module
+     */
+    protected Recording record(Stage stage, Module module) {
+        BoundKeys keys = this.boundKeys.get(module);
+
+        if (keys != null && keys.getStage() == stage) {
+            return new Recording(keys, module);
+        }
+
+        List<Element> elements = Elements.getElements(stage, module);
+        keys = new BoundKeys(stage, elements);
+        this.boundKeys.put(module, keys);
+
+        Recording recording = new Recording(keys, Elements.getModule(elements));
+        return recording;
+    }
+
+}
@@ -0,0 +1,227 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.google.inject.Binding;
+import com.google.inject.Module;
+import com.google.inject.spi.DefaultElementVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.InjectionRequest;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.MembersInjectorLookup;
+import com.google.inject.spi.Message;
+import com.google.inject.spi.PrivateElements;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProviderLookup;
+
+/**
+ * Recorder that records the elements of a module once and replays them instead of configuring the module again
+ *
+ * Modules are identified by a key, e.g. the module class or the factory method that creates the module. When a module
+ * is requested for the first time, it is created and its elements are recorded. Later requests return a module that
+ * replays the recorded elements without creating or configuring the module again.
+ *
+ * Elements that are bound to a single injector cannot be replayed, e.g. provider lookups, injection requests, private
+ * modules and instances or provider instances with injectable members. Modules that contain such elements are created
+ * and configured again for each request.
+ *
+ * The default recorder used by {@link DefaultTestComposition} is disabled unless the system property
+ * {@value #REPLAY_MODULES_PROPERTY} is set to <code>true</code>.
+ */
+public class ModuleRecorder {
+
+    /**
+     * System property that enables the default recorder
+     */
+    public static final String REPLAY_MODULES_PROPERTY = "guicesqueezer.replayModules";
+
+    /**
+     * Default recorder
+     */
+    private static final ModuleRecorder DEFAULT_RECORDER = new ModuleRecorder(
+            Boolean.getBoolean(REPLAY_MODULES_PROPERTY));
+
+    /**
+     * Visitor that checks if an element can be replayed
+     */
+    protected static class ReplayableVisitor extends DefaultElementVisitor<Boolean> {
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.Binding)
+         */
+        @Override
+        public <T> Boolean visit(Binding<T> binding) {
+            boolean replayable = true;
+
+            if (binding instanceof InstanceBinding) {
+                replayable = ((InstanceBinding<T>) binding).getInjectionPoints().isEmpty();
+            }
+            else if (binding instanceof ProviderInstanceBinding) {
+                replayable = ((ProviderInstanceBinding<T>) binding).getInjectionPoints().isEmpty();
+            }
+
+            return replayable;
+        }
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.spi.ProviderLookup)
+         */
+        @Override
+        public <T> Boolean visit(ProviderLookup<T> lookup) {
+            return false;
+        }
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.spi.MembersInjectorLookup)
+         */
+        @Override
+        public <T> Boolean visit(MembersInjectorLookup<T> lookup) {
+            return false;
+        }
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.spi.InjectionRequest)
+         */
+        @Override
+        public Boolean visit(InjectionRequest<?> injectionRequest) {
+            return false;
+        }
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.spi.PrivateElements)
+         */
+        @Override
+        public Boolean visit(PrivateElements privateElements) {
+            return false;
+        }
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visit(com.google.inject.spi.Message)
+         */
+        @Override
+        public Boolean visit(Message message) {
+            return false;
+        }
+
+        /**
+         * @see com.google.inject.spi.DefaultElementVisitor#visitOther(com.google.inject.spi.Element)
+         */
+        @Override
+        protected Boolean visitOther(Element element) {
+            return true;
+        }
+
+    }
+
+    /**
+     * Flag if the recorder is enabled
+     */
+    private final boolean enabled;
+
+    /**
+     * Recorded elements by module key, or an empty optional if the module cannot be replayed
+     */
+    private final ConcurrentMap<Object, Optional<List<Element>>> recordings;
+
+    /**
+     * Create a new recorder
+     *
+     * @param enabled Flag if the recorder is enabled
+     */
+    public ModuleRecorder(boolean enabled) {
+        this.enabled = enabled;
+        this.recordings = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the default recorder
+     *
+     * @return Default recorder
+     */
+    public static ModuleRecorder getDefault() {
+        return DEFAULT_RECORDER;
+    }
+
+    /**
+     * Get a module, replaying the recorded elements if possible
+     *
+     * @param key Key that identifies the module
+     * @param moduleFactory Factory used to create the module if it has not been recorded or cannot be replayed
+     * @return Module
+     */
+    public Module getModule(Object key, Supplier<Module> moduleFactory) {
+        if (!this.enabled) {
+            return moduleFactory.get();
+        }
+
+        Optional<List<Element>> recording = this.recordings.get(key);
+
+        if (recording == null) {
+            Module module = moduleFactory.get();
+            List<Element> elements = Elements.getElements(module);
+            ReplayableVisitor replayableVisitor = new ReplayableVisitor();
+            boolean replayable = elements.stream().allMatch(e -> e.acceptVisitor(replayableVisitor));
+
+            if (!replayable) {
+                this.recordings.putIfAbsent(key, Optional.empty());
+                return module;
+            }
+
+            recording = Optional.of(Collections.unmodifiableList(elements));
+            this.recordings.putIfAbsent(key, recording);
+        }
+
+        Module module = recording.isPresent() ? Elements.getModule(recording.get()) : moduleFactory.get();
+        return module;
+    }
+
+    /**
+     * Check if the recorder is enabled
+     *
+     * @return <code>true</code> if the recorder is enabled
+     */
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    /**
+     * Remove all recorded elements
+     */
+    public void clear() {
+        this.recordings.clear();
+    }
+
+}
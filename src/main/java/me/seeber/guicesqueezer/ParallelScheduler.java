@@ -0,0 +1,133 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.runners.model.RunnerScheduler;
+
+/**
+ * Scheduler that runs test methods in parallel on a work stealing pool
+ *
+ * The pool is created when the first test method is scheduled and shut down after all test methods have finished.
+ */
+public class ParallelScheduler implements RunnerScheduler {
+
+    /**
+     * Number of threads used to run test methods
+     */
+    private final int threads;
+
+    /**
+     * Pool used to run test methods
+     */
+    @Nullable
+    private ForkJoinPool pool;
+
+    /**
+     * Scheduled test methods
+     */
+    private final List<ForkJoinTask<?>> tasks;
+
+    /**
+     * Create a new scheduler
+     *
+     * @param threads Number of threads used to run test methods
+     */
+    public ParallelScheduler(int threads) {
+        this.threads = threads;
+        this.tasks = new ArrayList<>();
+    }
+
+    /**
+     * @see org.junit.runners.model.RunnerScheduler#schedule(java.lang.Runnable)
+     */
+    @Override
+    public void schedule(@Nullable Runnable childStatement) {
+        ForkJoinPool pool = this.pool;
+
+        if (pool == null) {
+            pool = new ForkJoinPool(this.threads);
+            this.pool = pool;
+        }
+
+        this.tasks.add(pool.submit(childStatement));
+    }
+
+    /**
+     * Wait for all scheduled test methods to finish
+     *
+     * If test methods fail outside of their statements, e.g. because their injector cannot be created, the first
+     * failure is rethrown after all test methods have finished.
+     *
+     * @see org.junit.runners.model.RunnerScheduler#finished()
+     */
+    @Override
+    public void finished() {
+        try {
+            RuntimeException failure = null;
+
+            for (ForkJoinTask<?> task : this.tasks) {
+                try {
+                    task.join();
+                }
+                catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        finally {
+            this.tasks.clear();
+
+            if (this.pool != null) {
+                this.pool.shutdown();
+                this.pool = null;
+            }
+        }
+    }
+
+    /**
+     * Get the number of threads used to run test methods
+     *
+     * @return Number of threads
+     */
+    public int getThreads() {
+        return this.threads;
+    }
+
+}
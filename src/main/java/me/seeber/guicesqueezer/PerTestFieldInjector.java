@@ -0,0 +1,169 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+
+/**
+ * Injector for the fields of a test class that are annotated with {@link PerTest}
+ *
+ * The fields and their keys are computed once per test class. The providers for the keys are looked up once per
+ * injector, so injecting the fields of a test object again with the same injector only calls the providers.
+ */
+public class PerTestFieldInjector {
+
+    /**
+     * Providers bound by an injector
+     */
+    protected static class BoundProviders {
+
+        /**
+         * Injector the providers are bound by
+         */
+        private final Injector injector;
+
+        /**
+         * Provider for each field
+         */
+        private final Provider<?>[] providers;
+
+        /**
+         * Create new bound providers
+         *
+         * @param injector Injector the providers are bound by
+         * @param providers Provider for each field
+         */
+        public BoundProviders(Injector injector, Provider<?>[] providers) {
+            this.injector = injector;
+            this.providers = providers;
+        }
+
+    }
+
+    /**
+     * Fields annotated with {@link PerTest}
+     */
+    private final Field[] fields;
+
+    /**
+     * Key of each field
+     */
+    private final Key<?>[] keys;
+
+    /**
+     * Providers bound by the injector the fields were last injected with
+     */
+    @Nullable
+    private volatile BoundProviders boundProviders;
+
+    /**
+     * Create a new field injector
+     *
+     * @param testClass Test class
+     * @param annotationInspector Annotation inspector used to find the qualifiers of the fields
+     * @throws IllegalArgumentException if a field annotated with {@link PerTest} is static or not injected
+     */
+    public PerTestFieldInjector(Class<?> testClass, AnnotationInspector annotationInspector)
+            throws IllegalArgumentException {
+        List<Field> fields = new ArrayList<>();
+        List<Key<?>> keys = new ArrayList<>();
+
+        for (Class<?> c = testClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (field.isAnnotationPresent(PerTest.class)) {
+                    if ((field.getModifiers() & Modifier.STATIC) != 0) {
+                        throw new IllegalArgumentException(format("Field '%s' annotated with '%s' must not be static.",
+                                field, PerTest.class.getSimpleName()));
+                    }
+
+                    if (!field.isAnnotationPresent(Inject.class)
+                            && !field.isAnnotationPresent(javax.inject.Inject.class)) {
+                        throw new IllegalArgumentException(format("Field '%s' annotated with '%s' must be injected.",
+                                field, PerTest.class.getSimpleName()));
+                    }
+
+                    Optional<Annotation> qualifier = annotationInspector.getQualifier(field);
+                    Key<?> key = qualifier.isPresent() ? Key.get(field.getGenericType(), qualifier.get())
+                            : Key.get(field.getGenericType());
+
+                    field.setAccessible(true);
+                    fields.add(field);
+                    keys.add(key);
+                }
+            }
+        }
+
+        this.fields = fields.toArray(new Field[fields.size()]);
+        this.keys = keys.toArray(new Key<?>[keys.size()]);
+    }
+
+    /**
+     * Inject the fields of a test object
+     *
+     * @param test Test object
+     * @param injector Injector used to inject the fields
+     */
+    public void injectMembers(Object test, Injector injector) {
+        BoundProviders bound = this.boundProviders;
+
+        if (bound == null || bound.injector != injector) {
+            Provider<?>[] providers = new Provider<?>[this.keys.length];
+
+            for (int i = 0; i < providers.length; ++i) {
+                providers[i] = injector.getProvider(this.keys[i]);
+            }
+
+            bound = new BoundProviders(injector, providers);
+            this.boundProviders = bound;
+        }
+
+        for (int i = 0; i < this.fields.length; ++i) {
+            try {
+                this.fields[i].set(test, bound.providers[i].get());
+            }
+            catch (IllegalAccessException e) {
+                throw new IllegalStateException(format("Could not inject field '%s'", this.fields[i]), e);
+            }
+        }
+    }
+
+}
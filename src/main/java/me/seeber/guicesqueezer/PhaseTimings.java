@@ -0,0 +1,137 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall and CPU time spent in each {@link Phase}
+ *
+ * Timings can be added from several threads, e.g. when test methods run in parallel.
+ */
+public class PhaseTimings {
+
+    /**
+     * Wall time in nanoseconds by phase ordinal, guarded by this
+     */
+    private final long[] wallTimes;
+
+    /**
+     * CPU time in nanoseconds by phase ordinal, guarded by this
+     */
+    private final long[] cpuTimes;
+
+    /**
+     * Create new empty timings
+     */
+    public PhaseTimings() {
+        this.wallTimes = new long[Phase.values().length];
+        this.cpuTimes = new long[Phase.values().length];
+    }
+
+    /**
+     * Add time spent in a phase
+     *
+     * @param phase Phase
+     * @param wallTime Wall time in nanoseconds
+     * @param cpuTime CPU time in nanoseconds
+     */
+    public synchronized void add(Phase phase, long wallTime, long cpuTime) {
+        this.wallTimes[phase.ordinal()] += wallTime;
+        this.cpuTimes[phase.ordinal()] += cpuTime;
+    }
+
+    /**
+     * Add the times of other timings
+     *
+     * @param timings Timings to add
+     */
+    public void add(PhaseTimings timings) {
+        for (Phase phase : Phase.values()) {
+            add(phase, timings.getWallTime(phase), timings.getCpuTime(phase));
+        }
+    }
+
+    /**
+     * Get the wall time spent in a phase
+     *
+     * @param phase Phase
+     * @return Wall time in nanoseconds
+     */
+    public synchronized long getWallTime(Phase phase) {
+        return this.wallTimes[phase.ordinal()];
+    }
+
+    /**
+     * Get the CPU time spent in a phase
+     *
+     * @param phase Phase
+     * @return CPU time in nanoseconds, or 0 if the JVM does not measure CPU time
+     */
+    public synchronized long getCpuTime(Phase phase) {
+        return this.cpuTimes[phase.ordinal()];
+    }
+
+    /**
+     * Get the total wall time spent in all phases
+     *
+     * @return Wall time in nanoseconds
+     */
+    public synchronized long getTotalWallTime() {
+        long total = 0;
+
+        for (long wallTime : this.wallTimes) {
+            total += wallTime;
+        }
+
+        return total;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+
+        for (Phase phase : Phase.values()) {
+            if (text.length() > 0) {
+                text.append(", ");
+            }
+
+            long wallTime = TimeUnit.NANOSECONDS.toMillis(getWallTime(phase));
+            long cpuTime = TimeUnit.NANOSECONDS.toMillis(getCpuTime(phase));
+            text.append(format("%s %d/%d ms", phase.name().toLowerCase(), wallTime, cpuTime));
+        }
+
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+
+/**
+ * Flight recorder event emitted for work done by the runner
+ *
+ * Events are created by {@link SqueezerEvents}, which returns an event that does nothing if flight recording is not
+ * available or the event type is disabled. The event starts when it is created and ends when it is closed.
+ */
+public interface SqueezerEvent extends AutoCloseable {
+
+    /**
+     * Check if the event is recorded
+     *
+     * Use this to avoid computing expensive fields if the event is not recorded.
+     *
+     * @return <code>true</code> if the event is recorded
+     */
+    public boolean isRecording();
+
+    /**
+     * Set the test class
+     *
+     * @param testClass Test class
+     * @return This event
+     */
+    public SqueezerEvent setTestClass(Class<?> testClass);
+
+    /**
+     * Set the test method or provider method
+     *
+     * @param method Method
+     * @return This event
+     */
+    public SqueezerEvent setMethod(Method method);
+
+    /**
+     * Set the number of modules
+     *
+     * @param moduleCount Number of modules
+     * @return This event
+     */
+    public SqueezerEvent setModuleCount(int moduleCount);
+
+    /**
+     * Set the number of bindings
+     *
+     * @param bindingCount Number of bindings
+     * @return This event
+     */
+    public SqueezerEvent setBindingCount(int bindingCount);
+
+    /**
+     * End and commit the event
+     *
+     * @see java.lang.AutoCloseable#close()
+     */
+    @Override
+    public void close();
+
+}
@@ -0,0 +1,192 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+
+import me.seeber.guicesqueezer.jfr.FlightRecorderEvents;
+
+/**
+ * Factory for flight recorder events emitted by the runner
+ *
+ * If the JVM does not support flight recording or an event type is not enabled in the current recording, the factory
+ * returns an event that does nothing. Flight recording can be turned off completely with the system property
+ * {@value #DISABLED_PROPERTY}.
+ */
+public final class SqueezerEvents {
+
+    /**
+     * System property that turns off flight recorder events
+     */
+    public static final String DISABLED_PROPERTY = "guicesqueezer.jfr.disabled";
+
+    /**
+     * Event that does nothing
+     */
+    protected static class DisabledEvent implements SqueezerEvent {
+
+        /**
+         * @see me.seeber.guicesqueezer.SqueezerEvent#isRecording()
+         */
+        @Override
+        public boolean isRecording() {
+            return false;
+        }
+
+        /**
+         * @see me.seeber.guicesqueezer.SqueezerEvent#setTestClass(java.lang.Class)
+         */
+        @Override
+        public SqueezerEvent setTestClass(Class<?> testClass) {
+            return this;
+        }
+
+        /**
+         * @see me.seeber.guicesqueezer.SqueezerEvent#setMethod(java.lang.reflect.Method)
+         */
+        @Override
+        public SqueezerEvent setMethod(Method method) {
+            return this;
+        }
+
+        /**
+         * @see me.seeber.guicesqueezer.SqueezerEvent#setModuleCount(int)
+         */
+        @Override
+        public SqueezerEvent setModuleCount(int moduleCount) {
+            return this;
+        }
+
+        /**
+         * @see me.seeber.guicesqueezer.SqueezerEvent#setBindingCount(int)
+         */
+        @Override
+        public SqueezerEvent setBindingCount(int bindingCount) {
+            return this;
+        }
+
+        /**
+         * @see me.seeber.guicesqueezer.SqueezerEvent#close()
+         */
+        @Override
+        public void close() {
+            // Nothing to do
+        }
+
+    }
+
+    /**
+     * Event that does nothing
+     */
+    public static final SqueezerEvent NONE = new DisabledEvent();
+
+    /**
+     * <code>true</code> if flight recorder events are available
+     */
+    private static final boolean AVAILABLE = checkAvailable();
+
+    /**
+     * Hide constructor of factory class
+     */
+    private SqueezerEvents() {
+    }
+
+    /**
+     * Check if flight recorder events are available
+     *
+     * @return <code>true</code> if the JVM supports flight recording and events are not turned off
+     */
+    private static boolean checkAvailable() {
+        if (Boolean.getBoolean(DISABLED_PROPERTY)) {
+            return false;
+        }
+
+        try {
+            Class.forName("jdk.jfr.Event");
+            return FlightRecorderEvents.isAvailable();
+        }
+        catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Check if flight recorder events are available
+     *
+     * @return <code>true</code> if the JVM supports flight recording and events are not turned off
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Begin an event for creating the class level module of a test class
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginComposeModule() {
+        return AVAILABLE ? FlightRecorderEvents.beginComposeModule() : NONE;
+    }
+
+    /**
+     * Begin an event for updating the injector of a test method
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginUpdateInjector() {
+        return AVAILABLE ? FlightRecorderEvents.beginUpdateInjector() : NONE;
+    }
+
+    /**
+     * Begin an event for calling a provider method
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginProvision() {
+        return AVAILABLE ? FlightRecorderEvents.beginProvision() : NONE;
+    }
+
+    /**
+     * Begin an event for resolving the arguments of a method
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginResolveArguments() {
+        return AVAILABLE ? FlightRecorderEvents.beginResolveArguments() : NONE;
+    }
+
+    /**
+     * Begin an event for running a test method in a request scope
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginRequestScope() {
+        return AVAILABLE ? FlightRecorderEvents.beginRequestScope() : NONE;
+    }
+
+}
@@ -0,0 +1,324 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Collects the time spent in each {@link Phase} of running a test method and publishes it to listeners
+ *
+ * Timings are only collected while at least one {@link SqueezerMetricsListener} is registered. Phases are attributed
+ * to the test method that is currently run on the measuring thread, so injectors built in advance on a background
+ * thread are not included.
+ *
+ * If the system property {@value #REPORT_PROPERTY} is set, the default metrics used by {@link GuiceSqueezer} register
+ * an {@link AggregatingMetricsListener} that writes its report to the file named by the property when the JVM exits.
+ * The report includes the hits, misses and evictions of the default {@link InjectorCache} if it is enabled.
+ * Additional listeners can be registered with the system property {@value #LISTENERS_PROPERTY}, which contains a comma
+ * separated list of listener classes with a public default constructor.
+ */
+public class SqueezerMetrics {
+
+    /**
+     * System property that contains the file the default metrics write their report to
+     */
+    public static final String REPORT_PROPERTY = "guicesqueezer.metrics.report";
+
+    /**
+     * System property that contains the listener classes of the default metrics
+     */
+    public static final String LISTENERS_PROPERTY = "guicesqueezer.metrics.listeners";
+
+    /**
+     * Timer that measures the time spent in a phase
+     */
+    public static class Timer implements AutoCloseable {
+
+        /**
+         * Timings to add the measured time to, or <code>null</code> if nothing is measured
+         */
+        @Nullable
+        private final PhaseTimings timings;
+
+        /**
+         * Measured phase
+         */
+        private final Phase phase;
+
+        /**
+         * Wall time when the timer was started
+         */
+        private final long wallStart;
+
+        /**
+         * CPU time when the timer was started
+         */
+        private final long cpuStart;
+
+        /**
+         * Create and start a new timer
+         *
+         * @param timings Timings to add the measured time to, or <code>null</code> if nothing is measured
+         * @param phase Measured phase
+         */
+        protected Timer(@Nullable PhaseTimings timings, Phase phase) {
+            this.timings = timings;
+            this.phase = phase;
+            this.wallStart = timings != null ? System.nanoTime() : 0;
+            this.cpuStart = timings != null ? getCurrentThreadCpuTime() : 0;
+        }
+
+        /**
+         * Stop the timer and add the measured time
+         *
+         * @see java.lang.AutoCloseable#close()
+         */
+        @Override
+        public void close() {
+            PhaseTimings timings = this.timings;
+
+            if (timings != null) {
+                timings.add(this.phase, System.nanoTime() - this.wallStart,
+                        getCurrentThreadCpuTime() - this.cpuStart);
+            }
+        }
+
+    }
+
+    /**
+     * Timer that does not measure anything
+     */
+    private static final Timer NO_TIMER = new Timer(null, Phase.TEST_BODY);
+
+    /**
+     * Bean used to measure CPU time, or <code>null</code> if the JVM does not support it
+     */
+    @Nullable
+    private static final ThreadMXBean THREAD_BEAN = createThreadBean();
+
+    /**
+     * Default metrics
+     */
+    private static final SqueezerMetrics DEFAULT_METRICS = createDefaultMetrics();
+
+    /**
+     * Registered listeners
+     */
+    private final List<SqueezerMetricsListener> listeners;
+
+    /**
+     * Timings of the test method currently run by each thread
+     */
+    private final ThreadLocal<@Nullable PhaseTimings> currentTimings;
+
+    /**
+     * Create new metrics without listeners
+     */
+    public SqueezerMetrics() {
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.currentTimings = new ThreadLocal<>();
+    }
+
+    /**
+     * Get the default metrics used by {@link GuiceSqueezer}
+     *
+     * @return Default metrics
+     */
+    public static SqueezerMetrics getDefault() {
+        return DEFAULT_METRICS;
+    }
+
+    /**
+     * Create the default metrics and register the listeners configured by system properties
+     *
+     * @return Default metrics
+     */
+    private static SqueezerMetrics createDefaultMetrics() {
+        SqueezerMetrics metrics = new SqueezerMetrics();
+
+        String reportFile = System.getProperty(REPORT_PROPERTY, "").trim();
+
+        if (!reportFile.isEmpty()) {
+            AggregatingMetricsListener listener = new AggregatingMetricsListener(InjectorCache.getDefault());
+            metrics.addListener(listener);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    listener.writeReport(Paths.get(reportFile));
+                }
+                catch (IOException e) {
+                    throw new UncheckedIOException(format("Could not write metrics report to '%s'", reportFile), e);
+                }
+            }, "guice-squeezer-metrics-report"));
+        }
+
+        String listenerClassNames = System.getProperty(LISTENERS_PROPERTY, "");
+
+        for (String listenerClassName : listenerClassNames.split(",")) {
+            listenerClassName = listenerClassName.trim();
+
+            if (!listenerClassName.isEmpty()) {
+                try {
+                    SqueezerMetricsListener listener = Class.forName(listenerClassName)
+                            .asSubclass(SqueezerMetricsListener.class).getConstructor().newInstance();
+                    metrics.addListener(listener);
+                }
+                catch (ReflectiveOperationException | ClassCastException e) {
+                    throw new IllegalArgumentException(
+                            format("Illegal metrics listener class '%s' in system property '%s'", listenerClassName,
+                                    LISTENERS_PROPERTY),
+                            e);
+                }
+            }
+        }
+
+        return metrics;
+    }
+
+    /**
+     * Create the bean used to measure CPU time
+     *
+     * @return Thread bean, or <code>null</code> if the JVM does not measure CPU time
+     */
+    private static @Nullable ThreadMXBean createThreadBean() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        return threadBean.isCurrentThreadCpuTimeSupported() ? threadBean : null;
+    }
+
+    /**
+     * Get the CPU time of the current thread
+     *
+     * @return CPU time in nanoseconds, or 0 if the JVM does not measure CPU time
+     */
+    protected static long getCurrentThreadCpuTime() {
+        ThreadMXBean threadBean = THREAD_BEAN;
+        long cpuTime = threadBean != null ? threadBean.getCurrentThreadCpuTime() : 0;
+        return Math.max(cpuTime, 0);
+    }
+
+    /**
+     * Register a listener
+     *
+     * @param listener Listener to register
+     */
+    public void addListener(SqueezerMetricsListener listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * Remove a registered listener
+     *
+     * @param listener Listener to remove
+     */
+    public void removeListener(SqueezerMetricsListener listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Check if timings are collected
+     *
+     * @return <code>true</code> if at least one listener is registered
+     */
+    public boolean isEnabled() {
+        return !this.listeners.isEmpty();
+    }
+
+    /**
+     * Start collecting the timings of a test method on the current thread
+     *
+     * @return Timings of the test method, or an empty optional if timings are not collected
+     */
+    public Optional<PhaseTimings> startTestMethod() {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+
+        PhaseTimings timings = new PhaseTimings();
+        this.currentTimings.set(timings);
+        return Optional.of(timings);
+    }
+
+    /**
+     * Stop collecting the timings of a test method on the current thread and publish them to the listeners
+     *
+     * @param testClass Test class
+     * @param testMethod Test method
+     * @param timings Timings of the test method
+     */
+    public void finishTestMethod(Class<?> testClass, Method testMethod, PhaseTimings timings) {
+        this.currentTimings.remove();
+
+        for (SqueezerMetricsListener listener : this.listeners) {
+            listener.testMethodFinished(testClass, testMethod, timings);
+        }
+    }
+
+    /**
+     * Publish the timings of a test class to the listeners
+     *
+     * @param testClass Test class
+     * @param timings Timings summed over all test methods of the class
+     */
+    public void finishTestClass(Class<?> testClass, PhaseTimings timings) {
+        for (SqueezerMetricsListener listener : this.listeners) {
+            listener.testClassFinished(testClass, timings);
+        }
+    }
+
+    /**
+     * Start a timer for a phase of the test method currently run on this thread
+     *
+     * If no test method is run on this thread or timings are not collected, a shared timer that does not measure
+     * anything is returned.
+     *
+     * @param phase Phase to measure
+     * @return Started timer, must be closed when the phase is finished
+     */
+    public Timer time(Phase phase) {
+        PhaseTimings timings = this.currentTimings.get();
+
+        if (timings == null) {
+            return NO_TIMER;
+        }
+
+        Timer timer = new Timer(timings, phase);
+        return timer;
+    }
+
+}
@@ -0,0 +1,61 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+
+/**
+ * Listener that receives the phase timings of test methods and test classes
+ *
+ * Listeners are registered with {@link SqueezerMetrics#addListener(SqueezerMetricsListener)}. Since test methods may
+ * run in parallel, listeners must be thread safe.
+ */
+public interface SqueezerMetricsListener {
+
+    /**
+     * Called after a test method has been run
+     *
+     * @param testClass Test class
+     * @param testMethod Test method
+     * @param timings Time spent in each phase of the test method
+     */
+    public default void testMethodFinished(Class<?> testClass, Method testMethod, PhaseTimings timings) {
+        // Nothing to do by default
+    }
+
+    /**
+     * Called after all test methods of a test class have been run
+     *
+     * @param testClass Test class
+     * @param timings Time spent in each phase summed over all test methods of the class
+     */
+    public default void testClassFinished(Class<?> testClass, PhaseTimings timings) {
+        // Nothing to do by default
+    }
+
+}
@@ -0,0 +1,99 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import com.google.inject.Module;
+
+/**
+ * Cache of module instances for module classes and module factory methods annotated with {@link StatelessModule}
+ *
+ * Modules are identified by a key, e.g. the module class or the factory method that creates the module. The module is
+ * created when it is requested for the first time, later requests return the same instance.
+ */
+public class StatelessModules {
+
+    /**
+     * Default cache
+     */
+    private static final StatelessModules DEFAULT_MODULES = new StatelessModules();
+
+    /**
+     * Module instances by module key
+     */
+    private final ConcurrentMap<Object, Module> modules;
+
+    /**
+     * Create a new cache
+     */
+    public StatelessModules() {
+        this.modules = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the default cache
+     *
+     * @return Default cache
+     */
+    public static StatelessModules getDefault() {
+        return DEFAULT_MODULES;
+    }
+
+    /**
+     * Get a module, creating it if it has not been created before
+     *
+     * @param key Key that identifies the module
+     * @param moduleFactory Factory used to create the module
+     * @return Module
+     */
+    public Module getModule(Object key, Supplier<Module> moduleFactory) {
+        Module module = this.modules.get(key);
+
+        if (module == null) {
+            Module createdModule = moduleFactory.get();
+            module = this.modules.putIfAbsent(key, createdModule);
+
+            if (module == null) {
+                module = createdModule;
+            }
+        }
+
+        return module;
+    }
+
+    /**
+     * Remove all module instances
+     */
+    public void clear() {
+        this.modules.clear();
+    }
+
+}
@@ -0,0 +1,266 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.Module;
+import com.google.inject.Provides;
+
+import me.seeber.guicesqueezer.java.Argument;
+
+/**
+ * Immutable model of the module sources a test class declares
+ *
+ * The nested classes and methods of a test class are scanned once, the model is kept with the test class. It only
+ * contains the elements declared by the class itself, superclasses have their own model.
+ */
+public final class TestClassMetadata {
+
+    /**
+     * Suffix appended to the name of a test class to get the name of the binding module generated at compile time
+     */
+    public static final String GENERATED_MODULE_SUFFIX = "_BindingModule";
+
+    /**
+     * Metadata of each test class
+     */
+    private static final ClassValue<TestClassMetadata> METADATA = new ClassValue<TestClassMetadata>() {
+        /**
+         * @see java.lang.ClassValue#computeValue(java.lang.Class)
+         */
+        @Override
+        protected TestClassMetadata computeValue(@Nullable Class<?> type) {
+            return new TestClassMetadata(Argument.notNull(type, "type"));
+        }
+    };
+
+    /**
+     * Test class
+     */
+    private final Class<?> testClass;
+
+    /**
+     * Nested static classes that implement {@link Module}
+     */
+    private final List<Class<? extends Module>> moduleClasses;
+
+    /**
+     * Static methods without parameters that return a {@link Module}
+     */
+    private final List<Method> factoryMethods;
+
+    /**
+     * Nested classes annotated with {@link Bind}
+     */
+    private final List<Class<?>> boundClasses;
+
+    /**
+     * Methods annotated with {@link Provides}
+     */
+    private final List<Method> providerMethods;
+
+    /**
+     * Binding module generated at compile time for the bound classes and provider methods
+     */
+    private final Optional<Class<? extends Module>> generatedModuleClass;
+
+    /**
+     * Create new metadata by scanning a test class
+     *
+     * @param testClass Test class
+     */
+    private TestClassMetadata(Class<?> testClass) {
+        List<Class<? extends Module>> moduleClasses = new ArrayList<>();
+        List<Method> factoryMethods = new ArrayList<>();
+        List<Class<?>> boundClasses = new ArrayList<>();
+        List<Method> providerMethods = new ArrayList<>();
+
+        for (Class<?> nestedClass : testClass.getDeclaredClasses()) {
+            if ((nestedClass.getModifiers() & Modifier.STATIC) != 0 && Module.class.isAssignableFrom(nestedClass)) {
+                moduleClasses.add(nestedClass.asSubclass(Module.class));
+            }
+
+            if (nestedClass.getAnnotation(Bind.class) != null) {
+                boundClasses.add(nestedClass);
+            }
+        }
+
+        for (Method method : testClass.getDeclaredMethods()) {
+            if ((method.getModifiers() & Modifier.STATIC) != 0 && method.getParameterCount() == 0
+                    && Module.class.isAssignableFrom(method.getReturnType())) {
+                factoryMethods.add(method);
+            }
+
+            if (method.getAnnotation(Provides.class) != null) {
+                providerMethods.add(method);
+            }
+        }
+
+        this.testClass = testClass;
+        this.moduleClasses = Collections.unmodifiableList(moduleClasses);
+        this.factoryMethods = Collections.unmodifiableList(factoryMethods);
+        this.boundClasses = Collections.unmodifiableList(boundClasses);
+        this.providerMethods = Collections.unmodifiableList(providerMethods);
+        this.generatedModuleClass = boundClasses.isEmpty() && providerMethods.isEmpty() ? Optional.empty()
+                : findGeneratedModuleClass(testClass);
+    }
+
+    /**
+     * Find the binding module generated at compile time for a test class
+     *
+     * The generated module is a top level class in the package of the test class, named after the test class and its
+     * enclosing classes joined by underscores, followed by {@value #GENERATED_MODULE_SUFFIX}. Underscores in the
+     * class names are replaced with <code>_1</code>, so different test classes never map to the same module. Local and
+     * anonymous classes have no generated module.
+     *
+     * @param testClass Test class
+     * @return Generated module class, or an empty optional if no module was generated
+     */
+    private static Optional<Class<? extends Module>> findGeneratedModuleClass(Class<?> testClass) {
+        StringBuilder moduleName = new StringBuilder();
+
+        for (Class<?> type = testClass; type != null; type = type.getDeclaringClass()) {
+            if (type.isLocalClass() || type.isAnonymousClass()) {
+                return Optional.empty();
+            }
+
+            if (type != testClass) {
+                moduleName.insert(0, '_');
+            }
+
+            moduleName.insert(0, type.getSimpleName().replace("_", "_1"));
+        }
+
+        if (testClass.getPackage() != null && !testClass.getPackage().getName().isEmpty()) {
+            moduleName.insert(0, '.').insert(0, testClass.getPackage().getName());
+        }
+
+        moduleName.append(GENERATED_MODULE_SUFFIX);
+
+        try {
+            Class<?> moduleClass = Class.forName(moduleName.toString(), false, testClass.getClassLoader());
+            Optional<Class<? extends Module>> generatedModuleClass = Module.class.isAssignableFrom(moduleClass)
+                    ? Optional.of(moduleClass.asSubclass(Module.class))
+                    : Optional.empty();
+            return generatedModuleClass;
+        }
+        catch (ClassNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Get the metadata of a test class
+     *
+     * @param testClass Test class
+     * @return Metadata of the test class
+     */
+    public static TestClassMetadata of(Class<?> testClass) {
+        TestClassMetadata metadata = METADATA.get(testClass);
+        return metadata;
+    }
+
+    /**
+     * Get the fingerprint layer of the elements declared by the test class
+     *
+     * @return Set containing all module classes, factory methods, bound classes and provider methods
+     */
+    public Set<Object> getFingerprintLayer() {
+        Set<Object> layer = new HashSet<>();
+        layer.addAll(this.moduleClasses);
+        layer.addAll(this.factoryMethods);
+        layer.addAll(this.boundClasses);
+        layer.addAll(this.providerMethods);
+        return layer;
+    }
+
+    /**
+     * Get the test class
+     *
+     * @return Test class
+     */
+    public Class<?> getTestClass() {
+        return this.testClass;
+    }
+
+    /**
+     * Get the nested static classes that implement {@link Module}
+     *
+     * @return Module classes
+     */
+    public List<Class<? extends Module>> getModuleClasses() {
+        return this.moduleClasses;
+    }
+
+    /**
+     * Get the static methods without parameters that return a {@link Module}
+     *
+     * @return Factory methods
+     */
+    public List<Method> getFactoryMethods() {
+        return this.factoryMethods;
+    }
+
+    /**
+     * Get the nested classes annotated with {@link Bind}
+     *
+     * @return Bound classes
+     */
+    public List<Class<?>> getBoundClasses() {
+        return this.boundClasses;
+    }
+
+    /**
+     * Get the methods annotated with {@link Provides}
+     *
+     * @return Provider methods
+     */
+    public List<Method> getProviderMethods() {
+        return this.providerMethods;
+    }
+
+    /**
+     * Get the binding module generated at compile time for the bound classes and provider methods
+     *
+     * @return Generated module class, or an empty optional if no module was generated
+     */
+    public Optional<Class<? extends Module>> getGeneratedModuleClass() {
+        return this.generatedModuleClass;
+    }
+
+}
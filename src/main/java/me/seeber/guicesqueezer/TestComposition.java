@@ -29,6 +29,7 @@ package me.seeber.guicesqueezer;
 
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.Statement;
@@ -57,6 +58,32 @@ public interface TestComposition {
      */
     public Module createTestMethodModule(Method testMethod);
 
+    /**
+     * Create the fingerprint of the class level module
+     *
+     * Two test classes with equal fingerprints must have equivalent class level modules. The default implementation
+     * returns no fingerprint, which means the module cannot be compared.
+     *
+     * @param testClass Test class
+     * @return Fingerprint of the class level module
+     */
+    public default Optional<CompositionFingerprint> createTestClassFingerprint(Class<?> testClass) {
+        return Optional.empty();
+    }
+
+    /**
+     * Create the fingerprint of the method level module
+     *
+     * Two test methods with equal fingerprints must have equivalent method level modules. The default implementation
+     * returns no fingerprint, which means the module cannot be compared.
+     *
+     * @param testMethod Test method
+     * @return Fingerprint of the method level module
+     */
+    public default Optional<CompositionFingerprint> createTestMethodFingerprint(Method testMethod) {
+        return Optional.empty();
+    }
+
     /**
      * Validate test methods
      *
@@ -77,4 +104,34 @@ public interface TestComposition {
      */
     public Statement createInvocationStatement(FrameworkMethod testMethod, Object test, Injector injector);
 
+    /**
+     * Create a statement that invokes a test method once for each data row
+     *
+     * The default implementation resolves parameters with the default argument resolver.
+     *
+     * @param testMethod Test method
+     * @param rowSource Method that provides the rows
+     * @param test Test object
+     * @param injector Injector to create objects
+     * @return Invocation statement
+     */
+    public default Statement createRowsInvocationStatement(FrameworkMethod testMethod,
+            FrameworkMethod rowSource,
+            Object test,
+            Injector injector) {
+        ArgumentResolver argumentResolver = DefaultArgumentResolver.getDefault();
+        Statement statement = new InvokeWithRowsStatement(testMethod, rowSource, test, argumentResolver, injector,
+                InvokeWithParametersStatement.createInvoker(testMethod));
+        return statement;
+    }
+
+    /**
+     * Release all state kept for a test class after all its test methods have been run
+     *
+     * @param testClass Test class
+     */
+    public default void releaseTestClass(Class<?> testClass) {
+        // Nothing to release by default
+    }
+
 }
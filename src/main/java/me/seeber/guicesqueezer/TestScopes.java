@@ -0,0 +1,427 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static java.lang.String.format;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.Key;
+import com.google.inject.OutOfScopeException;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+
+/**
+ * Scopes for objects that live as long as a test class or a test method
+ *
+ * The scopes are bound to {@link ClassScoped} and {@link TestScoped} by the {@link TestScopesModule}. A test method is
+ * run inside a context entered with {@link #enterTest(Class)}, which provides the current test class and the test
+ * scoped objects of the current thread. Class scoped objects are kept by test class and binding until
+ * {@link #releaseTestClass(Class)} is called. They are shared by all test methods of the class that use the same
+ * injector or child injectors of it, while test methods with their own injectors get their own objects.
+ *
+ * Class scoped objects that implement {@link TestResettable} are reset when the last running test method of the class
+ * is left, so test methods running in parallel do not see objects being reset while they use them.
+ *
+ * If a test method is entered with {@link #enterTest(Class, boolean)} and the injector strategy of the test class does
+ * not keep a class level injector, class scoped objects cannot be used, since they would be created again for each
+ * test method.
+ */
+public class TestScopes {
+
+    /**
+     * Class scoped objects of a test class
+     */
+    protected static class ClassObjects {
+
+        /**
+         * Class scoped objects by scoped binding
+         */
+        private final ConcurrentMap<Object, Object> objects;
+
+        /**
+         * Number of test methods of the test class that are currently running
+         */
+        private int runningTests;
+
+        /**
+         * Create new class objects
+         */
+        public ClassObjects() {
+            this.objects = new ConcurrentHashMap<>();
+        }
+
+        /**
+         * Enter a test method of the test class
+         */
+        public synchronized void enterTest() {
+            ++this.runningTests;
+        }
+
+        /**
+         * Leave a test method of the test class, and reset the class scoped objects if no other test method is running
+         */
+        public synchronized void leaveTest() {
+            if (--this.runningTests == 0) {
+                for (Object object : this.objects.values()) {
+                    if (object instanceof TestResettable) {
+                        ((TestResettable) object).reset();
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Context of a single test method
+     */
+    public class Context implements AutoCloseable {
+
+        /**
+         * Test class
+         */
+        private final Class<?> testClass;
+
+        /**
+         * Class scoped objects of the test class
+         */
+        private final ClassObjects classObjects;
+
+        /**
+         * <code>true</code> if class scoped objects can be used
+         */
+        private final boolean classScopeEnabled;
+
+        /**
+         * Test scoped objects
+         */
+        private final Map<Key<?>, Object> objects;
+
+        /**
+         * Context that was active when this context was entered, e.g. when a test runs tests itself
+         */
+        private final @Nullable Context previousContext;
+
+        /**
+         * Create a new context
+         *
+         * @param testClass Test class
+         * @param classObjects Class scoped objects of the test class
+         * @param classScopeEnabled <code>true</code> if class scoped objects can be used
+         * @param previousContext Context that was active when this context was entered
+         */
+        protected Context(Class<?> testClass, ClassObjects classObjects, boolean classScopeEnabled,
+                @Nullable Context previousContext) {
+            this.testClass = testClass;
+            this.classObjects = classObjects;
+            this.classScopeEnabled = classScopeEnabled;
+            this.objects = new HashMap<>();
+            this.previousContext = previousContext;
+        }
+
+        /**
+         * Leave the test method, discard the test scoped objects and reset the class scoped objects if no other test
+         * method of the class is running
+         *
+         * @see java.lang.AutoCloseable#close()
+         */
+        @Override
+        public void close() {
+            if (this.previousContext != null) {
+                TestScopes.this.currentContext.set(this.previousContext);
+            }
+            else {
+                TestScopes.this.currentContext.remove();
+            }
+
+            this.objects.clear();
+            this.classObjects.leaveTest();
+        }
+
+        /**
+         * Get the test class
+         *
+         * @return Test class
+         */
+        public Class<?> getTestClass() {
+            return this.testClass;
+        }
+
+    }
+
+    /**
+     * Placeholder for objects that were provided as <code>null</code>
+     */
+    private static final Object NULL_OBJECT = new Object();
+
+    /**
+     * Default scopes
+     */
+    private static final TestScopes DEFAULT_SCOPES = new TestScopes();
+
+    /**
+     * Context of the test method run by the current thread
+     */
+    private final ThreadLocal<@Nullable Context> currentContext;
+
+    /**
+     * Class scoped objects by test class
+     */
+    private final ConcurrentMap<Class<?>, ClassObjects> classObjects;
+
+    /**
+     * Scope bound to {@link ClassScoped}
+     */
+    private final Scope classScope;
+
+    /**
+     * Scope bound to {@link TestScoped}
+     */
+    private final Scope testScope;
+
+    /**
+     * Create new scopes
+     */
+    public TestScopes() {
+        this.currentContext = new ThreadLocal<>();
+        this.classObjects = new ConcurrentHashMap<>();
+        this.classScope = new Scope() {
+            @Override
+            public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+                Provider<T> scoped = new Provider<T>() {
+                    @Override
+                    public T get() {
+                        return getClassObject(this, key, unscoped);
+                    }
+
+                    @Override
+                    public String toString() {
+                        return format("%s[TestScopes.CLASS]", unscoped);
+                    }
+                };
+
+                return scoped;
+            }
+
+            @Override
+            public String toString() {
+                return "TestScopes.CLASS";
+            }
+        };
+        this.testScope = new Scope() {
+            @Override
+            public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+                return () -> getTestObject(key, unscoped);
+            }
+
+            @Override
+            public String toString() {
+                return "TestScopes.TEST";
+            }
+        };
+    }
+
+    /**
+     * Get the default scopes
+     *
+     * @return Default scopes
+     */
+    public static TestScopes getDefault() {
+        return DEFAULT_SCOPES;
+    }
+
+    /**
+     * Enter a test method on the current thread
+     *
+     * If a test method is already active, e.g. because the test method runs tests itself, the active context is
+     * restored when the new context is closed.
+     *
+     * @param testClass Test class
+     * @return Context that leaves the test method when closed
+     */
+    public Context enterTest(Class<?> testClass) {
+        return enterTest(testClass, true);
+    }
+
+    /**
+     * Enter a test method on the current thread
+     *
+     * @param testClass Test class
+     * @param classInjectorKept <code>true</code> if the test methods of the class share a class level injector, which
+     *            is required to use class scoped objects
+     * @return Context that leaves the test method when closed
+     * @see InjectorStrategy#isClassInjectorKept()
+     */
+    public Context enterTest(Class<?> testClass, boolean classInjectorKept) {
+        ClassObjects classObjects = this.classObjects.computeIfAbsent(testClass, c -> new ClassObjects());
+        classObjects.enterTest();
+
+        Context context = new Context(testClass, classObjects, classInjectorKept, this.currentContext.get());
+        this.currentContext.set(context);
+        return context;
+    }
+
+    /**
+     * Discard the class scoped objects of a test class
+     *
+     * @param testClass Test class
+     */
+    public void releaseTestClass(Class<?> testClass) {
+        this.classObjects.remove(testClass);
+    }
+
+    /**
+     * Get the scope bound to {@link ClassScoped}
+     *
+     * @return Class scope
+     */
+    public Scope getClassScope() {
+        return this.classScope;
+    }
+
+    /**
+     * Get the scope bound to {@link TestScoped}
+     *
+     * @return Test scope
+     */
+    public Scope getTestScope() {
+        return this.testScope;
+    }
+
+    /**
+     * Get a class scoped object, creating it if it does not exist yet
+     *
+     * Objects are kept by scoped binding, which is created once per injector, so injectors do not share objects that
+     * were created with the bindings of another injector.
+     *
+     * @param binding Scoped binding of the object
+     * @param key Key of the object
+     * @param unscoped Provider used to create the object
+     * @return Class scoped object
+     * @throws OutOfScopeException if no test method is active, or the test class does not keep a class level injector
+     */
+    protected <T> T getClassObject(Object binding, Key<T> key, Provider<T> unscoped) throws OutOfScopeException {
+        Context context = getCurrentContext(key);
+
+        if (!context.classScopeEnabled) {
+            throw new OutOfScopeException(format("Cannot access class scoped object '%s', the injector strategy of "
+                    + "test class '%s' creates an injector for each test method. Use an injector strategy that keeps "
+                    + "a class level injector like '%s'.", key, context.testClass.getName(),
+                    ChildInjectorStrategy.class.getSimpleName()));
+        }
+
+        ConcurrentMap<Object, Object> objects = context.classObjects.objects;
+        Object object = objects.get(binding);
+
+        if (object == null) {
+            object = provide(unscoped);
+
+            if (!Scopes.isCircularProxy(object)) {
+                Object existingObject = objects.putIfAbsent(binding, object);
+
+                if (existingObject != null) {
+                    object = existingObject;
+                }
+            }
+        }
+
+        T scopedObject = unwrap(object);
+        return scopedObject;
+    }
+
+    /**
+     * Get a test scoped object, creating it if it does not exist yet
+     *
+     * @param key Key of the object
+     * @param unscoped Provider used to create the object
+     * @return Test scoped object
+     */
+    protected <T> T getTestObject(Key<T> key, Provider<T> unscoped) {
+        Context context = getCurrentContext(key);
+        Object object = context.objects.get(key);
+
+        if (object == null) {
+            object = provide(unscoped);
+
+            if (!Scopes.isCircularProxy(object)) {
+                context.objects.put(key, object);
+            }
+        }
+
+        T scopedObject = unwrap(object);
+        return scopedObject;
+    }
+
+    /**
+     * Get the context of the current thread
+     *
+     * @param key Key of the requested object
+     * @return Current context
+     * @throws OutOfScopeException if no test method is active
+     */
+    protected Context getCurrentContext(Key<?> key) throws OutOfScopeException {
+        Context context = this.currentContext.get();
+
+        if (context == null) {
+            throw new OutOfScopeException(format("Cannot access scoped object '%s', no test method is active", key));
+        }
+
+        return context;
+    }
+
+    /**
+     * Create an object with an unscoped provider
+     *
+     * @param unscoped Unscoped provider
+     * @return Created object, or {@link #NULL_OBJECT} if the provider returned <code>null</code>
+     */
+    private static Object provide(Provider<?> unscoped) {
+        Object object = unscoped.get();
+        return object != null ? object : NULL_OBJECT;
+    }
+
+    /**
+     * Unwrap a stored object
+     *
+     * @param object Stored object
+     * @return Object, or <code>null</code> if it is {@link #NULL_OBJECT}
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T unwrap(Object object) {
+        T unwrappedObject = (T) (object != NULL_OBJECT ? object : null);
+        return unwrappedObject;
+    }
+
+}
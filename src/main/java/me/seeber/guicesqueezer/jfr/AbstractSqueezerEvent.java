@@ -0,0 +1,125 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.jfr;
+
+import java.lang.reflect.Method;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import me.seeber.guicesqueezer.SqueezerEvent;
+
+/**
+ * Base class of flight recorder events emitted by the runner
+ */
+@Category("Guice Squeezer")
+public abstract class AbstractSqueezerEvent extends Event implements SqueezerEvent {
+
+    /**
+     * Test class
+     */
+    @Label("Test Class")
+    @Nullable
+    protected Class<?> testClass;
+
+    /**
+     * Test method or provider method
+     */
+    @Label("Method")
+    @Nullable
+    protected String method;
+
+    /**
+     * Number of modules
+     */
+    @Label("Module Count")
+    protected int moduleCount;
+
+    /**
+     * Number of bindings
+     */
+    @Label("Binding Count")
+    protected int bindingCount;
+
+    /**
+     * @see me.seeber.guicesqueezer.SqueezerEvent#isRecording()
+     */
+    @Override
+    public boolean isRecording() {
+        return isEnabled();
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.SqueezerEvent#setTestClass(java.lang.Class)
+     */
+    @Override
+    public SqueezerEvent setTestClass(Class<?> testClass) {
+        this.testClass = testClass;
+        return this;
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.SqueezerEvent#setMethod(java.lang.reflect.Method)
+     */
+    @Override
+    public SqueezerEvent setMethod(Method method) {
+        this.method = method.getName();
+        return this;
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.SqueezerEvent#setModuleCount(int)
+     */
+    @Override
+    public SqueezerEvent setModuleCount(int moduleCount) {
+        this.moduleCount = moduleCount;
+        return this;
+    }
+
+    /**
+     * @see me.seeber.guicesqueezer.SqueezerEvent#setBindingCount(int)
+     */
+    @Override
+    public SqueezerEvent setBindingCount(int bindingCount) {
+        this.bindingCount = bindingCount;
+        return this;
+    }
+
+    /**
+     * Commit the event, which also ends it
+     *
+     * @see me.seeber.guicesqueezer.SqueezerEvent#close()
+     */
+    @Override
+    public void close() {
+        commit();
+    }
+
+}
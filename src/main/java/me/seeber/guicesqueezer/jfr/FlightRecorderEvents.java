@@ -0,0 +1,161 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import me.seeber.guicesqueezer.SqueezerEvent;
+import me.seeber.guicesqueezer.SqueezerEvents;
+
+/**
+ * Factory for flight recorder events
+ *
+ * This class must only be used if the JVM supports flight recording. Use {@link SqueezerEvents} instead, which checks
+ * if flight recording is available.
+ *
+ * The event types are looked up once, so an event is only created if its type is enabled in the current recording.
+ */
+public final class FlightRecorderEvents {
+
+    /**
+     * Type of {@link ComposeModuleEvent}
+     */
+    private static final EventType COMPOSE_MODULE_TYPE = EventType.getEventType(ComposeModuleEvent.class);
+
+    /**
+     * Type of {@link UpdateInjectorEvent}
+     */
+    private static final EventType UPDATE_INJECTOR_TYPE = EventType.getEventType(UpdateInjectorEvent.class);
+
+    /**
+     * Type of {@link ProvisionEvent}
+     */
+    private static final EventType PROVISION_TYPE = EventType.getEventType(ProvisionEvent.class);
+
+    /**
+     * Type of {@link ResolveArgumentsEvent}
+     */
+    private static final EventType RESOLVE_ARGUMENTS_TYPE = EventType.getEventType(ResolveArgumentsEvent.class);
+
+    /**
+     * Type of {@link RequestScopeEvent}
+     */
+    private static final EventType REQUEST_SCOPE_TYPE = EventType.getEventType(RequestScopeEvent.class);
+
+    /**
+     * Hide constructor of factory class
+     */
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Check if the JVM supports flight recording
+     *
+     * @return <code>true</code> if flight recording is available
+     */
+    public static boolean isAvailable() {
+        return FlightRecorder.isAvailable();
+    }
+
+    /**
+     * Begin an event for creating the class level module of a test class
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginComposeModule() {
+        if (!COMPOSE_MODULE_TYPE.isEnabled()) {
+            return SqueezerEvents.NONE;
+        }
+
+        return begin(new ComposeModuleEvent());
+    }
+
+    /**
+     * Begin an event for updating the injector of a test method
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginUpdateInjector() {
+        if (!UPDATE_INJECTOR_TYPE.isEnabled()) {
+            return SqueezerEvents.NONE;
+        }
+
+        return begin(new UpdateInjectorEvent());
+    }
+
+    /**
+     * Begin an event for calling a provider method
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginProvision() {
+        if (!PROVISION_TYPE.isEnabled()) {
+            return SqueezerEvents.NONE;
+        }
+
+        return begin(new ProvisionEvent());
+    }
+
+    /**
+     * Begin an event for resolving the arguments of a method
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginResolveArguments() {
+        if (!RESOLVE_ARGUMENTS_TYPE.isEnabled()) {
+            return SqueezerEvents.NONE;
+        }
+
+        return begin(new ResolveArgumentsEvent());
+    }
+
+    /**
+     * Begin an event for running a test method in a request scope
+     *
+     * @return Started event
+     */
+    public static SqueezerEvent beginRequestScope() {
+        if (!REQUEST_SCOPE_TYPE.isEnabled()) {
+            return SqueezerEvents.NONE;
+        }
+
+        return begin(new RequestScopeEvent());
+    }
+
+    /**
+     * Begin an event
+     *
+     * @param event Event to begin
+     * @return Started event
+     */
+    private static SqueezerEvent begin(AbstractSqueezerEvent event) {
+        event.begin();
+        return event;
+    }
+
+}
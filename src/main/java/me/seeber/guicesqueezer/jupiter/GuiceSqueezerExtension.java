@@ -0,0 +1,309 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.jupiter;
+
+import static java.lang.String.format;
+
+import java.lang.reflect.Method;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ExtensionContext.Store;
+import org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import com.google.inject.ConfigurationException;
+import com.google.inject.Injector;
+import com.google.inject.ProvisionException;
+
+import me.seeber.guicesqueezer.AnnotationInspector;
+import me.seeber.guicesqueezer.ArgumentResolver;
+import me.seeber.guicesqueezer.CachingTestComposition;
+import me.seeber.guicesqueezer.DefaultAnnotationInspector;
+import me.seeber.guicesqueezer.DefaultArgumentResolver;
+import me.seeber.guicesqueezer.DefaultTestComposition;
+import me.seeber.guicesqueezer.InjectorStrategies;
+import me.seeber.guicesqueezer.InjectorStrategy;
+import me.seeber.guicesqueezer.TestComposition;
+import me.seeber.guicesqueezer.TestScopes;
+
+/**
+ * JUnit Jupiter extension to run Guice based unit tests
+ *
+ * The extension composes the modules of test classes and test methods in the same way as the
+ * {@link me.seeber.guicesqueezer.GuiceSqueezer} runner. Before each test method, the members of the test instance are
+ * injected with the injector of the test method, and parameters of test methods are resolved with the same injector.
+ *
+ * The composition and the class level modules are shared by all test classes in the store of the engine, the injector
+ * strategy is kept in the store of the test class and the injector in the store of the test method. All of them are
+ * safe to use when test methods run in parallel.
+ */
+public class GuiceSqueezerExtension implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+    /**
+     * Namespace of the values kept in the stores
+     */
+    private static final Namespace NAMESPACE = Namespace.create(GuiceSqueezerExtension.class);
+
+    /**
+     * Composition and argument resolver shared by all test classes
+     */
+    protected static class EngineResources {
+
+        /**
+         * Composition used to create the modules
+         */
+        private final TestComposition composition;
+
+        /**
+         * Resolver used to resolve parameters
+         */
+        private final ArgumentResolver argumentResolver;
+
+        /**
+         * Create new engine resources
+         */
+        public EngineResources() {
+            AnnotationInspector annotationInspector = new DefaultAnnotationInspector();
+            this.argumentResolver = new DefaultArgumentResolver(annotationInspector);
+            this.composition = new CachingTestComposition(
+                    new DefaultTestComposition(annotationInspector, this.argumentResolver));
+        }
+
+        /**
+         * Get the composition used to create the modules
+         *
+         * @return Composition
+         */
+        public TestComposition getComposition() {
+            return this.composition;
+        }
+
+        /**
+         * Get the resolver used to resolve parameters
+         *
+         * @return Argument resolver
+         */
+        public ArgumentResolver getArgumentResolver() {
+            return this.argumentResolver;
+        }
+
+    }
+
+    /**
+     * Injector strategy of a test class, released when the test class is finished
+     */
+    protected static class ClassResources implements CloseableResource {
+
+        /**
+         * Test class
+         */
+        private final Class<?> testClass;
+
+        /**
+         * Composition used to create the modules
+         */
+        private final TestComposition composition;
+
+        /**
+         * Strategy used to create injectors
+         */
+        private final InjectorStrategy injectorStrategy;
+
+        /**
+         * Create new class resources
+         *
+         * @param testClass Test class
+         * @param composition Composition used to create the modules
+         */
+        public ClassResources(Class<?> testClass, TestComposition composition) {
+            this.testClass = testClass;
+            this.composition = composition;
+            this.injectorStrategy = InjectorStrategies
+                    .createStrategy(InjectorStrategies.getStrategyClass(testClass), composition);
+        }
+
+        /**
+         * Release the state kept for the test class
+         *
+         * @see org.junit.jupiter.api.extension.ExtensionContext.Store.CloseableResource#close()
+         */
+        @Override
+        public void close() {
+            this.injectorStrategy.releaseTestClass(this.testClass);
+            this.composition.releaseTestClass(this.testClass);
+            TestScopes.getDefault().releaseTestClass(this.testClass);
+        }
+
+        /**
+         * Get the strategy used to create injectors
+         *
+         * @return Injector strategy
+         */
+        public InjectorStrategy getInjectorStrategy() {
+            return this.injectorStrategy;
+        }
+
+    }
+
+    /**
+     * Enter the test scope and inject the members of the test instance
+     *
+     * @see org.junit.jupiter.api.extension.BeforeEachCallback#beforeEach(ExtensionContext)
+     */
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        TestScopes.Context scopeContext = TestScopes.getDefault().enterTest(context.getRequiredTestClass(),
+                getClassResources(context).getInjectorStrategy().isClassInjectorKept());
+        context.getStore(NAMESPACE).put(TestScopes.Context.class, scopeContext);
+
+        Injector injector = getInjector(context);
+        injector.injectMembers(context.getRequiredTestInstance());
+    }
+
+    /**
+     * Leave the test scope
+     *
+     * @see org.junit.jupiter.api.extension.AfterEachCallback#afterEach(ExtensionContext)
+     */
+    @Override
+    public void afterEach(ExtensionContext context) {
+        TestScopes.Context scopeContext = context.getStore(NAMESPACE).remove(TestScopes.Context.class,
+                TestScopes.Context.class);
+
+        if (scopeContext != null) {
+            scopeContext.close();
+        }
+    }
+
+    /**
+     * Check if a parameter can be resolved
+     *
+     * Parameters of methods called for a test method are resolved by the injector if it has a binding for them or can
+     * create one just in time. Other parameters and parameters of JUnit types like <code>TestInfo</code> are left to
+     * other resolvers, e.g. those of JUnit or mocking frameworks.
+     *
+     * @see org.junit.jupiter.api.extension.ParameterResolver#supportsParameter(ParameterContext, ExtensionContext)
+     */
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        if (!extensionContext.getTestMethod().isPresent()
+                || !(parameterContext.getDeclaringExecutable() instanceof Method)
+                || parameterContext.getParameter().getType().getName().startsWith("org.junit.")) {
+            return false;
+        }
+
+        Method method = (Method) parameterContext.getDeclaringExecutable();
+
+        try {
+            boolean supported = getEngineResources(extensionContext).getArgumentResolver().canResolveArgument(method,
+                    parameterContext.getIndex(), getInjector(extensionContext));
+            return supported;
+        }
+        catch (ConfigurationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Resolve a parameter with the injector of the test method
+     *
+     * @see org.junit.jupiter.api.extension.ParameterResolver#resolveParameter(ParameterContext, ExtensionContext)
+     */
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Method method = (Method) parameterContext.getDeclaringExecutable();
+
+        try {
+            Object argument = getEngineResources(extensionContext).getArgumentResolver().resolveArgument(method,
+                    parameterContext.getIndex(), getInjector(extensionContext));
+            return argument;
+        }
+        catch (ConfigurationException | ProvisionException e) {
+            throw new ParameterResolutionException(
+                    format("Could not resolve parameter %d of method '%s'", parameterContext.getIndex(), method), e);
+        }
+    }
+
+    /**
+     * Get the injector of the current test method, creating it if required
+     *
+     * @param context Context of the test method
+     * @return Injector of the test method
+     */
+    protected Injector getInjector(ExtensionContext context) {
+        Class<?> testClass = context.getRequiredTestClass();
+        Method testMethod = context.getRequiredTestMethod();
+        Injector injector = context.getStore(NAMESPACE).getOrComputeIfAbsent(Injector.class,
+                k -> getClassResources(context).getInjectorStrategy().createInjector(testClass, testMethod),
+                Injector.class);
+        return injector;
+    }
+
+    /**
+     * Get the resources of the current test class, creating them if required
+     *
+     * The resources are kept in the store of the test class, which is the closest parent of the context of the test
+     * method that does not belong to a test method.
+     *
+     * @param context Context of the test method
+     * @return Class resources
+     */
+    protected ClassResources getClassResources(ExtensionContext context) {
+        ExtensionContext classContext = context;
+
+        while (classContext.getTestMethod().isPresent() && classContext.getParent().isPresent()) {
+            classContext = classContext.getParent().get();
+        }
+
+        Class<?> testClass = context.getRequiredTestClass();
+        Store store = classContext.getStore(NAMESPACE);
+        ClassResources resources = store.getOrComputeIfAbsent(ClassResources.class,
+                k -> new ClassResources(testClass, getEngineResources(context).getComposition()),
+                ClassResources.class);
+        return resources;
+    }
+
+    /**
+     * Get the resources shared by all test classes, creating them if required
+     *
+     * @param context Any extension context
+     * @return Engine resources
+     */
+    protected EngineResources getEngineResources(ExtensionContext context) {
+        Store store = context.getRoot().getStore(NAMESPACE);
+        EngineResources resources = store.getOrComputeIfAbsent(EngineResources.class, k -> new EngineResources(),
+                EngineResources.class);
+        return resources;
+    }
+
+}
@@ -28,6 +28,8 @@
 package me.seeber.guicesqueezer.servlet;
 
 import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.concurrent.Callable;
 
 import org.eclipse.jdt.annotation.Nullable;
@@ -35,12 +37,24 @@ import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.Statement;
 
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Scope;
+import com.google.inject.servlet.RequestScoped;
 import com.google.inject.servlet.ServletScopes;
 
 import me.seeber.guicesqueezer.GuiceSqueezer;
+import me.seeber.guicesqueezer.SqueezerEvent;
+import me.seeber.guicesqueezer.SqueezerEvents;
+import me.seeber.guicesqueezer.java.Argument;
 
 /**
  * JUnit runner that runs each test method in a separate request scope
+ *
+ * Each test method runs inside the lightweight {@link TestRequestScope}. Guice's own request scope is only entered if
+ * the injector contains bindings scoped with {@link ServletScopes#REQUEST}. Request attributes can be seeded with
+ * {@link RequestAttribute} annotations on the test method.
  */
 public class GuiceServletSqueezer extends GuiceSqueezer {
 
@@ -55,41 +69,79 @@ public class GuiceServletSqueezer extends GuiceSqueezer {
         private final Statement wrappedStatement;
 
         /**
-         * Create a new wrapped statement
+         * Seeded request attributes
+         */
+        private final Map<Key<?>, Object> attributes;
+
+        /**
+         * <code>true</code> if Guice's request scope must be entered as well
+         */
+        private final boolean servletScope;
+
+        /**
+         * Create a new wrapped statement that runs inside both request scopes
          *
          * @param wrappedStatement Statement to be invoked inside a request context
          */
         public ScopedStatement(Statement wrappedStatement) {
+            this(wrappedStatement, Collections.emptyMap(), true);
+        }
+
+        /**
+         * Create a new wrapped statement
+         *
+         * @param wrappedStatement Statement to be invoked inside a request context
+         * @param attributes Seeded request attributes
+         * @param servletScope <code>true</code> if Guice's request scope must be entered as well
+         */
+        public ScopedStatement(Statement wrappedStatement, Map<Key<?>, Object> attributes, boolean servletScope) {
             this.wrappedStatement = wrappedStatement;
+            this.attributes = attributes;
+            this.servletScope = servletScope;
         }
 
         /**
          * @see org.junit.runners.model.Statement#evaluate()
          */
         @Override
+        @SuppressWarnings("try")
         public void evaluate() throws Throwable {
-            Callable<@Nullable Void> scopedCallable = ServletScopes.scopeRequest(() -> {
-                try {
-                    this.wrappedStatement.evaluate();
-                }
-                catch (Error e) {
-                    throw e;
-                }
-                catch (Exception e) {
-                    throw e;
-                }
-                catch (Throwable t) {
-                    throw new RuntimeException("Error invoking test method", t);
-                }
+            try (SqueezerEvent event = SqueezerEvents.beginRequestScope();
+                    TestRequestScope.Context context = TestRequestScope.getDefault().enter(this.attributes)) {
+                if (this.servletScope) {
+                    Callable<@Nullable Void> scopedCallable = ServletScopes.scopeRequest(() -> {
+                        try {
+                            this.wrappedStatement.evaluate();
+                        }
+                        catch (Error e) {
+                            throw e;
+                        }
+                        catch (Exception e) {
+                            throw e;
+                        }
+                        catch (Throwable t) {
+                            throw new RuntimeException("Error invoking test method", t);
+                        }
 
-                return null;
-            }, Collections.emptyMap());
+                        return null;
+                    }, this.attributes);
 
-            scopedCallable.call();
+                    scopedCallable.call();
+                }
+                else {
+                    this.wrappedStatement.evaluate();
+                }
+            }
         }
 
     }
 
+    /**
+     * Cached results of {@link #usesServletScope(Injector)} by injector
+     */
+    private static final Map<Injector, Boolean> SERVLET_SCOPE_INJECTORS = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
     /**
      * Create a new test runner
      *
@@ -108,9 +160,45 @@ public class GuiceServletSqueezer extends GuiceSqueezer {
      */
     @Override
     protected Statement methodInvoker(@Nullable FrameworkMethod testMethod, @Nullable Object test) {
-        Statement statement = super.methodInvoker(testMethod, test);
-        Statement wrappedStatement = new ScopedStatement(statement);
+        FrameworkMethod method = Argument.notNull(testMethod, "testMethod");
+        Statement statement = super.methodInvoker(method, test);
+        Map<Key<?>, Object> attributes = RequestAttributeMaps.getDefault().getAttributes(method.getMethod());
+        Statement wrappedStatement = new ScopedStatement(statement, attributes, usesServletScope(getInjector()));
         return wrappedStatement;
     }
 
+    /**
+     * Check if an injector or one of its parents uses Guice's request scope
+     *
+     * @param injector Injector to check
+     * @return <code>true</code> if a binding is scoped with {@link ServletScopes#REQUEST} or {@link RequestScoped} is
+     *         bound to it
+     */
+    protected static boolean usesServletScope(Injector injector) {
+        Boolean servletScope = SERVLET_SCOPE_INJECTORS.get(injector);
+
+        if (servletScope == null) {
+            Injector parent = injector.getParent();
+            servletScope = parent != null && usesServletScope(parent);
+
+            if (!servletScope) {
+                Scope requestScope = injector.getScopeBindings().get(RequestScoped.class);
+                servletScope = requestScope == ServletScopes.REQUEST;
+            }
+
+            if (!servletScope) {
+                for (Binding<?> binding : injector.getAllBindings().values()) {
+                    if (ServletScopes.isRequestScoped(binding)) {
+                        servletScope = true;
+                        break;
+                    }
+                }
+            }
+
+            SERVLET_SCOPE_INJECTORS.put(injector, servletScope);
+        }
+
+        return servletScope;
+    }
+
 }
@@ -0,0 +1,115 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.servlet;
+
+import static java.lang.String.format;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+
+/**
+ * Cache of the request attributes seeded by the {@link RequestAttribute} annotations of test methods
+ *
+ * The attribute map of a test method is built when it is requested for the first time. It is immutable, so it can be
+ * passed to every request scope of the test method without copying.
+ */
+public class RequestAttributeMaps {
+
+    /**
+     * Default cache
+     */
+    private static final RequestAttributeMaps DEFAULT_MAPS = new RequestAttributeMaps();
+
+    /**
+     * Attribute maps by test method
+     */
+    private final ConcurrentMap<Method, Map<Key<?>, Object>> attributeMaps;
+
+    /**
+     * Create a new cache
+     */
+    public RequestAttributeMaps() {
+        this.attributeMaps = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Get the default cache
+     *
+     * @return Default cache
+     */
+    public static RequestAttributeMaps getDefault() {
+        return DEFAULT_MAPS;
+    }
+
+    /**
+     * Get the request attributes of a test method
+     *
+     * @param testMethod Test method
+     * @return Immutable map of request attributes, empty if the test method has no attributes
+     */
+    public Map<Key<?>, Object> getAttributes(Method testMethod) {
+        Map<Key<?>, Object> attributes = this.attributeMaps.computeIfAbsent(testMethod, this::createAttributes);
+        return attributes;
+    }
+
+    /**
+     * Create the request attributes of a test method
+     *
+     * @param testMethod Test method
+     * @return Immutable map of request attributes
+     */
+    protected Map<Key<?>, Object> createAttributes(Method testMethod) {
+        RequestAttribute[] annotations = testMethod.getAnnotationsByType(RequestAttribute.class);
+
+        if (annotations.length == 0) {
+            return Collections.emptyMap();
+        }
+
+        Map<Key<?>, Object> attributes = new LinkedHashMap<>();
+
+        for (RequestAttribute annotation : annotations) {
+            Key<String> key = Key.get(String.class, Names.named(annotation.name()));
+
+            if (attributes.put(key, annotation.value()) != null) {
+                throw new IllegalArgumentException(
+                        format("Request attribute '%s' is defined twice on test method '%s'", annotation.name(),
+                                testMethod));
+            }
+        }
+
+        return Collections.unmodifiableMap(attributes);
+    }
+
+}
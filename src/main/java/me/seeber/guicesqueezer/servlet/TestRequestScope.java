@@ -0,0 +1,220 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.servlet;
+
+import static java.lang.String.format;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.inject.Key;
+import com.google.inject.OutOfScopeException;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+
+/**
+ * Lightweight request scope for tests
+ *
+ * Unlike {@link com.google.inject.servlet.ServletScopes#REQUEST}, entering and leaving the scope does not create a
+ * new context for each request. The maps holding the scoped objects are cleared when a request ends and kept in a pool
+ * to be reused by later requests. Seeded request attributes are looked up in the map passed to
+ * {@link #enter(Map)}, which is not copied.
+ *
+ * @see TestRequestScopeModule
+ */
+public class TestRequestScope implements Scope {
+
+    /**
+     * Context of a single request
+     */
+    public class Context implements AutoCloseable {
+
+        /**
+         * Objects created in the request
+         */
+        private final Map<Key<?>, Object> objects;
+
+        /**
+         * Seeded request attributes
+         */
+        private Map<Key<?>, Object> attributes;
+
+        /**
+         * Create a new context
+         */
+        protected Context() {
+            this.objects = new HashMap<>();
+            this.attributes = Collections.emptyMap();
+        }
+
+        /**
+         * Get a scoped object, creating it if it does not exist yet
+         *
+         * @param key Key of the object
+         * @param unscoped Provider used to create the object
+         * @return Scoped object
+         */
+        protected <T> T get(Key<T> key, Provider<T> unscoped) {
+            Object object = this.attributes.get(key);
+
+            if (object == null) {
+                object = this.objects.get(key);
+
+                if (object == null) {
+                    T createdObject = unscoped.get();
+                    object = createdObject != null ? createdObject : NULL_OBJECT;
+
+                    if (!Scopes.isCircularProxy(object)) {
+                        this.objects.put(key, object);
+                    }
+                }
+            }
+
+            @SuppressWarnings("unchecked")
+            T scopedObject = (T) (object != NULL_OBJECT ? object : null);
+            return scopedObject;
+        }
+
+        /**
+         * Leave the request scope and return the context to the pool
+         *
+         * @see java.lang.AutoCloseable#close()
+         */
+        @Override
+        public void close() {
+            TestRequestScope.this.currentContext.remove();
+            this.objects.clear();
+            this.attributes = Collections.emptyMap();
+            TestRequestScope.this.pool.offer(this);
+        }
+
+    }
+
+    /**
+     * Placeholder for objects that were provided as <code>null</code>
+     */
+    private static final Object NULL_OBJECT = new Object();
+
+    /**
+     * Default scope
+     */
+    private static final TestRequestScope DEFAULT_SCOPE = new TestRequestScope();
+
+    /**
+     * Context of the current thread's request
+     */
+    private final ThreadLocal<@Nullable Context> currentContext;
+
+    /**
+     * Cleared contexts that can be reused
+     */
+    private final Queue<Context> pool;
+
+    /**
+     * Create a new request scope
+     */
+    public TestRequestScope() {
+        this.currentContext = new ThreadLocal<>();
+        this.pool = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Get the default request scope
+     *
+     * @return Default request scope
+     */
+    public static TestRequestScope getDefault() {
+        return DEFAULT_SCOPE;
+    }
+
+    /**
+     * Enter the request scope on the current thread
+     *
+     * @param attributes Seeded request attributes, must not be modified while the scope is active
+     * @return Context that leaves the request scope when closed
+     */
+    public Context enter(Map<Key<?>, Object> attributes) {
+        if (this.currentContext.get() != null) {
+            throw new IllegalStateException("Cannot enter request scope, a request scope is already active");
+        }
+
+        Context context = this.pool.poll();
+
+        if (context == null) {
+            context = new Context();
+        }
+
+        context.attributes = attributes;
+        this.currentContext.set(context);
+        return context;
+    }
+
+    /**
+     * Check if the request scope is active on the current thread
+     *
+     * @return <code>true</code> if the request scope is active
+     */
+    public boolean isActive() {
+        return this.currentContext.get() != null;
+    }
+
+    /**
+     * @see com.google.inject.Scope#scope(com.google.inject.Key, com.google.inject.Provider)
+     */
+    @Override
+    public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+        Provider<T> provider = () -> {
+            Context context = this.currentContext.get();
+
+            if (context == null) {
+                throw new OutOfScopeException(
+                        format("Cannot access scoped object '%s', no request scope is active", key));
+            }
+
+            T object = context.get(key, unscoped);
+            return object;
+        };
+
+        return provider;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "TestRequestScope.REQUEST";
+    }
+
+}
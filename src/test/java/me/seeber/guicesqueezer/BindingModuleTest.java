@@ -27,21 +27,27 @@
  */
 package me.seeber.guicesqueezer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.Optional;
 
+import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.eclipse.jdt.annotation.Nullable;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 
 import com.google.inject.Binder;
+import com.google.inject.Guice;
 import com.google.inject.binder.AnnotatedBindingBuilder;
 import com.google.inject.binder.LinkedBindingBuilder;
 import com.google.inject.binder.ScopedBindingBuilder;
@@ -50,6 +56,7 @@ import com.google.inject.name.Names;
 import me.seeber.guicesqueezer.BindingModule.Binding;
 import me.seeber.guicesqueezer.BindingModule.ClassSource;
 import me.seeber.guicesqueezer.BindingModule.ClassTarget;
+import me.seeber.guicesqueezer.BindingModule.MethodProvider;
 import me.seeber.guicesqueezer.java.Lists;
 
 @SuppressWarnings({ "javadoc" })
@@ -130,4 +137,51 @@ public class BindingModuleTest {
         verify(this.linkedBindingBuilder).to(String.class);
         verify(this.scopedBindingBuilder).in(Singleton.class);
     }
+
+    public static String provideGreeting(@Named("name") String name) {
+        return "Hello " + name;
+    }
+
+    public static @Nullable String provideNull() {
+        return null;
+    }
+
+    public static String provideFailure() {
+        throw new UnsupportedOperationException("failure");
+    }
+
+    protected static <T> MethodProvider<T> createProvider(String methodName, Class<?>... parameterTypes)
+            throws NoSuchMethodException {
+        MethodProvider<T> provider = new MethodProvider<>(
+                BindingModuleTest.class.getMethod(methodName, parameterTypes),
+                new DefaultArgumentResolver(new DefaultAnnotationInspector()));
+        Guice.createInjector(binder -> binder.bind(String.class).annotatedWith(Names.named("name")).toInstance("World"))
+                .injectMembers(provider);
+        return provider;
+    }
+
+    @Test
+    public void testMethodProvider() throws NoSuchMethodException {
+        MethodProvider<String> provider = createProvider("provideGreeting", String.class);
+
+        assertThat(provider.get()).isEqualTo("Hello World");
+    }
+
+    @Test
+    public void testMethodProvider_Null() throws NoSuchMethodException {
+        MethodProvider<String> provider = createProvider("provideNull");
+
+        assertThatThrownBy(() -> provider.get()).isInstanceOf(NullPointerException.class)
+                .hasMessageContaining("returned a null value");
+    }
+
+    @Test
+    public void testMethodProvider_Exception() throws NoSuchMethodException {
+        MethodProvider<String> provider = createProvider("provideFailure");
+
+        assertThatThrownBy(() -> provider.get()).isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Error calling provider").hasCauseInstanceOf(InvocationTargetException.class)
+                .hasRootCauseInstanceOf(UnsupportedOperationException.class);
+    }
+
 }
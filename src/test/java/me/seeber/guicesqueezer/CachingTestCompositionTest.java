@@ -0,0 +1,126 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Module;
+
+import me.seeber.guicesqueezer.java.Validate;
+
+@SuppressWarnings("javadoc")
+public class CachingTestCompositionTest {
+
+    public static class CountingTestComposition extends DefaultTestComposition {
+
+        public final List<Class<?>> classModuleClasses = new ArrayList<>();
+
+        public int methodModuleCount;
+
+        @Override
+        public Module createTestClassModule(Class<?> testClass) {
+            this.classModuleClasses.add(testClass);
+            return super.createTestClassModule(testClass);
+        }
+
+        @Override
+        public Module createTestMethodModule(Method testMethod) {
+            ++this.methodModuleCount;
+            return super.createTestMethodModule(testMethod);
+        }
+
+    }
+
+    @TestModules(TestModule.class)
+    public static class TestCreateTestClassModule {
+
+        @TestModules(AlternateTestModule.class)
+        public void testMethod() {
+        }
+
+    }
+
+    @Nullable
+    private CountingTestComposition delegate;
+
+    @Nullable
+    private CachingTestComposition composition;
+
+    @Before
+    public void initializeTest() {
+        this.delegate = new CountingTestComposition();
+        this.composition = new CachingTestComposition(getDelegate());
+    }
+
+    @Test
+    public void testCreateTestClassModule() {
+        Module module1 = getComposition().createTestClassModule(TestCreateTestClassModule.class);
+        Module module2 = getComposition().createTestClassModule(TestCreateTestClassModule.class);
+
+        assertThat(module1).isSameAs(module2);
+        assertThat(getDelegate().classModuleClasses).containsOnlyOnce(TestCreateTestClassModule.class);
+    }
+
+    @Test
+    public void testCreateTestClassModule_AfterRelease() {
+        Module module1 = getComposition().createTestClassModule(TestCreateTestClassModule.class);
+        getComposition().releaseTestClass(TestCreateTestClassModule.class);
+        Module module2 = getComposition().createTestClassModule(TestCreateTestClassModule.class);
+
+        assertThat(module1).isNotSameAs(module2);
+        assertThat(Collections.frequency(getDelegate().classModuleClasses, TestCreateTestClassModule.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void testCreateTestMethodModule() throws NoSuchMethodException {
+        Method method = TestCreateTestClassModule.class.getMethod("testMethod");
+        getComposition().createTestMethodModule(method);
+        getComposition().createTestMethodModule(method);
+
+        assertThat(getDelegate().methodModuleCount).isEqualTo(2);
+    }
+
+    protected CountingTestComposition getDelegate() {
+        return Validate.notNull(this.delegate, "delegate");
+    }
+
+    protected CachingTestComposition getComposition() {
+        return Validate.notNull(this.composition, "composition");
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Injector;
+
+@SuppressWarnings("javadoc")
+public class ChildInjectorStrategyTest {
+
+    public static class Greeting {
+        public String getText() {
+            return "hello";
+        }
+    }
+
+    public static class MethodGreeting extends Greeting {
+        @Override
+        public String getText() {
+            return "method";
+        }
+    }
+
+    public static class GreetingModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(Greeting.class).to(MethodGreeting.class);
+        }
+    }
+
+    public static class TestWithGreeting {
+
+        public void testJustInTime(Greeting greeting) {
+        }
+
+        @TestModules(GreetingModule.class)
+        public void testMethodModule(Greeting greeting) {
+        }
+
+    }
+
+    protected static Method method(String name) throws NoSuchMethodException {
+        return TestWithGreeting.class.getMethod(name, Greeting.class);
+    }
+
+    @Test
+    public void testCreateInjector_JustInTimeBindingFirst() throws NoSuchMethodException {
+        ChildInjectorStrategy strategy = new ChildInjectorStrategy(new DefaultTestComposition(), new InjectorCache(0));
+
+        Injector classInjector = strategy.createInjector(TestWithGreeting.class, method("testJustInTime"));
+        assertThat(classInjector.getInstance(Greeting.class).getText()).isEqualTo("hello");
+
+        Injector methodInjector = strategy.createInjector(TestWithGreeting.class, method("testMethodModule"));
+        assertThat(methodInjector.getParent()).isNull();
+        assertThat(methodInjector.getInstance(Greeting.class).getText()).isEqualTo("method");
+    }
+
+    @Test
+    public void testCreateInjector_MethodModuleFirst() throws NoSuchMethodException {
+        ChildInjectorStrategy strategy = new ChildInjectorStrategy(new DefaultTestComposition(), new InjectorCache(0));
+
+        Injector methodInjector = strategy.createInjector(TestWithGreeting.class, method("testMethodModule"));
+        assertThat(methodInjector.getParent()).isNull();
+        assertThat(methodInjector.getInstance(Greeting.class).getText()).isEqualTo("method");
+
+        Injector classInjector = strategy.createInjector(TestWithGreeting.class, method("testJustInTime"));
+        assertThat(classInjector.getInstance(Greeting.class).getText()).isEqualTo("hello");
+    }
+
+}
@@ -0,0 +1,118 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Optional;
+
+import javax.inject.Named;
+import javax.inject.Qualifier;
+import javax.inject.Singleton;
+
+import org.junit.Test;
+
+import com.google.inject.servlet.RequestScoped;
+
+@SuppressWarnings("javadoc")
+public class DefaultAnnotationInspectorTest {
+
+    @Named("test")
+    @Singleton
+    public static class QualifiedSingleton {
+    }
+
+    @Named("test")
+    @TestQualifier
+    @Singleton
+    public static class MultipleQualifiers {
+    }
+
+    @Singleton
+    @RequestScoped
+    public static class MultipleScopes {
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TestQualifier {
+    }
+
+    @Test
+    public void testClassifier() {
+        assertThat(AnnotationClassifier.isQualifier(Named.class)).isTrue();
+        assertThat(AnnotationClassifier.isScope(Named.class)).isFalse();
+        assertThat(AnnotationClassifier.isQualifier(Singleton.class)).isFalse();
+        assertThat(AnnotationClassifier.isScope(Singleton.class)).isTrue();
+        assertThat(AnnotationClassifier.isScope(RequestScoped.class)).isTrue();
+        assertThat(AnnotationClassifier.isQualifier(Test.class)).isFalse();
+        assertThat(AnnotationClassifier.isScope(Test.class)).isFalse();
+    }
+
+    @Test
+    public void testGetBindingAnnotations() {
+        DefaultAnnotationInspector inspector = new DefaultAnnotationInspector();
+
+        BindingAnnotations annotations = inspector.getBindingAnnotations(QualifiedSingleton.class);
+        Optional<Annotation> qualifier = annotations.getQualifier();
+
+        assertThat(qualifier).isPresent();
+        assertThat(qualifier.get()).isInstanceOf(Named.class);
+        assertThat(annotations.getScope()).contains(Singleton.class);
+        assertThat(inspector.getBindingAnnotations(QualifiedSingleton.class)).isSameAs(annotations);
+    }
+
+    @Test
+    public void testGetBindingAnnotations_MultipleQualifiers() {
+        DefaultAnnotationInspector inspector = new DefaultAnnotationInspector();
+
+        BindingAnnotations annotations = inspector.getBindingAnnotations(MultipleQualifiers.class);
+
+        assertThat(annotations.getScope()).contains(Singleton.class);
+        assertThatThrownBy(() -> annotations.getQualifier()).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than one qualifier");
+        assertThatThrownBy(() -> inspector.getQualifier(MultipleQualifiers.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testGetBindingAnnotations_MultipleScopes() {
+        DefaultAnnotationInspector inspector = new DefaultAnnotationInspector();
+
+        BindingAnnotations annotations = inspector.getBindingAnnotations(MultipleScopes.class);
+
+        assertThat(annotations.getQualifier()).isEmpty();
+        assertThatThrownBy(() -> annotations.getScope()).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than one scope");
+    }
+
+}
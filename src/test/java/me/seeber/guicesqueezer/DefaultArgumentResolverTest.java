@@ -0,0 +1,215 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+
+@SuppressWarnings("javadoc")
+public class DefaultArgumentResolverTest {
+
+    public static class Expensive {
+
+        private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+        public Expensive() {
+            INSTANCES.incrementAndGet();
+        }
+
+    }
+
+    public static class Unbound {
+        // Not bound explicitly
+    }
+
+    public static void lazyMethod(Lazy<Expensive> lazy, Supplier<Unbound> supplier,
+            @Named("name") Optional<String> name, Optional<Unbound> unbound) {
+    }
+
+    public static void wrapperMethod(Supplier<String> supplier, @Named("name") Optional<String> name) {
+    }
+
+    public static void mixedMethod(@Named("name") String name, Unbound unbound, Runnable runnable,
+            @Named("other") String other, Optional<Runnable> optionalRunnable) {
+    }
+
+    public static void method(@Named("name") String name, @Named("name") Provider<String> nameProvider,
+            com.google.inject.Provider<String> provider) {
+    }
+
+    protected static Injector createInjector(String name) {
+        return Guice.createInjector(binder -> {
+            binder.bind(String.class).annotatedWith(Names.named("name")).toInstance(name);
+            binder.bind(String.class).toInstance("unqualified");
+        });
+    }
+
+    protected static Method getMethod() throws NoSuchMethodException {
+        return DefaultArgumentResolverTest.class.getMethod("method", String.class, Provider.class,
+                com.google.inject.Provider.class);
+    }
+
+    @Test
+    public void testResolveArguments() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+
+        Object[] arguments = resolver.resolveArguments(getMethod(), createInjector("1"));
+
+        assertThat(arguments).hasSize(3);
+        assertThat(arguments[0]).isEqualTo("1");
+        assertThat(((Provider<?>) arguments[1]).get()).isEqualTo("1");
+        assertThat(((Provider<?>) arguments[2]).get()).isEqualTo("unqualified");
+    }
+
+    @Test
+    public void testResolveArguments_ReusesProviders() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+        Injector injector = createInjector("1");
+
+        Object[] arguments1 = resolver.resolveArguments(getMethod(), injector);
+        Object[] arguments2 = resolver.resolveArguments(getMethod(), injector);
+
+        assertThat(arguments2[1]).isSameAs(arguments1[1]);
+        assertThat(arguments2[2]).isSameAs(arguments1[2]);
+    }
+
+    @Test
+    public void testResolveArguments_OtherInjector() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+
+        Object[] arguments1 = resolver.resolveArguments(getMethod(), createInjector("1"));
+        Object[] arguments2 = resolver.resolveArguments(getMethod(), createInjector("2"));
+
+        assertThat(arguments1[0]).isEqualTo("1");
+        assertThat(arguments2[0]).isEqualTo("2");
+        assertThat(((Provider<?>) arguments2[1]).get()).isEqualTo("2");
+    }
+
+    @Test
+    public void testResolveArgument() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+        Injector injector = createInjector("1");
+
+        assertThat(resolver.resolveArgument(getMethod(), 0, injector)).isEqualTo("1");
+        assertThat(((Provider<?>) resolver.resolveArgument(getMethod(), 1, injector)).get()).isEqualTo("1");
+        assertThat(((Provider<?>) resolver.resolveArgument(getMethod(), 2, injector)).get()).isEqualTo("unqualified");
+    }
+
+    @Test
+    public void testReleaseTestClass() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+        Injector injector = createInjector("1");
+
+        Object[] arguments1 = resolver.resolveArguments(getMethod(), injector);
+        resolver.releaseTestClass(DefaultArgumentResolverTest.class);
+        Object[] arguments2 = resolver.resolveArguments(getMethod(), injector);
+
+        assertThat(arguments2[0]).isEqualTo("1");
+        assertThat(arguments2[1]).isNotSameAs(arguments1[1]);
+    }
+
+    @Test
+    public void testResolveArguments_Deferred() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+        Method method = DefaultArgumentResolverTest.class.getMethod("lazyMethod", Lazy.class, Supplier.class,
+                Optional.class, Optional.class);
+        Injector injector = Guice.createInjector(binder -> {
+            binder.bind(String.class).annotatedWith(Names.named("name")).toInstance("1");
+            binder.bind(Expensive.class);
+        });
+        int instances = Expensive.INSTANCES.get();
+
+        Object[] arguments = resolver.resolveArguments(method, injector);
+        Lazy<?> lazy = (Lazy<?>) arguments[0];
+
+        assertThat(Expensive.INSTANCES.get()).isEqualTo(instances);
+        assertThat(lazy.get()).isSameAs(lazy.get());
+        assertThat(Expensive.INSTANCES.get()).isEqualTo(instances + 1);
+        assertThat(arguments[2]).isEqualTo(Optional.of("1"));
+        assertThat(arguments[3]).isEqualTo(Optional.empty());
+        assertThat(injector.getExistingBinding(Key.get(Unbound.class))).isNull();
+        assertThat(((Supplier<?>) arguments[1]).get()).isInstanceOf(Unbound.class);
+    }
+
+    @Test
+    public void testResolveArguments_BoundWrapper() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+        Method method = DefaultArgumentResolverTest.class.getMethod("wrapperMethod", Supplier.class, Optional.class);
+        Supplier<String> supplier = () -> "supplied";
+        Injector injector = Guice.createInjector(binder -> {
+            binder.bind(String.class).toInstance("unqualified");
+            binder.bind(String.class).annotatedWith(Names.named("name")).toInstance("1");
+            binder.bind(new TypeLiteral<Supplier<String>>() {}).toInstance(supplier);
+            binder.bind(new TypeLiteral<Optional<String>>() {}).annotatedWith(Names.named("name"))
+                    .toInstance(Optional.of("bound"));
+        });
+
+        Object[] arguments = resolver.resolveArguments(method, injector);
+
+        assertThat(arguments[0]).isSameAs(supplier);
+        assertThat(arguments[1]).isEqualTo(Optional.of("bound"));
+        assertThat(resolver.resolveArgument(method, 0, injector)).isSameAs(supplier);
+        assertThat(resolver.getArgumentProvider(Key.get(new TypeLiteral<Supplier<String>>() {}), injector).get())
+                .isSameAs(supplier);
+
+        Object[] unboundArguments = resolver.resolveArguments(method, createInjector("1"));
+
+        assertThat(((Supplier<?>) unboundArguments[0]).get()).isEqualTo("unqualified");
+        assertThat(unboundArguments[1]).isEqualTo(Optional.of("1"));
+    }
+
+    @Test
+    public void testCanResolveArgument() throws NoSuchMethodException {
+        DefaultArgumentResolver resolver = new DefaultArgumentResolver(new DefaultAnnotationInspector());
+        Method method = DefaultArgumentResolverTest.class.getMethod("mixedMethod", String.class, Unbound.class,
+                Runnable.class, String.class, Optional.class);
+        Injector injector = createInjector("1");
+
+        assertThat(resolver.canResolveArgument(method, 0, injector)).isTrue();
+        assertThat(resolver.canResolveArgument(method, 1, injector)).isTrue();
+        assertThat(resolver.canResolveArgument(method, 2, injector)).isFalse();
+        assertThat(resolver.canResolveArgument(method, 3, injector)).isFalse();
+        assertThat(resolver.canResolveArgument(method, 4, injector)).isTrue();
+    }
+
+}
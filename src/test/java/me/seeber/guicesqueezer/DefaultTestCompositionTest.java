@@ -30,14 +30,20 @@ package me.seeber.guicesqueezer;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
+import java.lang.annotation.Annotation;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import javax.inject.Named;
 
@@ -52,6 +58,8 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
+import com.google.inject.Provides;
+import com.google.inject.Singleton;
 import com.google.inject.name.Names;
 import com.google.inject.util.Modules;
 
@@ -303,6 +311,48 @@ public class DefaultTestCompositionTest {
         getFactory().createModuleUsingBoundNestedClasses(BindingWithoutSuperclassOrInterfaceTest.class);
     }
 
+    public static class TestCustomAnnotationInspector {
+
+        public interface TestInterface {
+        }
+
+        @Bind
+        public static class TestClass implements TestInterface {
+        }
+
+        @Provides
+        public static String provideString() {
+            return "1";
+        }
+
+    }
+
+    @Test
+    public void testCreateModule_CustomAnnotationInspector() {
+        AnnotationInspector annotationInspector = new DefaultAnnotationInspector() {
+            @Override
+            public Optional<Annotation> getQualifier(AnnotatedElement annotatedElement) {
+                return Optional.of(Names.named("custom"));
+            }
+        };
+        DefaultTestComposition composition = new DefaultTestComposition(annotationInspector,
+                new DefaultArgumentResolver(annotationInspector)) {
+            @Override
+            protected Optional<Class<? extends Annotation>> getScope(AnnotatedElement annotatedElement) {
+                return Optional.of(Singleton.class);
+            }
+        };
+        Injector injector = Guice.createInjector(
+                composition.createModuleUsingBoundNestedClasses(TestCustomAnnotationInspector.class),
+                composition.createModuleUsingProviderMethods(TestCustomAnnotationInspector.class));
+        Key<TestCustomAnnotationInspector.TestInterface> boundKey = Key
+                .get(TestCustomAnnotationInspector.TestInterface.class, Names.named("custom"));
+
+        assertThat(injector.getInstance(boundKey)).isSameAs(injector.getInstance(boundKey));
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("custom")))).isEqualTo("1");
+        assertThat(injector.getExistingBinding(Key.get(TestCustomAnnotationInspector.TestInterface.class))).isNull();
+    }
+
     public static class TestCaseWithNestedModule {
 
         public static class NonStaticModule extends TestModule {
@@ -594,6 +644,165 @@ public class DefaultTestCompositionTest {
         assertThat(statement).isInstanceOf(InvokeWithParametersStatement.class);
     }
 
+    @Test
+    public void testCreateInvocationStatement_FrameworkMethodSubclass() throws Throwable {
+        Module classModule = getFactory().createTestClassModule(TestCreateInvocationStatement.class);
+        Injector injector = Guice.createInjector(classModule);
+        TestCreateInvocationStatement testObject = new TestCreateInvocationStatement();
+        Method method = TestCreateInvocationStatement.class.getMethod("testMethod");
+        List<Object> invokedTests = new ArrayList<>();
+
+        FrameworkMethod plainTestMethod = new FrameworkMethod(method);
+        getFactory().createInvocationStatement(plainTestMethod, testObject, injector).evaluate();
+
+        FrameworkMethod recordingTestMethod = new FrameworkMethod(method) {
+            @Override
+            public @Nullable Object invokeExplosively(@Nullable Object target, Object... params) throws Throwable {
+                invokedTests.add(Validate.notNull(target, "target"));
+                return super.invokeExplosively(target, params);
+            }
+        };
+        getFactory().createInvocationStatement(recordingTestMethod, testObject, injector).evaluate();
+
+        assertThat(invokedTests).containsExactly(testObject);
+    }
+
+    public static class TestCreateRowsInvocationStatement {
+
+        public final List<String> results = new ArrayList<>();
+
+        public Stream<String> rows(String value) {
+            return Stream.of(value);
+        }
+
+        public void testMethod(String row, String value) {
+            this.results.add(row + value);
+        }
+
+    }
+
+    @Test
+    public void testCreateRowsInvocationStatement() throws Throwable {
+        List<Method> resolvedMethods = new ArrayList<>();
+        DefaultTestComposition composition = new DefaultTestComposition(new DefaultAnnotationInspector(),
+                (method, injector) -> {
+                    resolvedMethods.add(method);
+                    return Arrays.copyOf(new Object[] { "1", "2" }, method.getParameterCount());
+                });
+        TestCreateRowsInvocationStatement testObject = new TestCreateRowsInvocationStatement();
+        Method testMethod = TestCreateRowsInvocationStatement.class.getMethod("testMethod", String.class,
+                String.class);
+        Method rowSource = TestCreateRowsInvocationStatement.class.getMethod("rows", String.class);
+
+        Statement statement = composition.createRowsInvocationStatement(new FrameworkMethod(testMethod),
+                new FrameworkMethod(rowSource), testObject, Guice.createInjector());
+        statement.evaluate();
+
+        assertThat(testObject.results).containsExactly("12");
+        assertThat(resolvedMethods).containsExactly(rowSource, testMethod);
+    }
+
+    @TestModules(TestModule.class)
+    public static class TestCreateTestClassFingerprint_Base {
+
+        public void testMethod() {
+        }
+
+    }
+
+    public static class TestCreateTestClassFingerprint_Subclass1 extends TestCreateTestClassFingerprint_Base {
+    }
+
+    public static class TestCreateTestClassFingerprint_Subclass2 extends TestCreateTestClassFingerprint_Base {
+
+        @Provides
+        public static String provideString() {
+            return "1";
+        }
+
+    }
+
+    @TestModules(TestModule.class)
+    public static class TestCreateTestClassFingerprint_SameModules {
+    }
+
+    @Test
+    public void testCreateTestClassFingerprint() {
+        Optional<CompositionFingerprint> baseFingerprint = getFactory()
+                .createTestClassFingerprint(TestCreateTestClassFingerprint_Base.class);
+
+        assertThat(baseFingerprint).isPresent();
+        assertThat(getFactory().createTestClassFingerprint(TestCreateTestClassFingerprint_Subclass1.class))
+                .isEqualTo(baseFingerprint);
+        assertThat(getFactory().createTestClassFingerprint(TestCreateTestClassFingerprint_SameModules.class))
+                .isEqualTo(baseFingerprint);
+        assertThat(getFactory().createTestClassFingerprint(TestCreateTestClassFingerprint_Subclass2.class))
+                .isNotEqualTo(baseFingerprint);
+    }
+
+    @Test
+    public void testCreateTestMethodFingerprint() throws NoSuchMethodException {
+        Optional<CompositionFingerprint> fingerprint1 = getFactory()
+                .createTestMethodFingerprint(TestCreateTestMethodInjector_WithAnnotation.class.getMethod("testMethod",
+                        String.class));
+        Optional<CompositionFingerprint> fingerprint2 = getFactory().createTestMethodFingerprint(
+                TestCreateTestClassFingerprint_Base.class.getMethod("testMethod"));
+
+        assertThat(fingerprint1).isPresent();
+        assertThat(fingerprint1).isNotEqualTo(fingerprint2);
+    }
+
+    public static class TestReplayModuleFromClass {
+
+        public static int configurations;
+
+        public static class ReplayedModule extends AbstractModule {
+            @Override
+            protected void configure() {
+                ++configurations;
+                bind(String.class).annotatedWith(Names.named("replayed")).toInstance("1");
+            }
+        }
+
+        @NoReplay
+        public static class NotReplayedModule extends AbstractModule {
+            @Override
+            protected void configure() {
+                ++configurations;
+                bind(String.class).annotatedWith(Names.named("notReplayed")).toInstance("1");
+            }
+        }
+
+    }
+
+    @Test
+    public void testReplayModuleFromClass() {
+        DefaultTestComposition composition = new DefaultTestComposition(new DefaultAnnotationInspector(),
+                new DefaultArgumentResolver(new DefaultAnnotationInspector()), new ModuleRecorder(true));
+        TestReplayModuleFromClass.configurations = 0;
+
+        for (int i = 0; i < 3; ++i) {
+            Injector injector = Guice
+                    .createInjector(composition.replayModuleFromClass(TestReplayModuleFromClass.ReplayedModule.class));
+            assertThat(injector.getInstance(Key.get(String.class, Names.named("replayed")))).isEqualTo("1");
+        }
+
+        assertThat(TestReplayModuleFromClass.configurations).isEqualTo(1);
+    }
+
+    @Test
+    public void testReplayModuleFromClass_NoReplay() {
+        DefaultTestComposition composition = new DefaultTestComposition(new DefaultAnnotationInspector(),
+                new DefaultArgumentResolver(new DefaultAnnotationInspector()), new ModuleRecorder(true));
+        TestReplayModuleFromClass.configurations = 0;
+
+        for (int i = 0; i < 3; ++i) {
+            Guice.createInjector(composition.replayModuleFromClass(TestReplayModuleFromClass.NotReplayedModule.class));
+        }
+
+        assertThat(TestReplayModuleFromClass.configurations).isEqualTo(3);
+    }
+
     public DefaultTestComposition getFactory() {
         return Validate.notNull(this.factory, "factory");
     }
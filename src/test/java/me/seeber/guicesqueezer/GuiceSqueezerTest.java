@@ -28,22 +28,90 @@
 package me.seeber.guicesqueezer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.junit.Before;
+import org.junit.FixMethodOrder;
 import org.junit.Test;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.MethodSorters;
 import org.junit.runners.model.FrameworkMethod;
 import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.Statement;
 
+import com.google.inject.AbstractModule;
+import com.google.inject.OutOfScopeException;
+
 import me.seeber.guicesqueezer.java.Validate;
 
 @SuppressWarnings("javadoc")
 public class GuiceSqueezerTest {
 
+    public static class SimpleTest {
+
+        @Test
+        public void testNothing() {
+            // Nothing to test
+        }
+
+    }
+
+    @PrebuildInjectors(depth = 2)
+    @UseInjectorStrategy(DefaultInjectorStrategy.class)
+    @ParallelMethods(threads = 1)
+    @FixMethodOrder(MethodSorters.NAME_ASCENDING)
+    public static class PrebuiltFailureTest {
+
+        public static class MethodModules {
+
+            public static class FailingModule extends AbstractModule {
+                @Override
+                protected void configure() {
+                    throw new IllegalStateException("Failing module");
+                }
+            }
+
+        }
+
+        @Test
+        public void test1_Succeeds() {
+            // Nothing to test
+        }
+
+        @Test
+        @TestModules(MethodModules.FailingModule.class)
+        public void test2_Fails() {
+            // Nothing to test
+        }
+
+        @Test
+        public void test3_Succeeds() {
+            // Nothing to test
+        }
+
+    }
+
+    @UseInjectorStrategy(DefaultInjectorStrategy.class)
+    public static class ClassScopedTest {
+
+        @ClassScoped
+        public static class ClassObject {
+            // Class scoped
+        }
+
+        @Test
+        public void testClassObject(ClassObject classObject) {
+            // Nothing to test
+        }
+
+    }
+
     @Nullable
     public GuiceSqueezer squeezer;
 
@@ -85,6 +153,59 @@ public class GuiceSqueezerTest {
         assertThat(errors).isEmpty();
     }
 
+    @Test
+    public void testRun_RemovesInjector() throws InitializationError {
+        GuiceSqueezer squeezer = new GuiceSqueezer(SimpleTest.class);
+
+        squeezer.run(new RunNotifier());
+
+        assertThatThrownBy(() -> squeezer.getInjector()).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    public void testRun_ReportsPrebuildFailureOnTestMethod() throws InitializationError {
+        List<Failure> failures = new ArrayList<>();
+        RunNotifier notifier = new RunNotifier();
+
+        notifier.addListener(new RunListener() {
+            @Override
+            public void testFailure(@Nullable Failure failure) {
+                failures.add(Validate.notNull(failure, "failure"));
+            }
+        });
+
+        new GuiceSqueezer(PrebuiltFailureTest.class).run(notifier);
+
+        assertThat(failures).hasSize(1);
+        assertThat(failures.get(0).getDescription().getMethodName()).isEqualTo("test2_Fails");
+        assertThat(failures.get(0).getException()).hasStackTraceContaining("Failing module");
+    }
+
+    @Test
+    public void testRun_RejectsClassScopeWithoutClassInjector() throws InitializationError {
+        List<Failure> failures = new ArrayList<>();
+        RunNotifier notifier = new RunNotifier();
+
+        notifier.addListener(new RunListener() {
+            @Override
+            public void testFailure(@Nullable Failure failure) {
+                failures.add(Validate.notNull(failure, "failure"));
+            }
+        });
+
+        new GuiceSqueezer(ClassScopedTest.class).run(notifier);
+
+        Throwable cause = failures.get(0).getException();
+
+        while (cause.getCause() != null && !(cause instanceof OutOfScopeException)) {
+            cause = cause.getCause();
+        }
+
+        assertThat(failures).hasSize(1);
+        assertThat(cause).isInstanceOf(OutOfScopeException.class)
+                .hasMessageContaining("creates an injector for each test method");
+    }
+
     protected GuiceSqueezer getSqueezer() {
         return Validate.notNull(this.squeezer, "squeezer");
     }
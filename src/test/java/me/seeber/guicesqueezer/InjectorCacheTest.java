@@ -0,0 +1,143 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+
+import me.seeber.guicesqueezer.java.Lists;
+
+@SuppressWarnings("javadoc")
+public class InjectorCacheTest {
+
+    protected static CompositionFingerprint fingerprint(Object element) {
+        return new CompositionFingerprint(Lists.of(Collections.singleton(element)));
+    }
+
+    @Test
+    public void testGetInjector() {
+        InjectorCache cache = new InjectorCache(2);
+
+        Injector injector1 = cache.getInjector(fingerprint(TestModule.class), () -> Guice.createInjector());
+        Injector injector2 = cache.getInjector(fingerprint(TestModule.class), () -> Guice.createInjector());
+
+        assertThat(injector1).isSameAs(injector2);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGetInjector_Disabled() {
+        InjectorCache cache = new InjectorCache(0);
+
+        Injector injector1 = cache.getInjector(fingerprint(TestModule.class), () -> Guice.createInjector());
+        Injector injector2 = cache.getInjector(fingerprint(TestModule.class), () -> Guice.createInjector());
+
+        assertThat(injector1).isNotSameAs(injector2);
+        assertThat(cache.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testGetInjector_EvictsLeastRecentlyUsed() {
+        InjectorCache cache = new InjectorCache(2);
+
+        Injector injector1 = cache.getInjector(fingerprint(TestModule.class), () -> Guice.createInjector());
+        cache.getInjector(fingerprint(AlternateTestModule.class), () -> Guice.createInjector());
+        cache.getInjector(fingerprint(TestModule.class), () -> Guice.createInjector());
+        cache.getInjector(fingerprint(String.class), () -> Guice.createInjector());
+
+        assertThat(cache.getSize()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getInjector(fingerprint(TestModule.class), () -> Guice.createInjector())).isSameAs(injector1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testGetInjector_FailureIsNotCached() {
+        InjectorCache cache = new InjectorCache(2);
+
+        try {
+            cache.getInjector(fingerprint(TestModule.class), () -> {
+                throw new IllegalStateException("BOOM!");
+            });
+        }
+        catch (IllegalStateException e) {
+            assertThat(cache.getSize()).isEqualTo(0);
+            throw e;
+        }
+    }
+
+    @Test
+    public void testGetInjector_CreatesInjectorOnlyOnce() throws Exception {
+        InjectorCache cache = new InjectorCache(2);
+        AtomicInteger creations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Injector> future1 = executor.submit(() -> cache.getInjector(fingerprint(TestModule.class), () -> {
+                creations.incrementAndGet();
+                started.countDown();
+
+                try {
+                    Thread.sleep(100);
+                }
+                catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+
+                return Guice.createInjector();
+            }));
+
+            started.await(1, TimeUnit.SECONDS);
+
+            Future<Injector> future2 = executor.submit(() -> cache.getInjector(fingerprint(TestModule.class), () -> {
+                creations.incrementAndGet();
+                return Guice.createInjector();
+            }));
+
+            assertThat(future1.get()).isSameAs(future2.get());
+            assertThat(creations.get()).isEqualTo(1);
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.inject.Stage;
+
+@SuppressWarnings("javadoc")
+public class InjectorOptionsTest {
+
+    @InjectorConfig(requireExplicitBindings = true)
+    public static class TestWithoutStage {
+    }
+
+    @InjectorConfig(stage = "development")
+    public static class TestWithStage {
+    }
+
+    private @Nullable String stageProperty;
+
+    @Before
+    public void saveStageProperty() {
+        this.stageProperty = System.getProperty(InjectorOptions.STAGE_PROPERTY);
+        System.clearProperty(InjectorOptions.STAGE_PROPERTY);
+    }
+
+    @After
+    public void restoreStageProperty() {
+        String stageProperty = this.stageProperty;
+
+        if (stageProperty != null) {
+            System.setProperty(InjectorOptions.STAGE_PROPERTY, stageProperty);
+        }
+        else {
+            System.clearProperty(InjectorOptions.STAGE_PROPERTY);
+        }
+    }
+
+    @Test
+    public void testForTestClass_StageProperty() {
+        System.setProperty(InjectorOptions.STAGE_PROPERTY, "production");
+
+        assertThat(InjectorOptions.forTestClass(TestWithoutStage.class).getStage()).isEqualTo(Stage.PRODUCTION);
+        assertThat(InjectorOptions.forTestClass(TestWithStage.class).getStage()).isEqualTo(Stage.DEVELOPMENT);
+        assertThat(InjectorOptions.forTestClass(Object.class).getStage()).isEqualTo(Stage.PRODUCTION);
+    }
+
+    @Test
+    public void testForTestClass_NoStageProperty() {
+        assertThat(InjectorOptions.forTestClass(TestWithoutStage.class).getStage()).isEqualTo(Stage.DEVELOPMENT);
+        assertThat(InjectorOptions.forTestClass(TestWithoutStage.class).isRequireExplicitBindings()).isTrue();
+    }
+
+}
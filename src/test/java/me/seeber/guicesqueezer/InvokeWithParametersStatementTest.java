@@ -0,0 +1,105 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.util.Optional;
+
+import javax.inject.Named;
+
+import org.junit.Test;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+@SuppressWarnings("javadoc")
+public class InvokeWithParametersStatementTest {
+
+    public static class Subject {
+
+        public String name = "";
+
+        public void greet(@Named("name") String name) {
+            this.name = name;
+        }
+
+        public void fail() throws IOException {
+            throw new IOException("failure");
+        }
+
+    }
+
+    protected static Injector createInjector() {
+        return Guice.createInjector(
+                binder -> binder.bind(String.class).annotatedWith(Names.named("name")).toInstance("1"));
+    }
+
+    protected static Statement createStatement(FrameworkMethod testMethod, Subject subject) {
+        return new InvokeWithParametersStatement(testMethod, subject,
+                new DefaultArgumentResolver(new DefaultAnnotationInspector()), createInjector(),
+                InvokeWithParametersStatement.createInvoker(testMethod));
+    }
+
+    @Test
+    public void testEvaluate() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("greet", String.class));
+        Subject subject = new Subject();
+
+        assertThat(InvokeWithParametersStatement.createInvoker(testMethod)).isPresent();
+
+        createStatement(testMethod, subject).evaluate();
+
+        assertThat(subject.name).isEqualTo("1");
+    }
+
+    @Test
+    public void testEvaluate_Exception() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("fail"));
+
+        assertThatThrownBy(() -> createStatement(testMethod, new Subject()).evaluate())
+                .isExactlyInstanceOf(IOException.class).hasMessage("failure");
+    }
+
+    @Test
+    public void testCreateInvoker_FrameworkMethodSubclass() throws NoSuchMethodException {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("fail")) {
+        };
+
+        Optional<MethodHandle> invoker = InvokeWithParametersStatement.createInvoker(testMethod);
+
+        assertThat(invoker).isEmpty();
+    }
+
+}
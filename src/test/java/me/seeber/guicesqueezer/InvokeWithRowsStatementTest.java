@@ -0,0 +1,214 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.inject.Named;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.internal.AssumptionViolatedException;
+import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.MultipleFailureException;
+import org.junit.runners.model.Statement;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+@SuppressWarnings("javadoc")
+public class InvokeWithRowsStatementTest {
+
+    public static class Subject {
+
+        public static final AtomicBoolean CLOSED = new AtomicBoolean();
+
+        public final List<String> results = new ArrayList<>();
+
+        public static Stream<Object[]> pairs(@Named("count") Integer count) {
+            return IntStream.range(0, count).mapToObj(i -> new Object[] { i, i * i }).onClose(() -> CLOSED.set(true));
+        }
+
+        public Iterator<String> names() {
+            return Arrays.asList("a", "b").iterator();
+        }
+
+        public void square(int value, int expected, @Named("prefix") String prefix) {
+            this.results.add(prefix + value);
+
+            if (value * value != expected || value == 2) {
+                throw new AssertionError("Wrong square");
+            }
+        }
+
+        public void greet(String name, @Named("prefix") String prefix) {
+            this.results.add(prefix + name);
+        }
+
+        public List<String[]> arrays() {
+            return Arrays.asList(new String[] { "a", "b" }, new String[] { "c" });
+        }
+
+        public void join(String[] names, @Named("prefix") String prefix) {
+            this.results.add(prefix + String.join("", names));
+        }
+
+        public void greetTwice(String name1, String name2) {
+            this.results.add(name1 + name2);
+        }
+
+        public void skip(String name) {
+            this.results.add(name);
+            Assume.assumeTrue(false);
+        }
+
+        public void outOfMemory(String name) {
+            this.results.add(name);
+            throw new OutOfMemoryError("Out of memory");
+        }
+
+    }
+
+    protected static Injector createInjector() {
+        return Guice.createInjector(binder -> {
+            binder.bind(String.class).annotatedWith(Names.named("prefix")).toInstance("p");
+            binder.bind(Integer.class).annotatedWith(Names.named("count")).toInstance(4);
+        });
+    }
+
+    protected static Statement createStatement(FrameworkMethod testMethod, FrameworkMethod rowSource,
+            Subject subject) {
+        return new InvokeWithRowsStatement(testMethod, rowSource, subject,
+                new DefaultArgumentResolver(new DefaultAnnotationInspector()), createInjector(),
+                InvokeWithParametersStatement.createInvoker(testMethod));
+    }
+
+    @Test
+    public void testEvaluate_Iterator() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("greet", String.class, String.class));
+        FrameworkMethod rowSource = new FrameworkMethod(Subject.class.getMethod("names"));
+        Subject subject = new Subject();
+
+        createStatement(testMethod, rowSource, subject).evaluate();
+
+        assertThat(subject.results).containsExactly("pa", "pb");
+    }
+
+    @Test
+    public void testEvaluate_ArrayParameter() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("join", String[].class, String.class));
+        FrameworkMethod rowSource = new FrameworkMethod(Subject.class.getMethod("arrays"));
+        Subject subject = new Subject();
+
+        createStatement(testMethod, rowSource, subject).evaluate();
+
+        assertThat(subject.results).containsExactly("pab", "pc");
+    }
+
+    @Test
+    public void testEvaluate_ArraySpread() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(
+                Subject.class.getMethod("greetTwice", String.class, String.class));
+        FrameworkMethod rowSource = new FrameworkMethod(Subject.class.getMethod("arrays"));
+        Subject subject = new Subject();
+
+        createStatement(testMethod, rowSource, subject).evaluate();
+
+        assertThat(subject.results).containsExactly("ab", "c");
+    }
+
+    @Test
+    public void testEvaluate_Failure() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(
+                Subject.class.getMethod("square", int.class, int.class, String.class));
+        FrameworkMethod rowSource = new FrameworkMethod(Subject.class.getMethod("pairs", Integer.class));
+        Subject subject = new Subject();
+        Subject.CLOSED.set(false);
+
+        assertThatThrownBy(() -> createStatement(testMethod, rowSource, subject).evaluate())
+                .isInstanceOf(AssertionError.class).hasMessageStartingWith("Row 2 [2, 4] failed")
+                .isNotInstanceOf(MultipleFailureException.class);
+
+        assertThat(subject.results).containsExactly("p0", "p1", "p2", "p3");
+        assertThat(Subject.CLOSED.get()).isTrue();
+    }
+
+    @Test
+    public void testEvaluate_AllSkipped() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("skip", String.class));
+        FrameworkMethod rowSource = new FrameworkMethod(Subject.class.getMethod("names"));
+        Subject subject = new Subject();
+
+        assertThatThrownBy(() -> createStatement(testMethod, rowSource, subject).evaluate())
+                .isInstanceOf(AssumptionViolatedException.class).hasMessageContaining("All 2 rows were skipped");
+
+        assertThat(subject.results).containsExactly("a", "b");
+    }
+
+    @Test
+    public void testEvaluate_VirtualMachineError() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("outOfMemory", String.class));
+        FrameworkMethod rowSource = new FrameworkMethod(Subject.class.getMethod("names"));
+        Subject subject = new Subject();
+
+        assertThatThrownBy(() -> createStatement(testMethod, rowSource, subject).evaluate())
+                .isInstanceOf(OutOfMemoryError.class);
+
+        assertThat(subject.results).containsExactly("a");
+    }
+
+    @Test
+    public void testEvaluate_Interrupted() throws Throwable {
+        FrameworkMethod testMethod = new FrameworkMethod(Subject.class.getMethod("greet", String.class, String.class));
+        FrameworkMethod rowSource = new FrameworkMethod(Subject.class.getMethod("names"));
+        Subject subject = new Subject();
+
+        try {
+            Thread.currentThread().interrupt();
+
+            assertThatThrownBy(() -> createStatement(testMethod, rowSource, subject).evaluate())
+                    .isInstanceOf(InterruptedException.class);
+        }
+        finally {
+            Thread.interrupted();
+        }
+
+        assertThat(subject.results).isEmpty();
+    }
+
+}
@@ -0,0 +1,112 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.google.inject.CreationException;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.PrivateModule;
+import com.google.inject.name.Names;
+
+@SuppressWarnings("javadoc")
+public class LayeredModuleTest {
+
+    private static Module bindString(String name, String value) {
+        return binder -> binder.bindConstant().annotatedWith(Names.named(name)).to(value);
+    }
+
+    @Test
+    public void testConfigure() {
+        Module module = new LayeredModule(Arrays.asList(bindString("a", "1"),
+                binder -> {
+                    binder.install(bindString("a", "2"));
+                    binder.install(bindString("b", "2"));
+                },
+                bindString("c", "3"), bindString("b", "4")));
+
+        Injector injector = Guice.createInjector(module);
+
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("a")))).isEqualTo("2");
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("b")))).isEqualTo("4");
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("c")))).isEqualTo("3");
+    }
+
+    @Test
+    public void testConfigure_DuplicateInLayer() {
+        Module module = new LayeredModule(Arrays.asList(bindString("a", "1"), binder -> {
+            binder.install(bindString("a", "2"));
+            binder.install(bindString("a", "3"));
+        }));
+
+        assertThatThrownBy(() -> Guice.createInjector(module)).isInstanceOf(CreationException.class);
+    }
+
+    @Test
+    public void testConfigure_PrivateModule() {
+        Module privateModule = new PrivateModule() {
+            @Override
+            protected void configure() {
+                install(bindString("a", "1"));
+                expose(Key.get(String.class, Names.named("a")));
+            }
+        };
+
+        Module module = new LayeredModule(Arrays.asList(bindString("a", "0"), bindString("b", "2"), privateModule));
+        Injector injector = Guice.createInjector(module);
+
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("a")))).isEqualTo("1");
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("b")))).isEqualTo("2");
+    }
+
+    @Test
+    public void testConfigure_PrivateModuleWithoutConflict() {
+        Module privateModule = new PrivateModule() {
+            @Override
+            protected void configure() {
+                install(bindString("a", "1"));
+                expose(Key.get(String.class, Names.named("a")));
+            }
+        };
+
+        Module module = new LayeredModule(Arrays.asList(bindString("b", "2"), privateModule));
+        Injector injector = Guice.createInjector(module);
+
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("a")))).isEqualTo("1");
+        assertThat(injector.getInstance(Key.get(String.class, Names.named("b")))).isEqualTo("2");
+    }
+
+}
@@ -0,0 +1,95 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Stage;
+import com.google.inject.name.Names;
+import com.google.inject.util.Modules;
+
+@SuppressWarnings("javadoc")
+public class ModuleOverridesTest {
+
+    private static Module bindString(String name, String value) {
+        return binder -> binder.bindConstant().annotatedWith(Names.named(name)).to(value);
+    }
+
+    private static String getString(Injector injector, String name) {
+        return injector.getInstance(Key.get(String.class, Names.named(name)));
+    }
+
+    @Test
+    public void testOverride() {
+        Module module = new ModuleOverrides().override(Stage.DEVELOPMENT, bindString("a", "1"), bindString("a", "2"));
+        Injector injector = Guice.createInjector(module);
+
+        assertThat(getString(injector, "a")).isEqualTo("2");
+    }
+
+    @Test
+    public void testOverride_Disjoint() {
+        Module module = new ModuleOverrides().override(Stage.DEVELOPMENT, bindString("a", "1"), bindString("b", "2"));
+        Injector injector = Guice.createInjector(module);
+
+        assertThat(getString(injector, "a")).isEqualTo("1");
+        assertThat(getString(injector, "b")).isEqualTo("2");
+    }
+
+    @Test
+    public void testOverride_Empty() {
+        ModuleOverrides overrides = new ModuleOverrides();
+        Module module = bindString("a", "1");
+
+        assertThat(overrides.override(Stage.DEVELOPMENT, module, Modules.EMPTY_MODULE)).isSameAs(module);
+        assertThat(overrides.override(Stage.DEVELOPMENT, module, Modules.combine())).isSameAs(module);
+    }
+
+    @Test
+    public void testRecord() {
+        ModuleOverrides overrides = new ModuleOverrides();
+        Module module = bindString("a", "1");
+
+        ModuleOverrides.Recording recording1 = overrides.record(Stage.DEVELOPMENT, module);
+        ModuleOverrides.Recording recording2 = overrides.record(Stage.DEVELOPMENT, module);
+        ModuleOverrides.Recording recording3 = overrides.record(Stage.PRODUCTION, module);
+
+        assertThat(recording1.getModule()).isNotSameAs(module);
+        assertThat(recording2.getModule()).isSameAs(module);
+        assertThat(recording2.getBoundKeys()).isSameAs(recording1.getBoundKeys());
+        assertThat(recording3.getModule()).isNotSameAs(module);
+        assertThat(recording3.getBoundKeys().getStage()).isEqualTo(Stage.PRODUCTION);
+    }
+
+}
@@ -0,0 +1,117 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
+
+@SuppressWarnings("javadoc")
+public class ModuleRecorderTest {
+
+    public static class CountingModule extends AbstractModule {
+
+        private final AtomicInteger configurations;
+
+        public CountingModule(AtomicInteger configurations) {
+            this.configurations = configurations;
+        }
+
+        @Override
+        protected void configure() {
+            this.configurations.incrementAndGet();
+            bind(String.class).annotatedWith(Names.named("counting")).toInstance("1");
+        }
+
+    }
+
+    public static class LookupModule extends CountingModule {
+
+        public LookupModule(AtomicInteger configurations) {
+            super(configurations);
+        }
+
+        @Override
+        protected void configure() {
+            super.configure();
+            getProvider(Key.get(String.class, Names.named("counting")));
+        }
+
+    }
+
+    @Test
+    public void testGetModule() {
+        ModuleRecorder recorder = new ModuleRecorder(true);
+        AtomicInteger configurations = new AtomicInteger();
+
+        for (int i = 0; i < 3; ++i) {
+            Module module = recorder.getModule(CountingModule.class, () -> new CountingModule(configurations));
+            Injector injector = Guice.createInjector(module);
+            assertThat(injector.getInstance(Key.get(String.class, Names.named("counting")))).isEqualTo("1");
+        }
+
+        assertThat(configurations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGetModule_Disabled() {
+        ModuleRecorder recorder = new ModuleRecorder(false);
+        AtomicInteger configurations = new AtomicInteger();
+
+        for (int i = 0; i < 3; ++i) {
+            Module module = recorder.getModule(CountingModule.class, () -> new CountingModule(configurations));
+            Guice.createInjector(module);
+        }
+
+        assertThat(configurations.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testGetModule_NotReplayable() {
+        ModuleRecorder recorder = new ModuleRecorder(true);
+        AtomicInteger configurations = new AtomicInteger();
+
+        for (int i = 0; i < 3; ++i) {
+            Module module = recorder.getModule(LookupModule.class, () -> new LookupModule(configurations));
+            Injector injector = Guice.createInjector(module);
+            assertThat(injector.getInstance(Key.get(String.class, Names.named("counting")))).isEqualTo("1");
+        }
+
+        assertThat(configurations.get()).isEqualTo(4);
+    }
+
+}
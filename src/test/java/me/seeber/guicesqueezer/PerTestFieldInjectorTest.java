@@ -0,0 +1,91 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+@SuppressWarnings("javadoc")
+public class PerTestFieldInjectorTest {
+
+    public static class InjectedTest {
+
+        @Inject
+        @PerTest
+        @Named("name")
+        private String name;
+
+        @Inject
+        private String unqualified;
+
+    }
+
+    public static class NotInjectedTest {
+
+        @PerTest
+        private String name;
+
+    }
+
+    protected static Injector createInjector(String name) {
+        return Guice.createInjector(binder -> {
+            binder.bind(String.class).annotatedWith(Names.named("name")).toInstance(name);
+            binder.bind(String.class).toInstance("unqualified");
+        });
+    }
+
+    @Test
+    public void testInjectMembers() {
+        PerTestFieldInjector fieldInjector = new PerTestFieldInjector(InjectedTest.class,
+                new DefaultAnnotationInspector());
+        InjectedTest test = new InjectedTest();
+
+        fieldInjector.injectMembers(test, createInjector("1"));
+        assertThat(test.name).isEqualTo("1");
+        assertThat(test.unqualified).isNull();
+
+        fieldInjector.injectMembers(test, createInjector("2"));
+        assertThat(test.name).isEqualTo("2");
+    }
+
+    @Test
+    public void testCreate_NotInjected() {
+        assertThatThrownBy(() -> new PerTestFieldInjector(NotInjectedTest.class, new DefaultAnnotationInspector()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
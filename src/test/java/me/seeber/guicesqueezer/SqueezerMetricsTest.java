@@ -0,0 +1,173 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Test;
+import org.junit.runner.notification.RunNotifier;
+
+import com.google.inject.Guice;
+
+import me.seeber.guicesqueezer.java.Lists;
+import me.seeber.guicesqueezer.test.TestWithParameter;
+
+@SuppressWarnings("javadoc")
+public class SqueezerMetricsTest {
+
+    public static class RecordingListener implements SqueezerMetricsListener {
+
+        public final List<Method> testMethods = new ArrayList<>();
+
+        public final List<Class<?>> testClasses = new ArrayList<>();
+
+        @Override
+        public synchronized void testMethodFinished(Class<?> testClass, Method testMethod, PhaseTimings timings) {
+            this.testMethods.add(testMethod);
+        }
+
+        @Override
+        public synchronized void testClassFinished(Class<?> testClass, PhaseTimings timings) {
+            this.testClasses.add(testClass);
+        }
+
+    }
+
+    @Test
+    public void testStartTestMethod_Disabled() {
+        SqueezerMetrics metrics = new SqueezerMetrics();
+
+        assertThat(metrics.isEnabled()).isFalse();
+        assertThat(metrics.startTestMethod()).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testTime() throws Exception {
+        SqueezerMetrics metrics = new SqueezerMetrics();
+        RecordingListener listener = new RecordingListener();
+        metrics.addListener(listener);
+
+        Optional<PhaseTimings> timings = metrics.startTestMethod();
+        assertThat(timings).isPresent();
+
+        try (SqueezerMetrics.Timer timer = metrics.time(Phase.TEST_BODY)) {
+            Thread.sleep(2);
+        }
+
+        Method testMethod = SqueezerMetricsTest.class.getMethod("testTime");
+        metrics.finishTestMethod(SqueezerMetricsTest.class, testMethod, timings.get());
+
+        assertThat(timings.get().getWallTime(Phase.TEST_BODY)).isGreaterThan(0);
+        assertThat(timings.get().getWallTime(Phase.INJECTOR)).isEqualTo(0);
+        assertThat(listener.testMethods).containsExactly(testMethod);
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testTime_NoTestMethod() throws Exception {
+        SqueezerMetrics metrics = new SqueezerMetrics();
+        metrics.addListener(new RecordingListener());
+
+        Optional<PhaseTimings> timings = metrics.startTestMethod();
+        metrics.finishTestMethod(SqueezerMetricsTest.class, SqueezerMetricsTest.class.getMethod("testTime"),
+                timings.get());
+
+        try (SqueezerMetrics.Timer timer = metrics.time(Phase.TEST_BODY)) {
+            Thread.sleep(2);
+        }
+
+        assertThat(timings.get().getWallTime(Phase.TEST_BODY)).isEqualTo(0);
+    }
+
+    @Test
+    public void testTime_Disabled() {
+        SqueezerMetrics metrics = new SqueezerMetrics();
+
+        assertThat(metrics.time(Phase.INJECTOR)).isSameAs(metrics.time(Phase.TEST_BODY));
+    }
+
+    @Test
+    public void testRunner() throws Exception {
+        RecordingListener listener = new RecordingListener();
+        AggregatingMetricsListener aggregatingListener = new AggregatingMetricsListener();
+        SqueezerMetrics.getDefault().addListener(listener);
+        SqueezerMetrics.getDefault().addListener(aggregatingListener);
+
+        try {
+            new GuiceSqueezer(TestWithParameter.class).run(new RunNotifier());
+        }
+        finally {
+            SqueezerMetrics.getDefault().removeListener(listener);
+            SqueezerMetrics.getDefault().removeListener(aggregatingListener);
+        }
+
+        PhaseTimings timings = aggregatingListener.getClassTimings(TestWithParameter.class);
+
+        assertThat(listener.testMethods).isNotEmpty();
+        assertThat(listener.testClasses).containsExactly(TestWithParameter.class);
+        assertThat(timings.getWallTime(Phase.INJECTOR)).isGreaterThan(0);
+        assertThat(timings.getWallTime(Phase.CREATE_TEST)).isGreaterThan(0);
+        assertThat(aggregatingListener.getReport()).contains(TestWithParameter.class.getName());
+
+        Path reportFile = Files.createTempFile("metrics", ".txt");
+
+        try {
+            aggregatingListener.writeReport(reportFile);
+            assertThat(new String(Files.readAllBytes(reportFile), StandardCharsets.UTF_8))
+                    .isEqualTo(aggregatingListener.getReport());
+        }
+        finally {
+            Files.delete(reportFile);
+        }
+    }
+
+    @Test
+    public void testReport_InjectorCache() {
+        InjectorCache injectorCache = new InjectorCache(4);
+        CompositionFingerprint fingerprint = new CompositionFingerprint(
+                Lists.of(Collections.singleton(SqueezerMetricsTest.class)));
+        AggregatingMetricsListener listener = new AggregatingMetricsListener(injectorCache);
+
+        injectorCache.getInjector(fingerprint, () -> Guice.createInjector());
+        injectorCache.getInjector(fingerprint, () -> Guice.createInjector());
+
+        assertThat(listener.getReport()).contains(injectorCache.getStatistics()).contains("1 hits, 1 misses");
+        assertThat(new AggregatingMetricsListener(new InjectorCache(0)).getReport()).doesNotContain("injector cache");
+    }
+
+}
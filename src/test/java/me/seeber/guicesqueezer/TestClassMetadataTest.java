@@ -0,0 +1,153 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.Provides;
+
+@SuppressWarnings("javadoc")
+public class TestClassMetadataTest {
+
+    public static class Fixture {
+
+        public static class FixtureModule extends AbstractModule {
+            @Override
+            protected void configure() {
+            }
+        }
+
+        public class InnerModule extends AbstractModule {
+            @Override
+            protected void configure() {
+            }
+        }
+
+        @Bind(Runnable.class)
+        public static class BoundRunnable implements Runnable {
+            @Override
+            public void run() {
+            }
+        }
+
+        public static Module createModule() {
+            return new FixtureModule();
+        }
+
+        public static Module createModule(String name) {
+            return new FixtureModule();
+        }
+
+        @Provides
+        public static String provideString() {
+            return "test";
+        }
+
+    }
+
+    public static class Generated {
+
+        public static class Nested {
+
+            @Provides
+            public static String provideString() {
+                return "reflection";
+            }
+
+        }
+
+        @Provides
+        public static String provideString() {
+            return "reflection";
+        }
+
+    }
+
+    public static class Generated_Nested {
+
+        @Provides
+        public static String provideString() {
+            return "reflection";
+        }
+
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testOf() throws Exception {
+        TestClassMetadata metadata = TestClassMetadata.of(Fixture.class);
+
+        assertThat(metadata.getTestClass()).isEqualTo(Fixture.class);
+        assertThat(metadata.getModuleClasses()).containsExactly(Fixture.FixtureModule.class);
+        assertThat(metadata.getFactoryMethods()).containsExactly(Fixture.class.getMethod("createModule"));
+        assertThat(metadata.getBoundClasses()).containsExactly(Fixture.BoundRunnable.class);
+        assertThat(metadata.getProviderMethods()).containsExactly(Fixture.class.getMethod("provideString"));
+        assertThat(metadata.getFingerprintLayer()).containsOnly(Fixture.FixtureModule.class,
+                Fixture.class.getMethod("createModule"), Fixture.BoundRunnable.class,
+                Fixture.class.getMethod("provideString"));
+        assertThat(metadata.getGeneratedModuleClass()).isEmpty();
+        assertThat(TestClassMetadata.of(Fixture.class)).isSameAs(metadata);
+    }
+
+    @Test
+    public void testOf_Generated() {
+        TestClassMetadata metadata = TestClassMetadata.of(Generated.class);
+
+        assertThat(metadata.getGeneratedModuleClass()).contains(TestClassMetadataTest_Generated_BindingModule.class);
+
+        Module module = new DefaultTestComposition().createTestClassModule(Generated.class);
+        Injector injector = Guice.createInjector(module);
+
+        assertThat(injector.getInstance(String.class)).isEqualTo("generated");
+    }
+
+    @Test
+    public void testOf_GeneratedWithUnderscore() {
+        assertThat(TestClassMetadata.of(Generated_Nested.class).getGeneratedModuleClass())
+                .contains(TestClassMetadataTest_Generated_1Nested_BindingModule.class);
+        assertThat(TestClassMetadata.of(Generated.Nested.class).getGeneratedModuleClass()).isEmpty();
+    }
+
+    @Test
+    public void testOf_Empty() {
+        TestClassMetadata metadata = TestClassMetadata.of(Object.class);
+
+        assertThat(metadata.getModuleClasses()).isEmpty();
+        assertThat(metadata.getFactoryMethods()).isEmpty();
+        assertThat(metadata.getBoundClasses()).isEmpty();
+        assertThat(metadata.getProviderMethods()).isEmpty();
+        assertThat(metadata.getFingerprintLayer()).isEmpty();
+    }
+
+}
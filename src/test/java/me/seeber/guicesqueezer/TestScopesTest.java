@@ -0,0 +1,176 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.OutOfScopeException;
+
+@SuppressWarnings("javadoc")
+public class TestScopesTest {
+
+    @ClassScoped
+    public static class ClassCounter implements TestResettable {
+
+        private final AtomicInteger resets = new AtomicInteger();
+
+        @Override
+        public void reset() {
+            this.resets.incrementAndGet();
+        }
+
+    }
+
+    @TestScoped
+    public static class TestObject {
+        // Test scoped
+    }
+
+    private static class FirstTest {
+        // Test class
+    }
+
+    private static class SecondTest {
+        // Test class
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testClassScope() {
+        TestScopes scopes = new TestScopes();
+        Injector injector = Guice.createInjector(binder -> binder.bindScope(ClassScoped.class, scopes.getClassScope()));
+        Injector otherInjector = Guice
+                .createInjector(binder -> binder.bindScope(ClassScoped.class, scopes.getClassScope()));
+        ClassCounter counter;
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            counter = injector.getInstance(ClassCounter.class);
+            assertThat(injector.getInstance(ClassCounter.class)).isSameAs(counter);
+        }
+
+        assertThat(counter.resets.get()).isEqualTo(1);
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            assertThat(injector.getInstance(ClassCounter.class)).isSameAs(counter);
+            assertThat(otherInjector.getInstance(ClassCounter.class)).isNotSameAs(counter);
+        }
+
+        try (TestScopes.Context context = scopes.enterTest(SecondTest.class)) {
+            assertThat(injector.getInstance(ClassCounter.class)).isNotSameAs(counter);
+        }
+
+        scopes.releaseTestClass(FirstTest.class);
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            assertThat(injector.getInstance(ClassCounter.class)).isNotSameAs(counter);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testClassScope_ChildInjector() {
+        TestScopes scopes = new TestScopes();
+        Injector injector = Guice.createInjector(binder -> binder.bindScope(ClassScoped.class, scopes.getClassScope()));
+        Injector childInjector = injector.createChildInjector();
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            assertThat(childInjector.getInstance(ClassCounter.class))
+                    .isSameAs(injector.getInstance(ClassCounter.class));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testClassScope_RunningTests() {
+        TestScopes scopes = new TestScopes();
+        Injector injector = Guice.createInjector(binder -> binder.bindScope(ClassScoped.class, scopes.getClassScope()));
+        ClassCounter counter;
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            counter = injector.getInstance(ClassCounter.class);
+
+            try (TestScopes.Context otherContext = scopes.enterTest(FirstTest.class)) {
+                assertThat(injector.getInstance(ClassCounter.class)).isSameAs(counter);
+            }
+
+            assertThat(counter.resets.get()).isEqualTo(0);
+        }
+
+        assertThat(counter.resets.get()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testTestScope() {
+        TestScopes scopes = new TestScopes();
+        Injector injector = Guice.createInjector(binder -> binder.bindScope(TestScoped.class, scopes.getTestScope()));
+        TestObject testObject;
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            testObject = injector.getInstance(TestObject.class);
+            assertThat(injector.getInstance(TestObject.class)).isSameAs(testObject);
+        }
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            assertThat(injector.getInstance(TestObject.class)).isNotSameAs(testObject);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testTestScope_Nested() {
+        TestScopes scopes = new TestScopes();
+        Injector injector = Guice.createInjector(binder -> binder.bindScope(TestScoped.class, scopes.getTestScope()));
+
+        try (TestScopes.Context context = scopes.enterTest(FirstTest.class)) {
+            TestObject testObject = injector.getInstance(TestObject.class);
+
+            try (TestScopes.Context nestedContext = scopes.enterTest(SecondTest.class)) {
+                assertThat(injector.getInstance(TestObject.class)).isNotSameAs(testObject);
+            }
+
+            assertThat(injector.getInstance(TestObject.class)).isSameAs(testObject);
+        }
+    }
+
+    @Test
+    public void testTestScope_OutOfScope() {
+        TestScopes scopes = new TestScopes();
+        Injector injector = Guice.createInjector(binder -> binder.bindScope(TestScoped.class, scopes.getTestScope()));
+
+        assertThatThrownBy(() -> injector.getInstance(TestObject.class)).hasCauseInstanceOf(OutOfScopeException.class);
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.junit.runner.notification.RunNotifier;
+import org.junit.runners.model.InitializationError;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import me.seeber.guicesqueezer.GuiceSqueezer;
+import me.seeber.guicesqueezer.SqueezerEvent;
+import me.seeber.guicesqueezer.SqueezerEvents;
+import me.seeber.guicesqueezer.test.TestWithProvidesMethod;
+
+@SuppressWarnings("javadoc")
+public class FlightRecorderEventsTest {
+
+    @Test
+    public void testDisabled() {
+        assertThat(SqueezerEvents.beginUpdateInjector()).isSameAs(SqueezerEvents.NONE);
+    }
+
+    @Test
+    public void testBegin_EnabledType() {
+        try (Recording recording = new Recording()) {
+            recording.enable(UpdateInjectorEvent.class).withoutThreshold();
+            recording.disable(ProvisionEvent.class);
+            recording.start();
+
+            try (SqueezerEvent event = SqueezerEvents.beginUpdateInjector()) {
+                assertThat(event).isNotSameAs(SqueezerEvents.NONE);
+            }
+
+            assertThat(SqueezerEvents.beginProvision()).isSameAs(SqueezerEvents.NONE);
+        }
+    }
+
+    @Test
+    public void testRecording() throws InitializationError, IOException {
+        Path file = Files.createTempFile("guice-squeezer", ".jfr");
+
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable(UpdateInjectorEvent.class).withoutThreshold();
+                recording.enable(ComposeModuleEvent.class).withoutThreshold();
+                recording.enable(ProvisionEvent.class).withoutThreshold();
+                recording.start();
+
+                new GuiceSqueezer(TestWithProvidesMethod.class).run(new RunNotifier());
+
+                recording.stop();
+                recording.dump(file);
+            }
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            List<String> names = events.stream().map(e -> e.getEventType().getName()).distinct()
+                    .collect(Collectors.toList());
+
+            assertThat(names).contains("me.seeber.guicesqueezer.UpdateInjector",
+                    "me.seeber.guicesqueezer.ComposeModule", "me.seeber.guicesqueezer.Provision");
+
+            RecordedEvent updateEvent = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("me.seeber.guicesqueezer.UpdateInjector"))
+                    .findFirst().get();
+
+            assertThat(updateEvent.getClass("testClass").getName()).isEqualTo(TestWithProvidesMethod.class.getName());
+            assertThat(updateEvent.getInt("bindingCount")).isGreaterThan(0);
+        }
+        finally {
+            Files.delete(file);
+        }
+    }
+
+}
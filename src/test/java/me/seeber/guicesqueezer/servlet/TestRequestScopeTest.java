@@ -0,0 +1,114 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.servlet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.inject.Key;
+import com.google.inject.OutOfScopeException;
+import com.google.inject.Provider;
+import com.google.inject.name.Names;
+
+@SuppressWarnings("javadoc")
+public class TestRequestScopeTest {
+
+    private static final Key<String> KEY = Key.get(String.class, Names.named("user"));
+
+    @Test
+    @SuppressWarnings("try")
+    public void testScope() {
+        TestRequestScope scope = new TestRequestScope();
+        AtomicInteger counter = new AtomicInteger();
+        Provider<String> provider = scope.scope(KEY, () -> String.valueOf(counter.incrementAndGet()));
+
+        try (TestRequestScope.Context context = scope.enter(Collections.emptyMap())) {
+            assertThat(scope.isActive()).isTrue();
+            assertThat(provider.get()).isEqualTo("1");
+            assertThat(provider.get()).isEqualTo("1");
+        }
+
+        try (TestRequestScope.Context context = scope.enter(Collections.emptyMap())) {
+            assertThat(provider.get()).isEqualTo("2");
+        }
+
+        assertThat(scope.isActive()).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testScope_Attributes() {
+        TestRequestScope scope = new TestRequestScope();
+        Provider<String> provider = scope.scope(KEY, () -> "unscoped");
+        Map<Key<?>, Object> attributes = Collections.singletonMap(KEY, "seeded");
+
+        try (TestRequestScope.Context context = scope.enter(attributes)) {
+            assertThat(provider.get()).isEqualTo("seeded");
+        }
+
+        try (TestRequestScope.Context context = scope.enter(Collections.emptyMap())) {
+            assertThat(provider.get()).isEqualTo("unscoped");
+        }
+    }
+
+    @Test
+    public void testScope_Pooled() {
+        TestRequestScope scope = new TestRequestScope();
+        TestRequestScope.Context firstContext = scope.enter(Collections.emptyMap());
+        firstContext.close();
+        TestRequestScope.Context secondContext = scope.enter(Collections.emptyMap());
+        secondContext.close();
+
+        assertThat(secondContext).isSameAs(firstContext);
+    }
+
+    @Test
+    public void testScope_OutOfScope() {
+        TestRequestScope scope = new TestRequestScope();
+        Provider<String> provider = scope.scope(KEY, () -> "unscoped");
+
+        assertThatThrownBy(() -> provider.get()).isInstanceOf(OutOfScopeException.class);
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testEnter_Nested() {
+        TestRequestScope scope = new TestRequestScope();
+
+        try (TestRequestScope.Context context = scope.enter(Collections.emptyMap())) {
+            assertThatThrownBy(() -> scope.enter(Collections.emptyMap())).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.servlet.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+import com.google.inject.servlet.RequestScoped;
+
+import me.seeber.guicesqueezer.servlet.GuiceServletSqueezer;
+import me.seeber.guicesqueezer.servlet.RequestAttribute;
+import me.seeber.guicesqueezer.servlet.TestRequestScope;
+import me.seeber.guicesqueezer.servlet.TestRequestScopeModule;
+
+@RunWith(GuiceServletSqueezer.class)
+@SuppressWarnings("javadoc")
+public class TestWithRequestAttributes {
+
+    @RequestScoped
+    public static class Counter {
+
+        private int count;
+
+        public int increment() {
+            return ++this.count;
+        }
+
+    }
+
+    public static class TestModule extends AbstractModule {
+
+        @Override
+        protected void configure() {
+            install(new TestRequestScopeModule());
+            bind(Key.get(String.class, Names.named("user"))).toProvider(() -> "anonymous").in(RequestScoped.class);
+        }
+
+    }
+
+    @Inject
+    private Provider<Counter> counter;
+
+    @Test
+    public void testScope() {
+        assertThat(TestRequestScope.getDefault().isActive()).isTrue();
+        assertThat(this.counter.get().increment()).isEqualTo(1);
+        assertThat(this.counter.get().increment()).isEqualTo(2);
+    }
+
+    @Test
+    public void testScope_Again() {
+        assertThat(this.counter.get().increment()).isEqualTo(1);
+    }
+
+    @Test
+    @RequestAttribute(name = "user", value = "alice")
+    public void testAttribute(@Named("user") Provider<String> user) {
+        assertThat(user.get()).isEqualTo("alice");
+    }
+
+    @Test
+    public void testAttribute_Missing(@Named("user") Provider<String> user) {
+        assertThat(user.get()).isEqualTo("anonymous");
+    }
+
+}
@@ -29,13 +29,18 @@ package me.seeber.guicesqueezer.servlet.test;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import javax.inject.Named;
+
 import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
 import com.google.inject.servlet.ServletScopes;
 
 import me.seeber.guicesqueezer.servlet.GuiceServletSqueezer;
+import me.seeber.guicesqueezer.servlet.RequestAttribute;
 
 @RunWith(GuiceServletSqueezer.class)
 @SuppressWarnings("javadoc")
@@ -46,6 +51,7 @@ public class TestWithRequestScope {
         @Override
         protected void configure() {
             bind(String.class).toProvider(() -> "1").in(ServletScopes.REQUEST);
+            bind(Key.get(String.class, Names.named("user"))).toProvider(() -> "anonymous").in(ServletScopes.REQUEST);
         }
 
     }
@@ -55,4 +61,10 @@ public class TestWithRequestScope {
         assertThat(testString).isEqualTo("1");
     }
 
+    @Test
+    @RequestAttribute(name = "user", value = "alice")
+    public void testAttribute(@Named("user") String user) {
+        assertThat(user).isEqualTo("alice");
+    }
+
 }
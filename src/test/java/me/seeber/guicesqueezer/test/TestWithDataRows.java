@@ -0,0 +1,102 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.inject.Named;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
+
+import me.seeber.guicesqueezer.DataRows;
+import me.seeber.guicesqueezer.GuiceParameterizedSqueezer;
+import me.seeber.guicesqueezer.WithRows;
+
+@RunWith(GuiceParameterizedSqueezer.class)
+@SuppressWarnings("javadoc")
+public class TestWithDataRows {
+
+    private static final AtomicInteger SQUARE_ROWS = new AtomicInteger();
+
+    private static final AtomicInteger NAME_ROWS = new AtomicInteger();
+
+    public static class TestModule extends AbstractModule {
+
+        @Override
+        protected void configure() {
+            bind(Integer.class).annotatedWith(Names.named("count")).toInstance(1000);
+            bind(String.class).annotatedWith(Names.named("prefix")).toInstance("name");
+        }
+
+    }
+
+    @DataRows
+    public static Stream<Object[]> squares(@Named("count") Integer count) {
+        return IntStream.range(0, count).mapToObj(i -> new Object[] { i, i * i });
+    }
+
+    @DataRows("names")
+    public static Stream<String> createNames(@Named("prefix") String prefix) {
+        return IntStream.range(0, 10).mapToObj(i -> prefix + i);
+    }
+
+    @AfterClass
+    public static void verifyRows() {
+        assertThat(SQUARE_ROWS.get()).isEqualTo(1000);
+        assertThat(NAME_ROWS.get()).isEqualTo(10);
+    }
+
+    @Test
+    @WithRows("squares")
+    public void testSquare(int value, int expected) {
+        assertThat(value * value).isEqualTo(expected);
+        SQUARE_ROWS.incrementAndGet();
+    }
+
+    @Test
+    @WithRows("names")
+    public void testName(String name, @Named("prefix") String prefix) {
+        assertThat(name).startsWith(prefix);
+        NAME_ROWS.incrementAndGet();
+    }
+
+    @Test
+    public void testInjection(@Named("prefix") String prefix) {
+        assertThat(prefix).isEqualTo("name");
+    }
+
+}
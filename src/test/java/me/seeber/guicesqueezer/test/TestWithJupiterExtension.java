@@ -0,0 +1,115 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Provider;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import com.google.inject.Provides;
+
+import me.seeber.guicesqueezer.AlternateTestModule;
+import me.seeber.guicesqueezer.TestModule;
+import me.seeber.guicesqueezer.TestModules;
+import me.seeber.guicesqueezer.jupiter.GuiceSqueezerExtension;
+
+@ExtendWith(GuiceSqueezerExtension.class)
+@Execution(ExecutionMode.CONCURRENT)
+@TestModules(TestModule.class)
+@SuppressWarnings("javadoc")
+public class TestWithJupiterExtension {
+
+    public interface External {
+
+        public String getName();
+
+    }
+
+    public static class ExternalResolver implements ParameterResolver {
+
+        @Override
+        public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            return parameterContext.getParameter().getType() == External.class;
+        }
+
+        @Override
+        public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+            External external = () -> "external";
+            return external;
+        }
+
+    }
+
+    @Provides
+    @Named("provided")
+    public static String provideString() {
+        return "2";
+    }
+
+    @Inject
+    @Named("default")
+    private String testString;
+
+    @Test
+    public void testInjection() {
+        assertThat(this.testString).isEqualTo("1");
+    }
+
+    @Test
+    public void testParameter(@Named("provided") String provided, Provider<Object> provider, TestInfo testInfo) {
+        assertThat(provided).isEqualTo("2");
+        assertThat(provider.get()).isNotNull();
+        assertThat(testInfo.getDisplayName()).startsWith("testParameter");
+    }
+
+    @Test
+    @ExtendWith(ExternalResolver.class)
+    public void testOtherResolver(@Named("provided") String provided, External external) {
+        assertThat(provided).isEqualTo("2");
+        assertThat(external.getName()).isEqualTo("external");
+    }
+
+    @Test
+    @TestModules(AlternateTestModule.class)
+    public void testMethodModule(@Named("alternate") String alternate) {
+        assertThat(this.testString).isEqualTo("1");
+        assertThat(alternate).isEqualTo("1");
+    }
+
+}
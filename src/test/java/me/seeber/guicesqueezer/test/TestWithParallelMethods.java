@@ -0,0 +1,79 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
+
+import me.seeber.guicesqueezer.GuiceSqueezer;
+import me.seeber.guicesqueezer.ParallelMethods;
+
+@RunWith(GuiceSqueezer.class)
+@ParallelMethods(threads = 2)
+@SuppressWarnings("javadoc")
+public class TestWithParallelMethods {
+
+    private static final CountDownLatch RUNNING = new CountDownLatch(2);
+
+    public static class NestedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(String.class).annotatedWith(Names.named("nested")).toInstance("1");
+        }
+    }
+
+    @Inject
+    @Named("nested")
+    private String testString;
+
+    @Test
+    public void testParallel1(@Named("nested") String testString) throws InterruptedException {
+        RUNNING.countDown();
+        assertThat(RUNNING.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(this.testString).isEqualTo(testString);
+    }
+
+    @Test
+    public void testParallel2(@Named("nested") String testString) throws InterruptedException {
+        RUNNING.countDown();
+        assertThat(RUNNING.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(this.testString).isEqualTo(testString);
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import javax.inject.Named;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.MethodSorters;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
+
+import me.seeber.guicesqueezer.DefaultInjectorStrategy;
+import me.seeber.guicesqueezer.GuiceSqueezer;
+import me.seeber.guicesqueezer.NoReplay;
+import me.seeber.guicesqueezer.ParallelMethods;
+import me.seeber.guicesqueezer.PrebuildInjectors;
+import me.seeber.guicesqueezer.TestModules;
+import me.seeber.guicesqueezer.UseInjectorStrategy;
+
+@RunWith(GuiceSqueezer.class)
+@PrebuildInjectors(depth = 2)
+@UseInjectorStrategy(DefaultInjectorStrategy.class)
+@ParallelMethods(threads = 1)
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+@SuppressWarnings("javadoc")
+public class TestWithPrebuiltMethodModules {
+
+    @NoReplay
+    public static class NestedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(String.class).annotatedWith(Names.named("thread")).toInstance(Thread.currentThread().getName());
+        }
+    }
+
+    public static class MethodModules {
+
+        public static class SecondModule extends AbstractModule {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(Names.named("method")).toInstance("2");
+            }
+        }
+
+        public static class ThirdModule extends AbstractModule {
+            @Override
+            protected void configure() {
+                bind(String.class).annotatedWith(Names.named("method")).toInstance("3");
+            }
+        }
+
+    }
+
+    @Test
+    public void test1_BuiltInTestThread(@Named("thread") String threadName) {
+        assertThat(threadName).isNotEqualTo("guice-squeezer-prebuild");
+    }
+
+    @Test
+    @TestModules(MethodModules.SecondModule.class)
+    public void test2_Prebuilt(@Named("thread") String threadName, @Named("method") String methodString) {
+        assertThat(threadName).isEqualTo("guice-squeezer-prebuild");
+        assertThat(methodString).isEqualTo("2");
+    }
+
+    @Test
+    @TestModules(MethodModules.ThirdModule.class)
+    public void test3_Prebuilt(@Named("thread") String threadName, @Named("method") String methodString) {
+        assertThat(threadName).isEqualTo("guice-squeezer-prebuild");
+        assertThat(methodString).isEqualTo("3");
+    }
+
+}
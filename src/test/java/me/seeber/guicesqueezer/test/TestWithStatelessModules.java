@@ -0,0 +1,100 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
+
+import me.seeber.guicesqueezer.GuiceSqueezer;
+import me.seeber.guicesqueezer.StatelessModule;
+import me.seeber.guicesqueezer.TestModule;
+
+@RunWith(GuiceSqueezer.class)
+@SuppressWarnings("javadoc")
+public class TestWithStatelessModules {
+
+    private static final AtomicInteger CLASS_INSTANCES = new AtomicInteger();
+
+    private static final AtomicInteger METHOD_CALLS = new AtomicInteger();
+
+    @StatelessModule
+    public static class LookupModule extends AbstractModule {
+
+        public LookupModule() {
+            CLASS_INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        protected void configure() {
+            bindConstant().annotatedWith(Names.named("lookup")).to("2");
+        }
+
+    }
+
+    @StatelessModule
+    public static Module testModule() {
+        METHOD_CALLS.incrementAndGet();
+        return new TestModule("method");
+    }
+
+    @Inject
+    @Named("lookup")
+    private String lookupString;
+
+    @Inject
+    @Named("method")
+    private String methodString;
+
+    @Test
+    public void testFirst() {
+        assertThat(this.lookupString).isEqualTo("2");
+        assertThat(this.methodString).isEqualTo("1");
+        assertThat(CLASS_INSTANCES.get()).isEqualTo(1);
+        assertThat(METHOD_CALLS.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSecond() {
+        assertThat(this.lookupString).isEqualTo("2");
+        assertThat(this.methodString).isEqualTo("1");
+        assertThat(CLASS_INSTANCES.get()).isEqualTo(1);
+        assertThat(METHOD_CALLS.get()).isEqualTo(1);
+    }
+
+}
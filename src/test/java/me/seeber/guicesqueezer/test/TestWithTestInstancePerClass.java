@@ -0,0 +1,104 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.name.Names;
+
+import me.seeber.guicesqueezer.GuiceSqueezer;
+import me.seeber.guicesqueezer.PerTest;
+import me.seeber.guicesqueezer.TestInstancePerClass;
+
+@RunWith(GuiceSqueezer.class)
+@TestInstancePerClass
+@SuppressWarnings("javadoc")
+public class TestWithTestInstancePerClass {
+
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    private static final Set<Integer> COUNTS = ConcurrentHashMap.newKeySet();
+
+    public static class TestModule extends AbstractModule {
+
+        @Override
+        protected void configure() {
+            bind(Integer.class).annotatedWith(Names.named("count")).toProvider(() -> COUNTER.incrementAndGet());
+        }
+
+    }
+
+    @Inject
+    @Named("count")
+    private Integer sharedCount;
+
+    @Inject
+    @PerTest
+    @Named("count")
+    private Integer count;
+
+    public TestWithTestInstancePerClass() {
+        INSTANCES.incrementAndGet();
+    }
+
+    private void verifyInstance() {
+        assertThat(INSTANCES.get()).isEqualTo(1);
+        assertThat(COUNTS.add(this.count)).isTrue();
+        assertThat(this.count).isEqualTo(COUNTER.get());
+        assertThat(this.sharedCount).isLessThan(this.count);
+    }
+
+    @Test
+    public void testFirst() {
+        verifyInstance();
+    }
+
+    @Test
+    public void testSecond() {
+        verifyInstance();
+    }
+
+    @Test
+    public void testThird() {
+        verifyInstance();
+    }
+
+}
@@ -0,0 +1,120 @@
+/**
+ * BSD 2-Clause License
+ *
+ * Copyright (c) 2016-2017, Jochen Seeber
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package me.seeber.guicesqueezer.test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.inject.Inject;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import me.seeber.guicesqueezer.ChildInjectorStrategy;
+import me.seeber.guicesqueezer.ClassScoped;
+import me.seeber.guicesqueezer.GuiceSqueezer;
+import me.seeber.guicesqueezer.ParallelMethods;
+import me.seeber.guicesqueezer.TestResettable;
+import me.seeber.guicesqueezer.TestScoped;
+import me.seeber.guicesqueezer.UseInjectorStrategy;
+
+@RunWith(GuiceSqueezer.class)
+@UseInjectorStrategy(ChildInjectorStrategy.class)
+@ParallelMethods(threads = 1)
+@SuppressWarnings("javadoc")
+public class TestWithTestScopes {
+
+    private static final Set<Object> CLASS_OBJECTS = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private static final Set<Object> TEST_OBJECTS = Collections.synchronizedSet(
+            Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    private static final AtomicInteger TEST_RUNS = new AtomicInteger();
+
+    @ClassScoped
+    public static class RecordingService implements TestResettable {
+
+        private int calls;
+
+        public int call() {
+            return ++this.calls;
+        }
+
+        @Override
+        public void reset() {
+            this.calls = 0;
+        }
+
+    }
+
+    @TestScoped
+    public static class TestState {
+        // Created once per test method
+    }
+
+    @Inject
+    private RecordingService service;
+
+    @Inject
+    private TestState state;
+
+    @Inject
+    private TestState otherState;
+
+    private void verifyScopes() {
+        CLASS_OBJECTS.add(this.service);
+        TEST_OBJECTS.add(this.state);
+
+        assertThat(CLASS_OBJECTS).hasSize(1);
+        assertThat(TEST_OBJECTS).hasSize(TEST_RUNS.incrementAndGet());
+        assertThat(this.otherState).isSameAs(this.state);
+        assertThat(this.service.call()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFirst() {
+        verifyScopes();
+    }
+
+    @Test
+    public void testSecond() {
+        verifyScopes();
+    }
+
+    @Test
+    public void testThird(TestState parameterState) {
+        verifyScopes();
+        assertThat(parameterState).isSameAs(this.state);
+    }
+
+}